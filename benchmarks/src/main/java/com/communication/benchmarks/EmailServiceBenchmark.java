@@ -0,0 +1,81 @@
+package com.communication.benchmarks;
+
+import com.communication.configuration.AsyncProperties;
+import com.communication.model.PreparedEmail;
+import com.communication.service.impl.EmailServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.Resource;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Email construction and delivery against {@link SmtpSink}. {@code prepare} isolates MIME building and
+ * attachment encoding; {@code send} adds one SMTP session per message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmailServiceBenchmark {
+
+    private static final String BODY = "<html><body><h1>Invoice</h1><p>" + "Thank you for your order. ".repeat(40)
+            + "</p></body></html>";
+
+    @Param({"0", "10240", "1048576"})
+    public int attachmentBytes;
+
+    private SmtpSink sink;
+    private Executor executor;
+    private EmailServiceImpl emailService;
+    private List<Resource> attachments;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        sink = SmtpSink.start();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(sink.getPort());
+        Properties properties = new Properties();
+        properties.put("mail.smtp.auth", "false");
+        properties.put("mail.smtp.localhost", "localhost");
+        mailSender.setJavaMailProperties(properties);
+
+        executor = Fixtures.executor("bench-mail-", AsyncProperties.Mode.PLATFORM);
+        emailService = Fixtures.emailService(mailSender, executor);
+        attachments = attachmentBytes == 0 ? List.of() : List.of(Fixtures.attachment("invoice.pdf", attachmentBytes));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        sink.close();
+        Fixtures.shutdown(executor);
+    }
+
+    @Benchmark
+    public PreparedEmail prepare() {
+        return emailService.prepareEmail("Your invoice", BODY, "billing@example.com", "Billing", attachments);
+    }
+
+    @Benchmark
+    public void send() {
+        emailService.sendEmail("customer@example.com", "Your invoice", BODY, "billing@example.com", "Billing", attachments);
+    }
+}
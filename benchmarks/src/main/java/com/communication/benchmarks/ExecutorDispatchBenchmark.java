@@ -0,0 +1,116 @@
+package com.communication.benchmarks;
+
+import com.communication.configuration.AsyncProperties;
+import com.communication.model.EmailRequest;
+import com.communication.model.SmsRequest;
+import com.communication.model.SmsResponse;
+import com.communication.service.impl.AwsSnsMessageService;
+import com.communication.service.impl.EmailServiceImpl;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.PublishResponse;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of handing a send to the communication executors, with the provider call itself stubbed out.
+ * Compare each {@code *Async} benchmark with its {@code *Direct} baseline. Virtual-thread mode needs
+ * Java 21: run with {@code -p mode=VIRTUAL}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExecutorDispatchBenchmark {
+
+    @Param({"PLATFORM"})
+    public AsyncProperties.Mode mode;
+
+    private Executor smsExecutor;
+    private Executor emailExecutor;
+    private AwsSnsMessageService smsService;
+    private EmailServiceImpl emailService;
+
+    private final SmsRequest smsRequest = new SmsRequest("+15550100", "Your code is 123456", null);
+    private final EmailRequest emailRequest = new EmailRequest("customer@example.com", "Hello", "<p>Hi</p>");
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        smsExecutor = Fixtures.executor("bench-sns-", mode);
+        emailExecutor = Fixtures.executor("bench-mail-", mode);
+        smsService = new AwsSnsMessageService(Fixtures.of(SnsClient.class, new NoopSnsClient()), Fixtures.none(SnsAsyncClient.class), smsExecutor, 200);
+        emailService = Fixtures.emailService(new NoopMailSender(), emailExecutor);
+        emailRequest.setFrom("noreply@example.com");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Fixtures.shutdown(smsExecutor);
+        Fixtures.shutdown(emailExecutor);
+    }
+
+    @Benchmark
+    public SmsResponse sendMessageDirect() {
+        return smsService.sendMessage(smsRequest);
+    }
+
+    @Benchmark
+    public SmsResponse sendMessageAsync() {
+        return smsService.sendMessageAsync(smsRequest).join();
+    }
+
+    @Benchmark
+    public void sendEmailDirect() {
+        emailService.sendEmail(emailRequest.getTo(), emailRequest.getSubject(), emailRequest.getBody(), emailRequest.getFrom(),
+                null, null);
+    }
+
+    @Benchmark
+    public void sendEmailAsync() {
+        emailService.sendEmailAsync(emailRequest).join();
+    }
+
+    static final class NoopSnsClient implements SnsClient {
+        @Override
+        public PublishResponse publish(PublishRequest publishRequest) {
+            return PublishResponse.builder().messageId("bench").build();
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    static final class NoopMailSender extends JavaMailSenderImpl {
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+            // message is fully built by the caller; delivery is not part of this benchmark
+        }
+    }
+}
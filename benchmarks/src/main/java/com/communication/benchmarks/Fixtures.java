@@ -0,0 +1,85 @@
+package com.communication.benchmarks;
+
+import com.communication.configuration.AsyncProperties;
+import com.communication.configuration.email.MailConfig;
+import com.communication.configuration.executor.MonitoredExecutor;
+import com.communication.configuration.executor.MonitoredExecutors;
+import com.communication.idempotency.IdempotencyCache;
+import com.communication.metrics.CommunicationMetrics;
+import com.communication.outbox.CommunicationOutbox;
+import com.communication.resilience.Resilience;
+import com.communication.service.impl.EmailServiceImpl;
+import com.communication.service.support.AttachmentMetadataCache;
+import com.communication.template.TemplateEngine;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+/**
+ * Wires module classes by hand, without a Spring context, the way the container would.
+ */
+final class Fixtures {
+
+    private static final StaticListableBeanFactory EMPTY = new StaticListableBeanFactory();
+
+    private Fixtures() {
+    }
+
+    static <T> ObjectProvider<T> none(Class<T> type) {
+        return EMPTY.getBeanProvider(type);
+    }
+
+    static <T> ObjectProvider<T> of(Class<T> type, T bean) {
+        return new StaticListableBeanFactory(Map.of(type.getSimpleName(), bean)).getBeanProvider(type);
+    }
+
+    static EmailServiceImpl emailService(JavaMailSender mailSender, Executor executor) {
+        EmailServiceImpl service = new EmailServiceImpl(mailSender, executor, none(CommunicationOutbox.class),
+                none(Resilience.class), none(CommunicationMetrics.class), none(TemplateEngine.class),
+                none(IdempotencyCache.class), none(AttachmentMetadataCache.class), none(MailConfig.class));
+        set(service, "maxSize", "10MB");
+        service.init();
+        return service;
+    }
+
+    static MonitoredExecutor executor(String prefix, AsyncProperties.Mode mode) throws Exception {
+        MonitoredExecutor executor = MonitoredExecutors.create(prefix, mode, new AsyncProperties.Pool(8, 8, 10_000));
+        if (executor instanceof InitializingBean initializing) {
+            initializing.afterPropertiesSet();
+        }
+        return executor;
+    }
+
+    static void shutdown(Executor executor) throws Exception {
+        if (executor instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+    }
+
+    static Resource attachment(String fileName, int size) {
+        byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+        return new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return fileName;
+            }
+        };
+    }
+
+    static void set(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,203 @@
+package com.communication.benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal in-process SMTP server that accepts and discards every message, so mail benchmarks measure
+ * the client side rather than a real MTA. One thread per connection. Optionally delays the reply to
+ * each message and rejects a share of them with a transient {@code 451}.
+ * <p>
+ * {@link #startRelay} instead stands in for a relay some distance away: it advertises PIPELINING and CHUNKING
+ * and delays every reply by the round trip without holding up the commands behind it.
+ */
+public final class SmtpSink implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final ExecutorService workers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "smtp-sink");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final Duration latency;
+    private final double errorRate;
+    private final ScheduledExecutorService delayedReplies;
+
+    private SmtpSink(Duration latency, double errorRate, boolean relay) throws IOException {
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.delayedReplies = relay ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "smtp-sink-reply");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        this.server = new ServerSocket(0, 200, InetAddress.getLoopbackAddress());
+        workers.execute(this::acceptLoop);
+    }
+
+    public static SmtpSink start() throws IOException {
+        return new SmtpSink(Duration.ZERO, 0, false);
+    }
+
+    public static SmtpSink start(Duration latency, double errorRate) throws IOException {
+        return new SmtpSink(latency, errorRate, false);
+    }
+
+    public static SmtpSink startRelay(Duration roundTrip, double errorRate) throws IOException {
+        return new SmtpSink(roundTrip, errorRate, true);
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public long getMessages() {
+        return messages.get();
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        workers.shutdownNow();
+        if (delayedReplies != null) {
+            delayedReplies.shutdownNow();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                workers.execute(() -> handle(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            reply(out, "220 localhost ESMTP sink");
+            String line;
+            while ((line = readLine(in)) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(out, delayedReplies != null
+                            ? "250-localhost\r\n250-8BITMIME\r\n250-PIPELINING\r\n250-CHUNKING\r\n250 SIZE 0"
+                            : "250-localhost\r\n250-8BITMIME\r\n250 SIZE 0");
+                    case "HELO", "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        readData(in);
+                        if (!latency.isZero() && delayedReplies == null) {
+                            Thread.sleep(latency.toMillis());
+                        }
+                        accept(out);
+                    }
+                    case "BDAT" -> {
+                        String[] arguments = line.split(" ");
+                        int size = Integer.parseInt(arguments[1]);
+                        in.readNBytes(size);
+                        bytes.addAndGet(size);
+                        if (arguments.length > 2 && arguments[2].equalsIgnoreCase("LAST")) {
+                            accept(out);
+                        } else {
+                            reply(out, "250 2.0.0 " + size + " octets received");
+                        }
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // client went away or sink closed
+        }
+    }
+
+    private void accept(OutputStream out) throws IOException {
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            rejected.incrementAndGet();
+            reply(out, "451 4.3.0 Temporary failure, try again later");
+        } else {
+            messages.incrementAndGet();
+            reply(out, "250 OK queued");
+        }
+    }
+
+    private void readData(InputStream in) throws IOException {
+        String line;
+        while ((line = readLine(in)) != null && !line.equals(".")) {
+            bytes.addAndGet(line.length() + 2);
+        }
+    }
+
+    private void reply(OutputStream out, String reply) throws IOException {
+        byte[] line = (reply + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        if (delayedReplies == null) {
+            out.write(line);
+            out.flush();
+            return;
+        }
+        // One thread and a fixed delay keep each connection's replies in order
+        try {
+            delayedReplies.schedule(() -> {
+                try {
+                    out.write(line);
+                    out.flush();
+                } catch (IOException e) {
+                    // client went away
+                }
+            }, latency.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // sink closed
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+            line.append((char) b);
+        }
+        return line.length() > 0 ? line.toString() : null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.communication.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of latencies in microseconds: 128 linear sub-buckets per power of two,
+ * so any recorded value is reported within 1%.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+
+    void recordNanos(long nanos) {
+        counts.incrementAndGet(index(Math.max(0, nanos / 1_000)));
+    }
+
+    long count() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @return the latency in microseconds at or below which {@code quantile} of the samples fall
+     */
+    long percentileMicros(double quantile) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return valueOf(i);
+            }
+        }
+        return valueOf(counts.length() - 1);
+    }
+
+    private static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((micros >>> shift) - SUB_BUCKETS);
+    }
+
+    private static long valueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return ((long) (index % SUB_BUCKETS) + SUB_BUCKETS) << shift;
+    }
+}
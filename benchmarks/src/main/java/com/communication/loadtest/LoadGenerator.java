@@ -0,0 +1,86 @@
+package com.communication.loadtest;
+
+import com.communication.model.SmsResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop generator: keeps {@code concurrency} sends in flight for the given duration and records
+ * the latency of each. A send completing with a {@link List} (a bulk send) counts each element as a message.
+ * Being closed-loop, it understates latency once the target saturates; raise the
+ * concurrency until throughput stops growing to find that point.
+ */
+final class LoadGenerator {
+
+    private final int concurrency;
+
+    LoadGenerator(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    Result run(String target, Supplier<CompletableFuture<?>> send, Duration duration) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        LatencyHistogram histogram = new LatencyHistogram();
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        while (System.nanoTime() < end) {
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            CompletableFuture<?> future;
+            try {
+                future = send.get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((response, ex) -> {
+                histogram.recordNanos(System.nanoTime() - sent);
+                if (ex != null) {
+                    failed.incrementAndGet();
+                } else if (response instanceof List<?> bulk) {
+                    bulk.forEach(message -> (succeeded(message) ? succeeded : failed).incrementAndGet());
+                } else {
+                    (succeeded(response) ? succeeded : failed).incrementAndGet();
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(concurrency);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        return new Result(target, succeeded.get(), failed.get(), (succeeded.get() + failed.get()) / seconds,
+                histogram.percentileMicros(0.50), histogram.percentileMicros(0.99), histogram.percentileMicros(0.999));
+    }
+
+    private static boolean succeeded(Object response) {
+        return !(response instanceof SmsResponse sms && !sms.isSuccess());
+    }
+
+    static final class Result {
+        final String target;
+        final long succeeded;
+        final long failed;
+        final double messagesPerSecond;
+        final long p50Micros;
+        final long p99Micros;
+        final long p999Micros;
+
+        Result(String target, long succeeded, long failed, double messagesPerSecond, long p50Micros, long p99Micros,
+               long p999Micros) {
+            this.target = target;
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.messagesPerSecond = messagesPerSecond;
+            this.p50Micros = p50Micros;
+            this.p99Micros = p99Micros;
+            this.p999Micros = p999Micros;
+        }
+    }
+}
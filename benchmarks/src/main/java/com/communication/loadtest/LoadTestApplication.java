@@ -0,0 +1,15 @@
+package com.communication.loadtest;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+
+/**
+ * Boots the library the way a consuming service would (component scan of the module package), with every
+ * provider pointed at local stand-ins.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@ComponentScan(basePackages = "com.communication")
+public class LoadTestApplication {
+}
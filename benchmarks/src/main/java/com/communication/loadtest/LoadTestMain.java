@@ -0,0 +1,147 @@
+package com.communication.loadtest;
+
+import com.communication.benchmarks.SmtpSink;
+import com.communication.model.EmailRequest;
+import com.communication.model.SmsRequest;
+import com.communication.service.EmailService;
+import com.communication.service.MessageService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * End-to-end load test of {@link EmailService} and every {@link MessageService} against local stand-ins.
+ * <pre>
+ * java -cp target/benchmarks.jar com.communication.loadtest.LoadTestMain \
+ *     --duration=30s --warmup=5s --concurrency=64 --latency=20ms --jitter=10ms --error-rate=0.01 \
+ *     --targets=email,twilio,sns,microsoft,bird
+ * </pre>
+ * With {@code --bulk=N} each SMS operation is one {@link MessageService#sendMessages} call for N recipients.
+ * With {@code --smtp-relay} the SMTP sink advertises PIPELINING and CHUNKING and applies {@code --latency} to every
+ * reply as a network round trip, instead of once per message.
+ * Any other {@code --name=value} is passed to Spring, e.g. {@code --communication.async.mode=virtual}.
+ */
+public final class LoadTestMain {
+
+    private static final String TWILIO_SID = "AC00000000000000000000000000000000";
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "duration", "30s", "warmup", "5s", "concurrency", "64", "latency", "20ms", "jitter", "10ms",
+                "error-rate", "0", "targets", "email,twilio,sns,microsoft,bird", "bulk", "0", "smtp-relay", "false"));
+        Map<String, Object> springProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            String[] keyValue = arg.replaceFirst("^--", "").split("=", 2);
+            String value = keyValue.length == 2 ? keyValue[1] : "true";
+            if (options.containsKey(keyValue[0])) {
+                options.put(keyValue[0], value);
+            } else {
+                springProperties.put(keyValue[0], value);
+            }
+        }
+        Duration duration = DurationStyle.detectAndParse(options.get("duration"));
+        Duration warmup = DurationStyle.detectAndParse(options.get("warmup"));
+        Duration latency = DurationStyle.detectAndParse(options.get("latency"));
+        Duration jitter = DurationStyle.detectAndParse(options.get("jitter"));
+        double errorRate = Double.parseDouble(options.get("error-rate"));
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        Set<String> targets = Set.of(options.get("targets").split(","));
+        int bulk = Integer.parseInt(options.get("bulk"));
+        boolean smtpRelay = Boolean.parseBoolean(options.get("smtp-relay"));
+
+        try (SmtpSink smtp = smtpRelay ? SmtpSink.startRelay(latency, errorRate) : SmtpSink.start(latency, errorRate);
+             ProviderMocks mocks = new ProviderMocks(latency, jitter, errorRate);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(LoadTestApplication.class)
+                     .properties(defaults(smtp, mocks, targets))
+                     .properties(springProperties)
+                     .run()) {
+
+            Map<String, Supplier<CompletableFuture<?>>> senders = new LinkedHashMap<>();
+            if (targets.contains("email")) {
+                EmailService emailService = context.getBean(EmailService.class);
+                EmailRequest request = new EmailRequest("customer@example.com", "Load test", "<p>Hello from the load test</p>");
+                senders.put("email", () -> emailService.sendEmailAsync(request));
+            }
+            SmsRequest smsRequest = new SmsRequest("+15550100", "Your code is 123456", "+15550199");
+            List<SmsRequest> bulkRequests = new ArrayList<>();
+            for (int i = 0; i < bulk; i++) {
+                bulkRequests.add(new SmsRequest(String.format("+1555%07d", i), "Scheduled maintenance tonight", "+15550199"));
+            }
+            context.getBeansOfType(MessageService.class).values().stream()
+                    .filter(service -> targets.contains(service.getProvider()) || "routing".equals(service.getProvider()))
+                    .forEach(service -> senders.put(service.getProvider(), bulk > 0
+                            ? () -> service.sendMessages(bulkRequests).collectList().toFuture()
+                            : () -> service.sendMessageAsync(smsRequest)));
+
+            LoadGenerator generator = new LoadGenerator(concurrency);
+            List<LoadGenerator.Result> results = new ArrayList<>();
+            for (Map.Entry<String, Supplier<CompletableFuture<?>>> sender : senders.entrySet()) {
+                System.out.printf("%s: warming up for %s, measuring for %s at concurrency %d%n",
+                        sender.getKey(), warmup, duration, concurrency);
+                generator.run(sender.getKey(), sender.getValue(), warmup);
+                results.add(generator.run(sender.getKey(), sender.getValue(), duration));
+            }
+            report(results, latency, jitter, errorRate);
+        }
+    }
+
+    private static Map<String, Object> defaults(SmtpSink smtp, ProviderMocks mocks, Set<String> targets) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.main.web-application-type", "none");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.com.communication", "warn");
+
+        properties.put("messaging.mail.host", "127.0.0.1");
+        properties.put("messaging.mail.port", smtp.getPort());
+        properties.put("messaging.mail.auth", false);
+        properties.put("messaging.mail.starttls", false);
+        properties.put("messaging.mail.default-from", "loadtest@example.com");
+
+        properties.put("messaging.twilio.enabled", targets.contains("twilio"));
+        properties.put("messaging.twilio.sid", TWILIO_SID);
+        properties.put("messaging.twilio.token", "loadtest");
+        properties.put("messaging.twilio.from", "+15550199");
+        properties.put("messaging.twilio.base-url", mocks.baseUrl());
+
+        properties.put("messaging.sns.enabled", targets.contains("sns"));
+        properties.put("messaging.sns.access-key", "loadtest");
+        properties.put("messaging.sns.secret-key", "loadtest");
+        properties.put("messaging.sns.region", "us-east-1");
+        properties.put("messaging.sns.endpoint", mocks.baseUrl());
+
+        properties.put("messaging.microsoft.enabled", targets.contains("microsoft"));
+        properties.put("azure.communication.connection-string", "endpoint=" + mocks.baseUrl() + "/;accesskey="
+                + Base64.getEncoder().encodeToString("loadtest".getBytes()));
+        properties.put("azure.communication.sms.from-phone-number", "+15550199");
+
+        properties.put("messaging.bird.enabled", targets.contains("bird"));
+        properties.put("messaging.bird.base-url", mocks.baseUrl());
+        properties.put("messaging.bird.api-key", "AccessKey loadtest");
+        properties.put("messaging.bird.workspace-id", "workspace");
+        properties.put("messaging.bird.channel-id", "channel");
+        return properties;
+    }
+
+    private static void report(List<LoadGenerator.Result> results, Duration latency, Duration jitter, double errorRate) {
+        System.out.printf("%nMock latency %s + up to %s jitter, injected error rate %.2f%%%n", latency, jitter, errorRate * 100);
+        System.out.printf("%-10s %10s %10s %12s %10s %10s %10s%n", "target", "ok", "failed", "msg/s", "p50 ms", "p99 ms", "p999 ms");
+        for (LoadGenerator.Result result : results) {
+            System.out.printf("%-10s %10d %10d %12.1f %10.2f %10.2f %10.2f%n", result.target, result.succeeded, result.failed,
+                    result.messagesPerSecond, result.p50Micros / 1000.0, result.p99Micros / 1000.0, result.p999Micros / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.communication.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One local HTTP server standing in for Bird, Twilio, SNS and Azure Communication Services. Each request
+ * is answered after {@code latency} plus up to {@code jitter}, without holding a thread while waiting, and
+ * a share of {@code errorRate} requests gets a 503 in the provider's error format.
+ */
+final class ProviderMocks implements AutoCloseable {
+
+    private static final Pattern SNS_BATCH_ID = Pattern.compile("PublishBatchRequestEntries\\.member\\.(\\d+)\\.Id");
+
+    private final HttpServer server;
+    private final ExecutorService readers = Executors.newFixedThreadPool(8, daemon("provider-mock"));
+    private final ScheduledExecutorService responders = Executors.newScheduledThreadPool(4, daemon("provider-mock-reply"));
+    private final Duration latency;
+    private final Duration jitter;
+    private final double errorRate;
+    private final Map<String, AtomicLong> requests = new ConcurrentHashMap<>();
+
+    ProviderMocks(Duration latency, Duration jitter, double errorRate) throws IOException {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.errorRate = errorRate;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.setExecutor(readers);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    Map<String, AtomicLong> getRequests() {
+        return requests;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        responders.shutdownNow();
+        readers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String path = exchange.getRequestURI().getPath();
+        String provider = path.startsWith("/workspaces/") ? "bird"
+                : path.startsWith("/2010-04-01/Accounts/") ? "twilio"
+                : path.equals("/sms") ? "microsoft"
+                : body.contains("Action=Publish") ? "sns"
+                : "unknown";
+        requests.computeIfAbsent(provider, key -> new AtomicLong()).incrementAndGet();
+        boolean fail = errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+
+        long delay = latency.toNanos() + (jitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(jitter.toNanos()));
+        responders.schedule(() -> respond(exchange, provider, body, fail), delay, TimeUnit.NANOSECONDS);
+    }
+
+    private void respond(HttpExchange exchange, String provider, String body, boolean fail) {
+        try (exchange) {
+            switch (provider) {
+                case "bird" -> send(exchange, fail ? 503 : 202, "application/json", fail
+                        ? "{\"code\":\"ServiceUnavailable\",\"message\":\"Injected failure\"}"
+                        : "{\"id\":\"" + UUID.randomUUID() + "\",\"status\":\"accepted\"}");
+                case "twilio" -> send(exchange, fail ? 503 : 201, "application/json", fail
+                        ? "{\"code\":20503,\"message\":\"Injected failure\",\"more_info\":\"\",\"status\":503}"
+                        : "{\"sid\":\"SM" + UUID.randomUUID().toString().replace("-", "") + "\",\"status\":\"queued\","
+                        + "\"to\":\"" + formValue(body, "To") + "\",\"body\":\"\",\"num_segments\":\"1\"}");
+                case "microsoft" -> send(exchange, fail ? 503 : 202, "application/json", fail
+                        ? "{\"error\":{\"code\":\"ServiceUnavailable\",\"message\":\"Injected failure\"}}"
+                        : azureResponse(body));
+                case "sns" -> send(exchange, fail ? 503 : 200, "text/xml", fail
+                        ? "<ErrorResponse><Error><Type>Receiver</Type><Code>ServiceUnavailable</Code>"
+                        + "<Message>Injected failure</Message></Error><RequestId>" + UUID.randomUUID() + "</RequestId></ErrorResponse>"
+                        : snsResponse(body));
+                default -> send(exchange, 404, "text/plain", "No mock for " + exchange.getRequestURI());
+            }
+        } catch (IOException e) {
+            // client gave up
+        }
+    }
+
+    private static String azureResponse(String body) {
+        Matcher to = Pattern.compile("\"to\"\\s*:\\s*\"([^\"]+)\"").matcher(body);
+        List<String> results = new ArrayList<>();
+        while (to.find()) {
+            results.add("{\"to\":\"" + to.group(1) + "\",\"messageId\":\"Outgoing_" + UUID.randomUUID()
+                    + "\",\"httpStatusCode\":202,\"repeatabilityResult\":\"accepted\",\"successful\":true}");
+        }
+        return "{\"value\":[" + String.join(",", results) + "]}";
+    }
+
+    private static String snsResponse(String body) {
+        String requestId = "<ResponseMetadata><RequestId>" + UUID.randomUUID() + "</RequestId></ResponseMetadata>";
+        if (!body.contains("Action=PublishBatch")) {
+            return "<PublishResponse xmlns=\"http://sns.amazonaws.com/doc/2010-03-31/\"><PublishResult><MessageId>"
+                    + UUID.randomUUID() + "</MessageId></PublishResult>" + requestId + "</PublishResponse>";
+        }
+        StringBuilder successful = new StringBuilder();
+        for (String pair : body.split("&")) {
+            String[] keyValue = pair.split("=", 2);
+            if (keyValue.length == 2 && SNS_BATCH_ID.matcher(URLDecoder.decode(keyValue[0], StandardCharsets.UTF_8)).matches()) {
+                successful.append("<member><Id>").append(URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8))
+                        .append("</Id><MessageId>").append(UUID.randomUUID()).append("</MessageId></member>");
+            }
+        }
+        return "<PublishBatchResponse xmlns=\"http://sns.amazonaws.com/doc/2010-03-31/\"><PublishBatchResult><Successful>"
+                + successful + "</Successful><Failed/></PublishBatchResult>" + requestId + "</PublishBatchResponse>";
+    }
+
+    private static String formValue(String body, String name) {
+        for (String pair : body.split("&")) {
+            String[] keyValue = pair.split("=", 2);
+            if (keyValue.length == 2 && keyValue[0].equals(name)) {
+                return URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8);
+            }
+        }
+        return "";
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.communication.service.impl;
+
+import com.communication.model.SmsRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bird request serialization and response parsing, without the network. Lives in the service package to reach
+ * the package-private {@link BirdPayloadCodec}. The {@code *Tree} benchmarks are the previous implementation
+ * (nested {@code Map.of} serialized by a default {@link ObjectMapper}, as WebClient's Jackson encoder does, and
+ * {@code readTree} + {@code findValue}) kept as a baseline; the {@code *Streaming} ones are the codec, encoding
+ * into a pooled Netty buffer as the Reactor Netty connector does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BirdPayloadBenchmark {
+
+    private static final String ID_AT_ROOT = "{\"id\":\"0b5a7c1e-3f2d-4c8b-9a61-2e7d5f4c3b2a\",\"status\":\"accepted\","
+            + "\"channelId\":\"c1\",\"createdAt\":\"2024-05-01T10:00:00Z\"}";
+    private static final String ID_IN_DATA = "{\"data\":[{\"messageId\":\"0b5a7c1e-3f2d-4c8b-9a61-2e7d5f4c3b2a\","
+            + "\"status\":\"accepted\"}],\"meta\":{\"count\":1}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NettyDataBufferFactory pooledBuffers = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final SmsRequest request = new SmsRequest("+15550100", "Your verification code is 123456. It expires in 10 minutes.", null);
+    private final byte[] idAtRoot = ID_AT_ROOT.getBytes(StandardCharsets.UTF_8);
+    private final byte[] idInData = ID_IN_DATA.getBytes(StandardCharsets.UTF_8);
+
+    @Benchmark
+    public byte[] serializeTree() throws Exception {
+        return objectMapper.writeValueAsBytes(Map.of(
+                "body", Map.of("type", "text", "text", Map.of("text", request.getMessage())),
+                "receiver", Map.of("contacts", List.of(Map.of(
+                        "identifierValue", request.getTo(),
+                        "identifierKey", "phonenumber"
+                )))
+        ));
+    }
+
+    @Benchmark
+    public int serializeStreaming() throws Exception {
+        DataBuffer buffer = BirdPayloadCodec.encode(request, pooledBuffers);
+        try {
+            return buffer.readableByteCount();
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    @Benchmark
+    public String extractIdAtRootTree() throws Exception {
+        return extractWithTree(ID_AT_ROOT);
+    }
+
+    @Benchmark
+    public String extractIdAtRootStreaming() throws Exception {
+        return BirdPayloadCodec.extractMessageId(DefaultDataBufferFactory.sharedInstance.wrap(idAtRoot));
+    }
+
+    @Benchmark
+    public String extractIdInDataTree() throws Exception {
+        return extractWithTree(ID_IN_DATA);
+    }
+
+    @Benchmark
+    public String extractIdInDataStreaming() throws Exception {
+        return BirdPayloadCodec.extractMessageId(DefaultDataBufferFactory.sharedInstance.wrap(idInData));
+    }
+
+    private String extractWithTree(String respBody) throws Exception {
+        JsonNode root = objectMapper.readTree(respBody);
+        if (root.has("id")) return root.get("id").asText();
+        if (root.has("messageId")) return root.get("messageId").asText();
+        if (root.has("data") && root.get("data").isArray() && root.get("data").size() > 0) {
+            JsonNode first = root.get("data").get(0);
+            if (first.has("id")) return first.get("id").asText();
+            if (first.has("messageId")) return first.get("messageId").asText();
+        }
+        JsonNode idNode = root.findValue("id");
+        return idNode != null && idNode.isTextual() ? idNode.asText() : null;
+    }
+}
@@ -0,0 +1,89 @@
+package com.communication.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "communication.async")
+public class AsyncProperties {
+    /**
+     * {@code virtual} runs email and SMS async work on virtual threads (Java 21+), with each pool's
+     * {@code max-pool-size} kept as a per-provider concurrency cap.
+     */
+    private Mode mode = Mode.PLATFORM;
+    /**
+     * Backs {@code communicationTaskExecutor}, used by the {@code @Async} email methods.
+     */
+    private Pool email = new Pool(5, 20, 100);
+    private Pool twilio = new Pool();
+    private Pool sns = new Pool();
+    private Pool microsoft = new Pool();
+    private Lanes lanes = new Lanes();
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private int corePoolSize = 4;
+        private int maxPoolSize = 16;
+        private int queueCapacity = 500;
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+
+        public Pool() {
+        }
+
+        public Pool(int corePoolSize, int maxPoolSize, int queueCapacity) {
+            this.corePoolSize = corePoolSize;
+            this.maxPoolSize = maxPoolSize;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    /**
+     * Priority lanes: every communication executor queues critical, transactional and bulk tasks separately.
+     * Each pool's {@code max-pool-size} threads are shared, except that the reserved threads are kept for the
+     * higher classes. A free thread takes the queued task closest to (or furthest past) its class's SLO.
+     */
+    @Getter
+    @Setter
+    public static class Lanes {
+        private boolean enabled = false;
+        /**
+         * Threads per executor that only critical tasks may use.
+         */
+        private int reservedCritical = 2;
+        /**
+         * Threads per executor that only critical and transactional tasks may use.
+         */
+        private int reservedTransactional = 2;
+        private Duration criticalSlo = Duration.ofSeconds(1);
+        private Duration transactionalSlo = Duration.ofSeconds(10);
+        private Duration bulkSlo = Duration.ofMinutes(5);
+    }
+
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    /**
+     * What a full executor does with a new task. There are no discard policies: tasks come from
+     * {@code CompletableFuture.supplyAsync}/{@code runAsync}, and a dropped task would never complete its future.
+     */
+    public enum RejectionPolicy {
+        CALLER_RUNS,
+        ABORT;
+
+        public RejectedExecutionHandler toHandler() {
+            return switch (this) {
+                case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+                case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            };
+        }
+    }
+}
@@ -1,15 +1,30 @@
 package com.communication.configuration;
 
 import com.communication.configuration.message.AwsSnsConfig;
+import com.communication.configuration.message.AzureSmsConfig;
+import com.communication.configuration.message.BirdConfig;
 import com.communication.configuration.message.MessageBirdConfig;
+import com.communication.configuration.message.MicrosoftConfig;
 import com.communication.configuration.message.TwilioConfig;
+import com.communication.idempotency.IdempotencyProperties;
+import com.communication.outbox.OutboxProperties;
+import com.communication.resilience.ResilienceProperties;
+import com.communication.routing.RoutingProperties;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @EnableConfigurationProperties({
+    AsyncProperties.class,
     AwsSnsConfig.class,
     TwilioConfig.class,
     MessageBirdConfig.class,
+    MicrosoftConfig.class,
+    AzureSmsConfig.class,
+    BirdConfig.class,
+    OutboxProperties.class,
+    RoutingProperties.class,
+    ResilienceProperties.class,
+    IdempotencyProperties.class,
 })
 @AutoConfiguration
 public class CommunicationAutoConfiguration {
@@ -0,0 +1,37 @@
+package com.communication.configuration;
+
+import com.communication.configuration.executor.MonitoredExecutor;
+import com.communication.configuration.executor.MonitoredExecutors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * One bounded executor per blocking SMS provider, so their async paths stay off the common ForkJoinPool
+ * and a slow provider cannot starve the others. Bird is fully reactive and needs none.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ProviderExecutorConfig {
+
+    private final AsyncProperties asyncProperties;
+
+    @Bean(name = "twilioTaskExecutor")
+    @ConditionalOnProperty(prefix = "messaging.twilio", name = "enabled", havingValue = "true")
+    public MonitoredExecutor twilioTaskExecutor() {
+        return MonitoredExecutors.create("comm-twilio-", asyncProperties, asyncProperties.getTwilio());
+    }
+
+    @Bean(name = "snsTaskExecutor")
+    @ConditionalOnProperty(prefix = "messaging.sns", name = "enabled", havingValue = "true")
+    public MonitoredExecutor snsTaskExecutor() {
+        return MonitoredExecutors.create("comm-sns-", asyncProperties, asyncProperties.getSns());
+    }
+
+    @Bean(name = "microsoftTaskExecutor")
+    @ConditionalOnProperty(prefix = "messaging.microsoft", name = "enabled", havingValue = "true")
+    public MonitoredExecutor microsoftTaskExecutor() {
+        return MonitoredExecutors.create("comm-microsoft-", asyncProperties, asyncProperties.getMicrosoft());
+    }
+}
@@ -0,0 +1,45 @@
+package com.communication.configuration;
+
+import com.communication.service.MessageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Provider clients are built on first send. With {@code communication.warm-up.enabled}, this builds them (and
+ * opens a connection where the provider supports it) on a background thread once the application is ready,
+ * so startup is not delayed and the first send does not pay for it either.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "communication.warm-up", name = "enabled", havingValue = "true")
+public class ProviderWarmUp implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final ObjectProvider<MessageService> services;
+
+    public ProviderWarmUp(ObjectProvider<MessageService> services) {
+        this.services = services;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        Thread thread = new Thread(this::warmUp, "comm-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        services.orderedStream().forEach(service -> {
+            try {
+                service.warmUp();
+            } catch (RuntimeException e) {
+                log.warn("Warm-up of {} failed: {}", service.getProvider(), e.getMessage());
+            }
+        });
+        log.info("Provider warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -1,10 +1,13 @@
 package com.communication.configuration.email;
 
+import com.communication.service.support.AttachmentMetadataCache;
+import com.communication.template.TemplateEngine;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
@@ -18,7 +21,14 @@ public class MailAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean(JavaMailSender.class)
     public JavaMailSender javaMailSender(MailConfig props) {
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        JavaMailSenderImpl mailSender;
+        if (props.getPipelining().isEnabled()) {
+            mailSender = new PipeliningJavaMailSender(props.getPipelining());
+        } else if (props.getPool().isEnabled()) {
+            mailSender = new PooledJavaMailSender(props.getPool());
+        } else {
+            mailSender = new JavaMailSenderImpl();
+        }
         mailSender.setHost(props.getHost());
         mailSender.setPort(props.getPort());
 
@@ -43,4 +53,16 @@ public class MailAutoConfiguration {
 
         return mailSender;
     }
-}
\ No newline at end of file
+
+    @Bean
+    @ConditionalOnMissingBean(TemplateEngine.class)
+    public TemplateEngine emailTemplateEngine(MailConfig props, ResourceLoader resourceLoader) {
+        return new TemplateEngine(props.getTemplate(), resourceLoader);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AttachmentMetadataCache.class)
+    public AttachmentMetadataCache attachmentMetadataCache(MailConfig props) {
+        return new AttachmentMetadataCache(props.getAttachmentCache());
+    }
+}
@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -26,5 +27,84 @@ public class MailConfig {
     private String protocol = "smtp";
     private String defaultEncoding = "UTF-8";
     private Map<String, String> additionalProperties = new HashMap<>();
+    private int batchSize = 50;
+    /**
+     * Envelope recipients per message in {@code EmailService.sendPreparedEmailBulk}; RFC 5321 servers accept at least 100.
+     */
+    private int maxRecipientsPerEnvelope = 100;
+    private String spoolDirectory;
+    private Pool pool = new Pool();
+    private Pipelining pipelining = new Pipelining();
+    private Template template = new Template();
+    private AttachmentCache attachmentCache = new AttachmentCache();
 
-}
\ No newline at end of file
+    /**
+     * Pooled SMTP transport settings. When enabled, connections are kept open and
+     * reused across sends instead of connecting and authenticating per message.
+     */
+    @Getter
+    @Setter
+    public static class Pool {
+        private boolean enabled = false;
+        private int maxSize = 8;
+        private int maxMessagesPerConnection = 100;
+        private Duration idleTimeout = Duration.ofSeconds(30);
+        private Duration borrowTimeout = Duration.ofSeconds(10);
+        private boolean validateOnBorrow = true;
+    }
+
+    /**
+     * Pipelined SMTP engine. When enabled, messages are written to the relay directly over several connections,
+     * using PIPELINING and BDAT/CHUNKING when the server advertises them. Takes precedence over {@link Pool}.
+     */
+    @Getter
+    @Setter
+    public static class Pipelining {
+        private boolean enabled = false;
+        private int minConnections = 1;
+        /**
+         * Upper bound for the connection count, which otherwise follows the relay's observed latency.
+         */
+        private int maxConnections = 8;
+        /**
+         * Messages written to one connection before waiting for their replies.
+         */
+        private int maxInFlight = 16;
+        private int maxMessagesPerConnection = 1000;
+        private Duration idleTimeout = Duration.ofSeconds(30);
+        /**
+         * How long {@code send} waits for a message's reply, including time queued behind other messages.
+         */
+        private Duration sendTimeout = Duration.ofMinutes(2);
+    }
+
+    /**
+     * Email body templates for {@code EmailService.sendTemplatedEmail}: {@code {{name}}} is HTML-escaped,
+     * {@code {{{name}}}} is inserted as is.
+     */
+    @Getter
+    @Setter
+    public static class Template {
+        private String location = "classpath:templates/email/";
+        private String suffix = ".html";
+        private int cacheSize = 128;
+        /**
+         * How often a cached template checks its source for changes. Zero disables hot reload.
+         */
+        private Duration reloadInterval = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Size and content type of classpath and filesystem attachments, kept so that the size limit is checked
+     * without reading the attachment.
+     */
+    @Getter
+    @Setter
+    public static class AttachmentCache {
+        private int cacheSize = 256;
+        /**
+         * How often a cached file attachment checks whether it changed. Zero disables the check.
+         */
+        private Duration checkInterval = Duration.ofSeconds(5);
+    }
+}
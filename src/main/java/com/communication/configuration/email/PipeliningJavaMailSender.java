@@ -0,0 +1,210 @@
+package com.communication.configuration.email;
+
+import com.communication.service.support.LazyClient;
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.eclipse.angus.mail.util.CRLFOutputStream;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link JavaMailSenderImpl} that hands messages to a shared {@link SmtpDispatcher} instead of sending them one at
+ * a time over a JavaMail transport. Messages are serialized on the calling thread. Concurrent callers' messages are
+ * pipelined together over several connections to the relay. {@code send} still returns only once every message
+ * has its reply.
+ */
+public class PipeliningJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final String HEADER_MESSAGE_ID = "Message-ID";
+
+    private static final String[] IGNORED_HEADERS = {"Bcc", "Content-Length"};
+
+    private final MailConfig.Pipelining config;
+
+    private final LazyClient<SmtpDispatcher> dispatcher = new LazyClient<>("smtp-pipeline", this::createDispatcher);
+
+    public PipeliningJavaMailSender(MailConfig.Pipelining config) {
+        if (config.getMinConnections() < 1 || config.getMaxConnections() < config.getMinConnections()
+                || config.getMaxInFlight() < 1) {
+            throw new IllegalArgumentException("messaging.mail.pipelining needs 1 <= min-connections <= max-connections"
+                    + " and max-in-flight >= 1");
+        }
+        this.config = config;
+    }
+
+    public int getConnectionCount() {
+        return dispatcher.isInitialized() ? dispatcher.get().getConnectionCount() : 0;
+    }
+
+    public int getQueueDepth() {
+        return dispatcher.isInitialized() ? dispatcher.get().getQueueDepth() : 0;
+    }
+
+    /**
+     * @return the smoothed round trip of a pipelined window to the relay
+     */
+    public Duration getLatency() {
+        return dispatcher.isInitialized() ? dispatcher.get().getLatency() : Duration.ZERO;
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        List<SmtpConnection.Transaction> transactions = new ArrayList<>(mimeMessages.length);
+        List<Object> originals = new ArrayList<>(mimeMessages.length);
+        for (int i = 0; i < mimeMessages.length; i++) {
+            Object original = originalMessages != null ? originalMessages[i] : mimeMessages[i];
+            try {
+                transactions.add(transaction(mimeMessages[i]));
+                originals.add(original);
+            } catch (Exception ex) {
+                failedMessages.put(original, ex);
+            }
+        }
+        if (!transactions.isEmpty()) {
+            dispatcher.get().submit(transactions);
+        }
+
+        long deadline = System.nanoTime() + config.getSendTimeout().toNanos();
+        for (int i = 0; i < transactions.size(); i++) {
+            try {
+                awaitReply(transactions.get(i), deadline);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof AuthenticationFailedException authentication) {
+                    throw new MailAuthenticationException(authentication);
+                }
+                failedMessages.put(originals.get(i), ex.getCause() instanceof Exception cause ? cause : ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                // The remaining messages may still be delivered; their outcome is unknown
+                for (int j = i; j < transactions.size(); j++) {
+                    failedMessages.put(originals.get(j), ex);
+                }
+                break;
+            }
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Waits until {@code deadline} for the transaction's outcome, then fails it. A message still queued by then is
+     * not sent; one already written may yet be delivered.
+     */
+    private void awaitReply(SmtpConnection.Transaction transaction, long deadline)
+            throws ExecutionException, InterruptedException {
+        try {
+            transaction.result().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            transaction.result().completeExceptionally(
+                    new MessagingException("No SMTP reply within " + config.getSendTimeout()));
+            // Reports the reply instead if it arrived in the meantime
+            transaction.result().get();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.ifInitialized(SmtpDispatcher::close);
+    }
+
+    private SmtpDispatcher createDispatcher() {
+        String protocol = protocol();
+        int port = getPort() > 0 ? getPort() : ("smtps".equals(protocol) ? 465 : 25);
+        SmtpConnection.Settings settings = new SmtpConnection.Settings(getHost(), port, protocol,
+                getJavaMailProperties(), getUsername(), getPassword(), localHost(protocol));
+        return new SmtpDispatcher(settings, config);
+    }
+
+    /**
+     * Resolved as {@link JavaMailSenderImpl} does for its transport: the sender's protocol, else
+     * {@code mail.transport.protocol}, else {@code smtp}.
+     */
+    private String protocol() {
+        String protocol = getProtocol();
+        if (protocol == null) {
+            protocol = getJavaMailProperties().getProperty("mail.transport.protocol");
+        }
+        return protocol != null ? protocol : DEFAULT_PROTOCOL;
+    }
+
+    private String localHost(String protocol) {
+        String configured = getJavaMailProperties().getProperty("mail." + protocol + ".localhost");
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        try {
+            return InetAddress.getLocalHost().getCanonicalHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+
+    private SmtpConnection.Transaction transaction(MimeMessage mimeMessage) throws MessagingException, IOException {
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            // Preserve explicitly specified message id...
+            mimeMessage.setHeader(HEADER_MESSAGE_ID, messageId);
+        }
+
+        Address[] addresses = mimeMessage.getAllRecipients();
+        if (addresses == null || addresses.length == 0) {
+            throw new SendFailedException("No recipient addresses");
+        }
+        InternetAddress[] recipients = new InternetAddress[addresses.length];
+        for (int i = 0; i < addresses.length; i++) {
+            if (!(addresses[i] instanceof InternetAddress address)) {
+                throw new SendFailedException("Not an Internet address: " + addresses[i]);
+            }
+            recipients[i] = address;
+        }
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream(Math.max(mimeMessage.getSize(), 0) + 1024);
+        CRLFOutputStream crlf = new CRLFOutputStream(content);
+        mimeMessage.writeTo(crlf, IGNORED_HEADERS);
+        crlf.flush();
+        return new SmtpConnection.Transaction(envelopeFrom(mimeMessage), recipients, content.toByteArray(),
+                new CompletableFuture<>());
+    }
+
+    private String envelopeFrom(MimeMessage mimeMessage) throws MessagingException {
+        String configured = getJavaMailProperties().getProperty("mail." + protocol() + ".from");
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        Address[] from = mimeMessage.getFrom();
+        if (from != null && from.length > 0 && from[0] instanceof InternetAddress address) {
+            return address.getAddress();
+        }
+        throw new SendFailedException("No sender address");
+    }
+}
@@ -0,0 +1,99 @@
+package com.communication.configuration.email;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link JavaMailSenderImpl} that sends over connections borrowed from a
+ * {@link SmtpTransportPool} instead of connecting and authenticating per call.
+ */
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final String HEADER_MESSAGE_ID = "Message-ID";
+
+    private final SmtpTransportPool pool;
+
+    public PooledJavaMailSender(MailConfig.Pool poolConfig) {
+        this.pool = new SmtpTransportPool(this::connectTransport, poolConfig);
+    }
+
+    public SmtpTransportPool getPool() {
+        return pool;
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        SmtpTransportPool.PooledTransport pooled = null;
+        boolean broken = false;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                if (pooled == null || broken) {
+                    if (pooled != null) {
+                        pool.release(pooled, true);
+                        pooled = null;
+                    }
+                    broken = false;
+                    try {
+                        pooled = pool.borrow();
+                    } catch (AuthenticationFailedException ex) {
+                        throw new MailAuthenticationException(ex);
+                    } catch (Exception ex) {
+                        for (int j = i; j < mimeMessages.length; j++) {
+                            failedMessages.put(original(mimeMessages, originalMessages, j), ex);
+                        }
+                        throw new MailSendException("Mail server connection failed", ex, failedMessages);
+                    }
+                }
+
+                MimeMessage mimeMessage = mimeMessages[i];
+                try {
+                    if (mimeMessage.getSentDate() == null) {
+                        mimeMessage.setSentDate(new Date());
+                    }
+                    String messageId = mimeMessage.getMessageID();
+                    mimeMessage.saveChanges();
+                    if (messageId != null) {
+                        // Preserve explicitly specified message id...
+                        mimeMessage.setHeader(HEADER_MESSAGE_ID, messageId);
+                    }
+                    Address[] addresses = mimeMessage.getAllRecipients();
+                    pooled.getTransport().sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+                    pooled.markSent();
+                } catch (Exception ex) {
+                    failedMessages.put(original(mimeMessages, originalMessages, i), ex);
+                    // Rejected recipients leave the session usable; a dropped connection does not
+                    broken = !pooled.getTransport().isConnected();
+                }
+            }
+        } finally {
+            if (pooled != null) {
+                pool.release(pooled, broken);
+            }
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pool.close();
+    }
+
+    private static Object original(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages, int index) {
+        return originalMessages != null ? originalMessages[index] : mimeMessages[index];
+    }
+}
@@ -0,0 +1,515 @@
+package com.communication.configuration.email;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPOutputStream;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.util.SocketFetcher;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One ESMTP session to the relay, written directly rather than through JavaMail's {@code SMTPTransport} so that
+ * commands can be pipelined. With PIPELINING a transaction's envelope goes out in one write; with PIPELINING and
+ * CHUNKING a whole window of messages ({@code MAIL}, {@code RCPT}s, {@code BDAT ... LAST} and content each) goes out
+ * in one write and costs one round trip. Servers without these extensions get one command per round trip.
+ * <p>
+ * Sockets, SSL and STARTTLS come from JavaMail's {@link SocketFetcher}, so the usual {@code mail.smtp.*}
+ * properties (timeouts, {@code ssl.trust}, ...) apply. Not thread-safe.
+ */
+@Slf4j
+final class SmtpConnection implements Closeable {
+
+    record Settings(String host, int port, String protocol, Properties properties, String username, String password,
+                    String localHost) {
+
+        String property(String name) {
+            return properties.getProperty("mail." + protocol + "." + name);
+        }
+
+        boolean flag(String name) {
+            return Boolean.parseBoolean(property(name));
+        }
+    }
+
+    /**
+     * A message ready to send: its content has CRLF line endings and is not dot-stuffed.
+     */
+    record Transaction(String from, InternetAddress[] recipients, byte[] content, CompletableFuture<Void> result) {
+    }
+
+    /**
+     * Receives the nanoseconds from the last write of a group of transactions to the last reply for it, with the
+     * group's message count and content bytes.
+     */
+    interface RoundTripListener {
+        void roundTrip(long nanos, int messages, long bytes);
+    }
+
+    private record Reply(int code, String text) {
+        boolean positive() {
+            return code / 100 == 2;
+        }
+
+        String line() {
+            return code + " " + text;
+        }
+    }
+
+    private final Settings settings;
+    private final RoundTripListener roundTripListener;
+    private Socket socket;
+    private InputStream in;
+    private OutputStream out;
+    private final Map<String, String> extensions = new HashMap<>();
+    private boolean pipelining;
+    private boolean chunking;
+    private long maxSize;
+    /** A failed transaction may leave the server mid-transaction; the next one starts with {@code RSET}. */
+    private boolean resetNeeded;
+
+    private SmtpConnection(Settings settings, RoundTripListener roundTripListener) {
+        this.settings = settings;
+        this.roundTripListener = roundTripListener;
+    }
+
+    /**
+     * Connects, greets, negotiates STARTTLS and authenticates.
+     */
+    static SmtpConnection open(Settings settings, RoundTripListener roundTripListener) throws IOException, MessagingException {
+        SmtpConnection connection = new SmtpConnection(settings, roundTripListener);
+        try {
+            connection.connect();
+            return connection;
+        } catch (IOException | MessagingException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sends every transaction and completes its future. An {@link IOException} means the connection is unusable;
+     * transactions not completed by then are left to the caller.
+     */
+    void send(List<Transaction> window) throws IOException {
+        if (pipelining && chunking) {
+            sendChunked(window);
+        } else {
+            for (Transaction transaction : window) {
+                sendOne(transaction);
+            }
+        }
+    }
+
+    /**
+     * Sends {@code QUIT} without waiting long for the reply, then closes the socket.
+     */
+    void quit() {
+        try {
+            writeLine("QUIT");
+            out.flush();
+            readReply();
+        } catch (IOException | RuntimeException e) {
+            log.debug("SMTP QUIT failed: {}", e.getMessage());
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                log.debug("Failed to close SMTP connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void connect() throws IOException, MessagingException {
+        String prefix = "mail." + settings.protocol();
+        socket = SocketFetcher.getSocket(settings.host(), settings.port(), settings.properties(), prefix,
+                "smtps".equals(settings.protocol()));
+        socket.setTcpNoDelay(true);
+        streams();
+        expect(readReply(), 220, "greeting");
+        ehlo();
+        if (settings.flag("starttls.enable") && extensions.containsKey("STARTTLS")) {
+            writeLine("STARTTLS");
+            out.flush();
+            expect(readReply(), 220, "STARTTLS");
+            socket = SocketFetcher.startTLS(socket, settings.host(), settings.properties(), prefix);
+            streams();
+            ehlo();
+        } else if (settings.flag("starttls.required")) {
+            throw new MessagingException("STARTTLS is required but " + settings.host() + " does not support it");
+        }
+        if (settings.flag("auth") && settings.username() != null) {
+            authenticate();
+        }
+        pipelining = extensions.containsKey("PIPELINING");
+        chunking = extensions.containsKey("CHUNKING");
+        String size = extensions.get("SIZE");
+        maxSize = size != null && !size.isEmpty() ? parseSize(size) : 0;
+        log.debug("Connected to {}:{} (pipelining={}, chunking={})", settings.host(), settings.port(), pipelining, chunking);
+    }
+
+    private void streams() throws IOException {
+        in = new BufferedInputStream(socket.getInputStream());
+        out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+    }
+
+    private void ehlo() throws IOException, MessagingException {
+        extensions.clear();
+        writeLine("EHLO " + settings.localHost());
+        out.flush();
+        Reply reply = readReply();
+        if (reply.positive()) {
+            String[] lines = reply.text().split("\n");
+            for (int i = 1; i < lines.length; i++) {
+                String line = lines[i].trim();
+                int space = line.indexOf(' ');
+                String keyword = (space < 0 ? line : line.substring(0, space)).toUpperCase(Locale.ROOT);
+                extensions.put(keyword, space < 0 ? "" : line.substring(space + 1).trim());
+            }
+            return;
+        }
+        writeLine("HELO " + settings.localHost());
+        out.flush();
+        expect(readReply(), 250, "HELO");
+    }
+
+    private void authenticate() throws IOException, MessagingException {
+        String mechanisms = " " + extensions.getOrDefault("AUTH", "").toUpperCase(Locale.ROOT) + " ";
+        Reply reply;
+        if (mechanisms.contains(" PLAIN ")) {
+            writeLine("AUTH PLAIN " + base64("\0" + settings.username() + "\0" + settings.password()));
+            out.flush();
+            reply = readReply();
+        } else if (mechanisms.contains(" LOGIN ")) {
+            writeLine("AUTH LOGIN");
+            out.flush();
+            reply = readReply();
+            if (reply.code() == 334) {
+                writeLine(base64(settings.username()));
+                out.flush();
+                reply = readReply();
+            }
+            if (reply.code() == 334) {
+                writeLine(base64(settings.password()));
+                out.flush();
+                reply = readReply();
+            }
+        } else {
+            throw new AuthenticationFailedException("No supported AUTH mechanism offered by " + settings.host()
+                    + " (" + mechanisms.trim() + ")");
+        }
+        if (reply.code() != 235) {
+            throw new AuthenticationFailedException(reply.line());
+        }
+    }
+
+    /**
+     * Writes the whole window, then reads every reply: one round trip for all of it.
+     */
+    private void sendChunked(List<Transaction> window) throws IOException {
+        boolean[] reset = new boolean[window.size()];
+        boolean[] skipped = new boolean[window.size()];
+        boolean written = false;
+        int messages = 0;
+        long bytes = 0;
+        for (int i = 0; i < window.size(); i++) {
+            Transaction transaction = window.get(i);
+            skipped[i] = exceedsMaxSize(transaction);
+            if (skipped[i]) {
+                continue;
+            }
+            // Whether an earlier transaction in this window fails is only known once the replies are read
+            reset[i] = written || resetNeeded;
+            written = true;
+            messages++;
+            bytes += transaction.content().length;
+            if (reset[i]) {
+                writeLine("RSET");
+            }
+            writeEnvelope(transaction);
+            writeLine("BDAT " + transaction.content().length + " LAST");
+            out.write(transaction.content());
+        }
+        long flushed = flush();
+        for (int i = 0; i < window.size(); i++) {
+            Transaction transaction = window.get(i);
+            if (skipped[i]) {
+                continue;
+            }
+            if (reset[i]) {
+                readReply();
+            }
+            Reply mail = readReply();
+            Reply[] recipients = readReplies(transaction.recipients().length);
+            Reply data = readReply();
+            resetNeeded = !complete(transaction, mail, recipients, data, "BDAT");
+        }
+        if (messages > 0) {
+            roundTripListener.roundTrip(System.nanoTime() - flushed, messages, bytes);
+        }
+    }
+
+    /**
+     * One transaction: with PIPELINING the envelope is one round trip and DATA content another, otherwise every
+     * command waits for its reply. The round trip reported is the last one, from the end of the content to its reply.
+     */
+    private void sendOne(Transaction transaction) throws IOException {
+        if (exceedsMaxSize(transaction)) {
+            return;
+        }
+        if (resetNeeded) {
+            writeLine("RSET");
+            flush();
+            readReply();
+            resetNeeded = false;
+        }
+        InternetAddress[] to = transaction.recipients();
+        Reply mail;
+        Reply[] recipients = new Reply[to.length];
+        Reply data = null;
+        String dataCommand = chunking ? "BDAT" : "DATA";
+        long flushed = 0;
+        if (pipelining) {
+            writeEnvelope(transaction);
+            writeLine("DATA");
+            flush();
+            mail = readReply();
+            recipients = readReplies(to.length);
+            data = readReply();
+        } else {
+            mail = command("MAIL FROM:<" + transaction.from() + ">" + mailParameters(transaction));
+            boolean accepted = false;
+            for (int i = 0; mail.positive() && i < to.length; i++) {
+                recipients[i] = command("RCPT TO:<" + to[i].getAddress() + ">");
+                accepted |= recipients[i].positive();
+            }
+            if (accepted) {
+                if (chunking) {
+                    writeLine("BDAT " + transaction.content().length + " LAST");
+                    out.write(transaction.content());
+                    flushed = flush();
+                } else {
+                    writeLine("DATA");
+                    flush();
+                }
+                data = readReply();
+            }
+        }
+        if (data != null && data.code() == 354) {
+            boolean accepted = mail.positive() && anyPositive(recipients);
+            // A server that accepts DATA without valid recipients still needs the terminating dot
+            if (accepted) {
+                SMTPOutputStream dotStuffing = new SMTPOutputStream(out);
+                dotStuffing.write(transaction.content(), 0, transaction.content().length);
+                dotStuffing.ensureAtBOL();
+            }
+            writeLine(".");
+            flushed = flush();
+            data = readReply();
+        }
+        if (flushed != 0 && data != null) {
+            roundTripListener.roundTrip(System.nanoTime() - flushed, 1, transaction.content().length);
+        }
+        resetNeeded = !complete(transaction, mail, recipients, data, dataCommand);
+    }
+
+    private boolean exceedsMaxSize(Transaction transaction) {
+        if (maxSize > 0 && transaction.content().length > maxSize) {
+            transaction.result().completeExceptionally(new SMTPSendFailedException("MAIL FROM", 552,
+                    "Message of " + transaction.content().length + " bytes exceeds the server's limit of " + maxSize,
+                    null, null, transaction.recipients(), null));
+            return true;
+        }
+        return false;
+    }
+
+    private void writeEnvelope(Transaction transaction) throws IOException {
+        writeLine("MAIL FROM:<" + transaction.from() + ">" + mailParameters(transaction));
+        for (InternetAddress recipient : transaction.recipients()) {
+            writeLine("RCPT TO:<" + recipient.getAddress() + ">");
+        }
+    }
+
+    private String mailParameters(Transaction transaction) {
+        StringBuilder parameters = new StringBuilder();
+        if (extensions.containsKey("SIZE")) {
+            parameters.append(" SIZE=").append(transaction.content().length);
+        }
+        if (extensions.containsKey("8BITMIME")) {
+            parameters.append(" BODY=8BITMIME");
+        }
+        return parameters.toString();
+    }
+
+    /**
+     * Completes the transaction's future from its replies, as JavaMail does with {@code mail.smtp.sendpartial}:
+     * a message accepted for some recipients is delivered to them and still reported as failed, with each
+     * rejected address as a chained {@link SMTPAddressFailedException}.
+     *
+     * @return whether the transaction succeeded for every recipient
+     */
+    private static boolean complete(Transaction transaction, Reply mail, Reply[] recipients, Reply data, String dataCommand) {
+        InternetAddress[] to = transaction.recipients();
+        if (!mail.positive()) {
+            transaction.result().completeExceptionally(new SMTPSendFailedException("MAIL FROM", mail.code(), mail.line(),
+                    null, null, to, null));
+            return false;
+        }
+        List<Address> valid = new ArrayList<>(to.length);
+        List<Address> invalid = new ArrayList<>();
+        List<SMTPAddressFailedException> rejections = new ArrayList<>();
+        for (int i = 0; i < to.length; i++) {
+            Reply reply = recipients[i];
+            if (reply != null && reply.positive()) {
+                valid.add(to[i]);
+            } else {
+                invalid.add(to[i]);
+                if (reply != null) {
+                    rejections.add(new SMTPAddressFailedException(to[i], "RCPT TO", reply.code(), reply.line()));
+                }
+            }
+        }
+        if (valid.isEmpty() || data == null || !data.positive()) {
+            Reply failed = valid.isEmpty() || data == null ? lastRejection(recipients) : data;
+            SMTPSendFailedException e = new SMTPSendFailedException(valid.isEmpty() ? "RCPT TO" : dataCommand,
+                    failed.code(), failed.line(), null, null, valid.toArray(new Address[0]), invalid.toArray(new Address[0]));
+            rejections.forEach(e::setNextException);
+            transaction.result().completeExceptionally(e);
+            return false;
+        }
+        if (!invalid.isEmpty()) {
+            Reply failed = lastRejection(recipients);
+            SMTPSendFailedException e = new SMTPSendFailedException("RCPT TO", failed.code(), failed.line(), null,
+                    valid.toArray(new Address[0]), null, invalid.toArray(new Address[0]));
+            rejections.forEach(e::setNextException);
+            transaction.result().completeExceptionally(e);
+            return false;
+        }
+        transaction.result().complete(null);
+        return true;
+    }
+
+    private static Reply lastRejection(Reply[] recipients) {
+        for (int i = recipients.length - 1; i >= 0; i--) {
+            if (recipients[i] != null && !recipients[i].positive()) {
+                return recipients[i];
+            }
+        }
+        return new Reply(554, "No valid recipients");
+    }
+
+    private static boolean anyPositive(Reply[] replies) {
+        for (Reply reply : replies) {
+            if (reply != null && reply.positive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Reply command(String command) throws IOException {
+        writeLine(command);
+        flush();
+        return readReply();
+    }
+
+    private Reply[] readReplies(int count) throws IOException {
+        Reply[] replies = new Reply[count];
+        for (int i = 0; i < count; i++) {
+            replies[i] = readReply();
+        }
+        return replies;
+    }
+
+    private long flush() throws IOException {
+        out.flush();
+        return System.nanoTime();
+    }
+
+    private void writeLine(String line) throws IOException {
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+        out.write('\r');
+        out.write('\n');
+    }
+
+    private Reply readReply() throws IOException {
+        StringBuilder text = new StringBuilder();
+        String line;
+        do {
+            line = readLine();
+            if (line.length() < 3) {
+                throw new IOException("Malformed SMTP reply: " + line);
+            }
+            if (!text.isEmpty()) {
+                text.append('\n');
+            }
+            text.append(line.length() > 4 ? line.substring(4) : "");
+        } while (line.length() > 3 && line.charAt(3) == '-');
+        try {
+            return new Reply(Integer.parseInt(line.substring(0, 3)), text.toString());
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed SMTP reply: " + line, e);
+        }
+    }
+
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder(64);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+            line.append((char) b);
+        }
+        throw new EOFException("SMTP server closed the connection");
+    }
+
+    private static void expect(Reply reply, int code, String step) throws MessagingException {
+        if (reply.code() != code) {
+            throw new MessagingException("Unexpected SMTP reply to " + step + ": " + reply.line());
+        }
+    }
+
+    private static long parseSize(String size) {
+        try {
+            return Long.parseLong(size.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String base64(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
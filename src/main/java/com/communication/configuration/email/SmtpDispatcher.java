@@ -0,0 +1,289 @@
+package com.communication.configuration.email;
+
+import jakarta.mail.MessagingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Spreads queued messages over several {@link SmtpConnection}s to the relay, each driven by its own thread that
+ * takes up to {@code max-in-flight} messages at a time and sends them as one pipelined window.
+ * <p>
+ * The connection count adapts to the relay's latency. Each round trip, timed from the end of the content written
+ * to the last reply, is divided by the messages it covered, with every {@value #BYTES_PER_MESSAGE} bytes of content
+ * counting as one more; so large windows and attachments do not read as a slower relay. Connections start at
+ * {@code min-connections}. One more is opened while messages are waiting, no connection is idle and this smoothed
+ * per-message latency stays within {@value #LATENCY_TOLERANCE}x the lowest recently observed one. When it grows
+ * past that, the relay is taken to be saturated and one connection is closed, down to {@code min-connections}.
+ * At most one change is made per smoothed round trip, so each change is seen in the latency before the next.
+ * Connections left idle for {@code idle-timeout} are closed, and queued messages whose caller stopped waiting
+ * are skipped.
+ */
+@Slf4j
+final class SmtpDispatcher implements AutoCloseable {
+
+    private static final double LATENCY_TOLERANCE = 2.0;
+
+    /** The connection's write buffer size. */
+    private static final long BYTES_PER_MESSAGE = 64 * 1024;
+
+    private final SmtpConnection.Settings settings;
+    private final MailConfig.Pipelining config;
+    private final ThreadFactory threadFactory;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final ArrayDeque<SmtpConnection.Transaction> queue = new ArrayDeque<>();
+    private int connections;
+    private int idle;
+    private boolean closed;
+    /** Smoothed round trip, smoothed per-message latency and the lowest recent one, in nanoseconds; zero until the first sample. */
+    private double roundTrip;
+    private double latency;
+    private double baseline;
+    private long lastAdjusted = System.nanoTime();
+
+    SmtpDispatcher(SmtpConnection.Settings settings, MailConfig.Pipelining config) {
+        this.settings = settings;
+        this.config = config;
+        CustomizableThreadFactory factory = new CustomizableThreadFactory("smtp-pipeline-");
+        factory.setDaemon(true);
+        this.threadFactory = factory;
+    }
+
+    void submit(Collection<SmtpConnection.Transaction> transactions) {
+        int start;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("SMTP dispatcher is closed");
+            }
+            queue.addAll(transactions);
+            if (idle > 0) {
+                workAvailable.signal();
+            }
+            start = Math.max(0, config.getMinConnections() - connections);
+            if (start == 0 && mayGrow()) {
+                start = 1;
+            }
+            connections += start;
+        } finally {
+            lock.unlock();
+        }
+        for (int i = 0; i < start; i++) {
+            startConnection();
+        }
+    }
+
+    int getConnectionCount() {
+        lock.lock();
+        try {
+            return connections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the smoothed round trip of a pipelined window
+     */
+    Duration getLatency() {
+        lock.lock();
+        try {
+            return Duration.ofNanos((long) roundTrip);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fails queued messages and lets connections finish their current window, then quit.
+     */
+    @Override
+    public void close() {
+        List<SmtpConnection.Transaction> dropped;
+        lock.lock();
+        try {
+            closed = true;
+            dropped = new ArrayList<>(queue);
+            queue.clear();
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        fail(dropped, new MessagingException("SMTP dispatcher is closed"));
+    }
+
+    private void startConnection() {
+        try {
+            threadFactory.newThread(this::run).start();
+        } catch (RuntimeException | Error e) {
+            lock.lock();
+            try {
+                connections--;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private void run() {
+        SmtpConnection connection = null;
+        int sent = 0;
+        try {
+            List<SmtpConnection.Transaction> window;
+            while ((window = take()) != null) {
+                try {
+                    if (connection == null) {
+                        connection = SmtpConnection.open(settings, this::recordRoundTrip);
+                        sent = 0;
+                    }
+                    connection.send(window);
+                    sent += window.size();
+                } catch (IOException | MessagingException | RuntimeException e) {
+                    log.debug("SMTP connection to {}:{} failed: {}", settings.host(), settings.port(), e.getMessage());
+                    fail(window, e instanceof IOException ? new MessagingException("SMTP connection failed", e) : e);
+                    if (connection != null) {
+                        connection.close();
+                        connection = null;
+                    }
+                }
+                if (connection != null && sent >= config.getMaxMessagesPerConnection()) {
+                    connection.quit();
+                    connection = null;
+                }
+                if (retire()) {
+                    return;
+                }
+            }
+        } finally {
+            if (connection != null) {
+                connection.quit();
+            }
+        }
+    }
+
+    /**
+     * Next window, waiting up to {@code idle-timeout} for one; {@code null} once this connection should close.
+     */
+    private List<SmtpConnection.Transaction> take() {
+        lock.lock();
+        try {
+            long nanos = config.getIdleTimeout().toNanos();
+            List<SmtpConnection.Transaction> window = new ArrayList<>();
+            while (window.isEmpty()) {
+                while (queue.isEmpty()) {
+                    if (closed || nanos <= 0) {
+                        connections--;
+                        return null;
+                    }
+                    idle++;
+                    try {
+                        nanos = workAvailable.awaitNanos(nanos);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        nanos = 0;
+                    } finally {
+                        idle--;
+                    }
+                }
+                while (window.size() < config.getMaxInFlight() && !queue.isEmpty()) {
+                    SmtpConnection.Transaction transaction = queue.poll();
+                    // Already failed by a caller that gave up waiting
+                    if (!transaction.result().isDone()) {
+                        window.add(transaction);
+                    }
+                }
+            }
+            if (!queue.isEmpty() && idle > 0) {
+                workAvailable.signal();
+            }
+            return window;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordRoundTrip(long nanos, int messages, long bytes) {
+        boolean grow;
+        int count;
+        double sample = (double) nanos / (messages + bytes / BYTES_PER_MESSAGE);
+        lock.lock();
+        try {
+            roundTrip = roundTrip == 0 ? nanos : roundTrip + (nanos - roundTrip) * 0.2;
+            latency = latency == 0 ? sample : latency + (sample - latency) * 0.2;
+            // Drifts up slowly so that a minimum measured under different conditions is eventually forgotten
+            baseline = baseline == 0 || sample < baseline ? sample : baseline + (sample - baseline) / 64;
+            grow = mayGrow();
+            if (grow) {
+                connections++;
+            }
+            count = connections;
+        } finally {
+            lock.unlock();
+        }
+        if (grow) {
+            log.debug("Opening SMTP connection {} (round trip {} ms)", count, (long) roundTrip / 1_000_000);
+            startConnection();
+        }
+    }
+
+    /**
+     * Caller holds the lock and, if this returns {@code true}, counts and starts the new connection.
+     */
+    private boolean mayGrow() {
+        long now = System.nanoTime();
+        if (closed || latency == 0 || queue.isEmpty() || idle > 0 || connections >= config.getMaxConnections()
+                || latency > baseline * LATENCY_TOLERANCE || now - lastAdjusted < roundTrip) {
+            return false;
+        }
+        lastAdjusted = now;
+        return true;
+    }
+
+    /**
+     * Whether this connection should close because the relay's latency shows it is saturated.
+     */
+    private boolean retire() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (connections <= config.getMinConnections() || latency <= baseline * LATENCY_TOLERANCE
+                    || now - lastAdjusted < roundTrip) {
+                return false;
+            }
+            lastAdjusted = now;
+            connections--;
+            log.debug("Closing SMTP connection, {} left (latency {} ms per message, baseline {} ms)", connections,
+                    latency / 1_000_000, baseline / 1_000_000);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void fail(Collection<SmtpConnection.Transaction> transactions, Exception e) {
+        for (SmtpConnection.Transaction transaction : transactions) {
+            transaction.result().completeExceptionally(e);
+        }
+    }
+}
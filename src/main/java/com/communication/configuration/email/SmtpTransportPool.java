@@ -0,0 +1,146 @@
+package com.communication.configuration.email;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of connected and authenticated SMTP {@link Transport}s.
+ * Idle connections are reused most-recently-used first, validated on borrow and
+ * recycled once they reach the per-connection message limit or the idle timeout.
+ */
+@Slf4j
+public class SmtpTransportPool implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface TransportFactory {
+        Transport connect() throws MessagingException;
+    }
+
+    private final TransportFactory factory;
+    private final MailConfig.Pool config;
+    private final Semaphore permits;
+    private final Deque<PooledTransport> idle = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed;
+
+    public SmtpTransportPool(TransportFactory factory, MailConfig.Pool config) {
+        this.factory = factory;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+    }
+
+    public PooledTransport borrow() throws MessagingException {
+        if (closed) {
+            throw new IllegalStateException("SMTP transport pool is closed");
+        }
+        acquirePermit();
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isReusable(pooled)) {
+                    return pooled;
+                }
+                discard(pooled);
+            }
+            return new PooledTransport(factory.connect());
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(PooledTransport pooled, boolean broken) {
+        try {
+            if (broken || closed || pooled.messagesSent >= config.getMaxMessagesPerConnection()) {
+                discard(pooled);
+            } else {
+                pooled.lastUsed = System.nanoTime();
+                idle.offerFirst(pooled);
+            }
+            evictExpired();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getActiveCount() {
+        return config.getMaxSize() - permits.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private void acquirePermit() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for a pooled SMTP connection after " + config.getBorrowTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for a pooled SMTP connection", e);
+        }
+    }
+
+    private boolean isReusable(PooledTransport pooled) {
+        if (isIdleExpired(pooled) || pooled.messagesSent >= config.getMaxMessagesPerConnection()) {
+            return false;
+        }
+        // For SMTP this issues a NOOP, so a connection dropped by the server is caught here
+        return !config.isValidateOnBorrow() || pooled.transport.isConnected();
+    }
+
+    private boolean isIdleExpired(PooledTransport pooled) {
+        return System.nanoTime() - pooled.lastUsed > config.getIdleTimeout().toNanos();
+    }
+
+    // Oldest connections sit at the tail, so only the tail needs checking
+    private void evictExpired() {
+        PooledTransport oldest;
+        while ((oldest = idle.peekLast()) != null && isIdleExpired(oldest)) {
+            if (idle.removeLastOccurrence(oldest)) {
+                discard(oldest);
+            }
+        }
+    }
+
+    private void discard(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close pooled SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    public static final class PooledTransport {
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsed = System.nanoTime();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        public Transport getTransport() {
+            return transport;
+        }
+
+        public void markSent() {
+            messagesSent++;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.communication.configuration.executor;
+
+import com.communication.configuration.AsyncProperties;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.function.LongConsumer;
+
+public class BoundedTaskExecutor extends ThreadPoolTaskExecutor implements MonitoredExecutor {
+
+    private volatile LongConsumer queueWaitListener;
+
+    public BoundedTaskExecutor(String threadNamePrefix, AsyncProperties.Pool pool) {
+        setCorePoolSize(pool.getCorePoolSize());
+        setMaxPoolSize(pool.getMaxPoolSize());
+        setQueueCapacity(pool.getQueueCapacity());
+        setThreadNamePrefix(threadNamePrefix);
+        setRejectedExecutionHandler(pool.getRejectionPolicy().toHandler());
+        setTaskDecorator(this::timeQueueWait);
+    }
+
+    /**
+     * Applied by the underlying pool to every task, so {@code submit} and {@code submitCompletable}
+     * are timed as well as {@code execute}.
+     */
+    private Runnable timeQueueWait(Runnable task) {
+        LongConsumer listener = queueWaitListener;
+        if (listener == null) {
+            return task;
+        }
+        long submitted = System.nanoTime();
+        return () -> {
+            listener.accept(System.nanoTime() - submitted);
+            task.run();
+        };
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return getQueueSize();
+    }
+
+    @Override
+    public void setQueueWaitListener(LongConsumer listener) {
+        this.queueWaitListener = listener;
+    }
+}
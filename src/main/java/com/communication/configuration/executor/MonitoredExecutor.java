@@ -0,0 +1,19 @@
+package com.communication.configuration.executor;
+
+import java.util.concurrent.Executor;
+import java.util.function.LongConsumer;
+
+/**
+ * Executor that reports its backlog, so queue depth and busy threads can be observed per provider.
+ */
+public interface MonitoredExecutor extends Executor {
+
+    int getQueueDepth();
+
+    int getActiveCount();
+
+    /**
+     * Receives, for every task, the nanoseconds it waited before starting. {@code null} turns timing off.
+     */
+    void setQueueWaitListener(LongConsumer listener);
+}
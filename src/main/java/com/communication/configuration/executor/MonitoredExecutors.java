@@ -0,0 +1,53 @@
+package com.communication.configuration.executor;
+
+import com.communication.configuration.AsyncProperties;
+import com.communication.model.Priority;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+public final class MonitoredExecutors {
+
+    private MonitoredExecutors() {
+    }
+
+    /**
+     * Like {@link #create(String, AsyncProperties.Mode, AsyncProperties.Pool)}, but gives a
+     * {@link PriorityLaneExecutor} when {@code communication.async.lanes.enabled} is set.
+     */
+    public static MonitoredExecutor create(String threadNamePrefix, AsyncProperties properties, AsyncProperties.Pool pool) {
+        if (!properties.getLanes().isEnabled()) {
+            return create(threadNamePrefix, properties.getMode(), pool);
+        }
+        ThreadFactory threadFactory;
+        if (properties.getMode() == AsyncProperties.Mode.VIRTUAL) {
+            VirtualThreadExecutor.requireVirtualThreads();
+            threadFactory = new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory();
+        } else {
+            threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        }
+        return new PriorityLaneExecutor(threadFactory, pool, properties.getLanes());
+    }
+
+    /**
+     * Platform mode gives a bounded thread pool; virtual mode gives virtual threads capped at the pool's max size.
+     */
+    public static MonitoredExecutor create(String threadNamePrefix, AsyncProperties.Mode mode, AsyncProperties.Pool pool) {
+        if (mode == AsyncProperties.Mode.VIRTUAL) {
+            return new VirtualThreadExecutor(threadNamePrefix, pool.getMaxPoolSize());
+        }
+        return new BoundedTaskExecutor(threadNamePrefix, pool);
+    }
+
+    /**
+     * @return {@code executor}'s lane for {@code priority} if it has priority lanes, otherwise {@code executor}
+     */
+    public static Executor lane(Executor executor, Priority priority) {
+        if (executor instanceof PriorityLaneExecutor lanes) {
+            return lanes.lane(priority);
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,308 @@
+package com.communication.configuration.executor;
+
+import com.communication.configuration.AsyncProperties;
+import com.communication.model.Priority;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Executor with one queue per {@link Priority}, so critical sends never wait behind a bulk backlog.
+ * <p>
+ * Up to {@code max-pool-size} threads are started on demand. {@code reserved-critical} of them only run critical
+ * tasks and {@code reserved-transactional} only critical or transactional ones; the rest are shared. Every task's
+ * deadline is its submit time plus its class's SLO, and a free thread takes the earliest deadline among the classes
+ * it may start. Critical tasks therefore go first, but bulk tasks that have waited past their SLO are not starved.
+ * When the higher lanes are idle, bulk work gets every thread except the reserved ones.
+ * <p>
+ * {@link #execute(Runnable)} queues as {@link Priority#TRANSACTIONAL}; use {@link #lane(Priority)} for other classes.
+ */
+public class PriorityLaneExecutor implements MonitoredExecutor, DisposableBean {
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final ThreadFactory threadFactory;
+    private final int maxThreads;
+    private final int queueCapacity;
+    private final AsyncProperties.RejectionPolicy rejectionPolicy;
+    /** Threads set aside per class; bulk's share is whatever is not reserved. */
+    private final int[] capacities = new int[PRIORITIES.length];
+    /** Per class: its own threads plus those of every lower class. */
+    private final int[] startLimits = new int[PRIORITIES.length];
+    private final long[] sloNanos = new long[PRIORITIES.length];
+    private final Executor[] lanes = new Executor[PRIORITIES.length];
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<Task>[] queues = new ArrayDeque[PRIORITIES.length];
+    private final long[] sloMisses = new long[PRIORITIES.length];
+    private int threads;
+    private int waiting;
+    private int busy;
+    private final int[] laneBusy = new int[PRIORITIES.length];
+    private boolean shutdown;
+
+    private volatile LongConsumer queueWaitListener;
+    private volatile ObjLongConsumer<Priority> laneWaitListener;
+
+    public PriorityLaneExecutor(ThreadFactory threadFactory, AsyncProperties.Pool pool, AsyncProperties.Lanes lanes) {
+        int reserved = lanes.getReservedCritical() + lanes.getReservedTransactional();
+        if (lanes.getReservedCritical() < 0 || lanes.getReservedTransactional() < 0 || reserved >= pool.getMaxPoolSize()) {
+            throw new IllegalArgumentException("communication.async.lanes reserves " + reserved + " of "
+                    + pool.getMaxPoolSize() + " threads; at least one must be left for bulk tasks");
+        }
+        this.threadFactory = threadFactory;
+        this.maxThreads = pool.getMaxPoolSize();
+        this.queueCapacity = pool.getQueueCapacity();
+        this.rejectionPolicy = pool.getRejectionPolicy();
+        capacities[Priority.CRITICAL.ordinal()] = lanes.getReservedCritical();
+        capacities[Priority.TRANSACTIONAL.ordinal()] = lanes.getReservedTransactional();
+        capacities[Priority.BULK.ordinal()] = maxThreads - reserved;
+        int limit = 0;
+        for (int i = PRIORITIES.length - 1; i >= 0; i--) {
+            limit += capacities[i];
+            startLimits[i] = limit;
+        }
+        sloNanos[Priority.CRITICAL.ordinal()] = lanes.getCriticalSlo().toNanos();
+        sloNanos[Priority.TRANSACTIONAL.ordinal()] = lanes.getTransactionalSlo().toNanos();
+        sloNanos[Priority.BULK.ordinal()] = lanes.getBulkSlo().toNanos();
+        for (Priority priority : PRIORITIES) {
+            queues[priority.ordinal()] = new ArrayDeque<>();
+            this.lanes[priority.ordinal()] = task -> execute(task, priority);
+        }
+    }
+
+    /**
+     * @return an executor that queues its tasks in {@code priority}'s lane ({@code null} means transactional)
+     */
+    public Executor lane(Priority priority) {
+        return lanes[Priority.orDefault(priority).ordinal()];
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        execute(task, Priority.TRANSACTIONAL);
+    }
+
+    public void execute(Runnable task, Priority priority) {
+        int lane = Priority.orDefault(priority).ordinal();
+        long now = System.nanoTime();
+        boolean startThread = false;
+        boolean callerRuns = false;
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor has been shut down");
+            }
+            ArrayDeque<Task> queue = queues[lane];
+            if (queue.size() >= queueCapacity) {
+                // A dropped task would leave its CompletableFuture incomplete, so the lane rejects unless the caller runs it
+                if (rejectionPolicy != AsyncProperties.RejectionPolicy.CALLER_RUNS) {
+                    throw new RejectedExecutionException(PRIORITIES[lane] + " lane is full (" + queueCapacity + " tasks)");
+                }
+                callerRuns = true;
+            }
+            if (!callerRuns) {
+                queue.add(new Task(task, lane, now, now + sloNanos[lane]));
+                if (waiting > 0) {
+                    workAvailable.signal();
+                } else if (threads < maxThreads) {
+                    threads++;
+                    startThread = true;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (callerRuns) {
+            task.run();
+            return;
+        }
+        if (startThread) {
+            startWorker();
+        }
+    }
+
+    @Override
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            int depth = 0;
+            for (ArrayDeque<Task> queue : queues) {
+                depth += queue.size();
+            }
+            return depth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth(Priority priority) {
+        lock.lock();
+        try {
+            return queues[priority.ordinal()].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return how many {@code priority} tasks started later than their SLO
+     */
+    public long getSloMisses(Priority priority) {
+        lock.lock();
+        try {
+            return sloMisses[priority.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getActiveCount() {
+        lock.lock();
+        try {
+            return busy;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setQueueWaitListener(LongConsumer listener) {
+        this.queueWaitListener = listener;
+    }
+
+    /**
+     * Receives, for every task, its class and the nanoseconds it waited before starting.
+     */
+    public void setLaneWaitListener(ObjLongConsumer<Priority> listener) {
+        this.laneWaitListener = listener;
+    }
+
+    /**
+     * Drops queued tasks and lets running ones finish, like {@code ThreadPoolTaskExecutor}'s default shutdown.
+     */
+    @Override
+    public void destroy() {
+        lock.lock();
+        try {
+            shutdown = true;
+            for (ArrayDeque<Task> queue : queues) {
+                queue.clear();
+            }
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void startWorker() {
+        try {
+            threadFactory.newThread(this::work).start();
+        } catch (RuntimeException | Error e) {
+            lock.lock();
+            try {
+                threads--;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private void work() {
+        Task task = null;
+        while (true) {
+            lock.lock();
+            try {
+                if (task != null) {
+                    busy--;
+                    laneBusy[task.lane]--;
+                }
+                while ((task = next()) == null) {
+                    if (shutdown) {
+                        threads--;
+                        return;
+                    }
+                    waiting++;
+                    workAvailable.awaitUninterruptibly();
+                    waiting--;
+                }
+                busy++;
+                laneBusy[task.lane]++;
+            } finally {
+                lock.unlock();
+            }
+            run(task);
+        }
+    }
+
+    /**
+     * Earliest deadline among the lanes that may start a task now; caller holds the lock. Busy tasks count first
+     * against their own class's reserved threads and only then spill into lower classes' threads, so a class may
+     * start a task while its threads and those below it are not all taken.
+     */
+    private Task next() {
+        int lane = -1;
+        int spill = 0;
+        int busyFromHere = busy;
+        for (int i = 0; i < queues.length; i++) {
+            Task head = queues[i].peek();
+            if (head != null && spill + busyFromHere < startLimits[i]
+                    && (lane < 0 || head.deadline - queues[lane].peek().deadline < 0)) {
+                lane = i;
+            }
+            spill = Math.max(0, spill + laneBusy[i] - capacities[i]);
+            busyFromHere -= laneBusy[i];
+        }
+        if (lane < 0) {
+            return null;
+        }
+        Task task = queues[lane].poll();
+        if (System.nanoTime() - task.deadline > 0) {
+            sloMisses[lane]++;
+        }
+        // Another waiting thread may be able to start what is left
+        if (waiting > 0 && busy + 1 < maxThreads) {
+            for (ArrayDeque<Task> queue : queues) {
+                if (!queue.isEmpty()) {
+                    workAvailable.signal();
+                    break;
+                }
+            }
+        }
+        return task;
+    }
+
+    private void run(Task task) {
+        LongConsumer waitListener = queueWaitListener;
+        ObjLongConsumer<Priority> laneListener = laneWaitListener;
+        if (waitListener != null || laneListener != null) {
+            long waited = System.nanoTime() - task.submitted;
+            if (waitListener != null) {
+                waitListener.accept(waited);
+            }
+            if (laneListener != null) {
+                laneListener.accept(PRIORITIES[task.lane], waited);
+            }
+        }
+        try {
+            task.runnable.run();
+        } catch (RuntimeException | Error e) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    private record Task(Runnable runnable, int lane, long submitted, long deadline) {
+    }
+}
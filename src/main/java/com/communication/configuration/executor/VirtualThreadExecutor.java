@@ -0,0 +1,64 @@
+package com.communication.configuration.executor;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.LongConsumer;
+
+/**
+ * Runs every task on its own virtual thread, with a semaphore capping how many run at once so
+ * a provider's rate limits are not overrun. Tasks over the cap park cheaply instead of queueing.
+ */
+public class VirtualThreadExecutor implements MonitoredExecutor {
+
+    private final VirtualThreadTaskExecutor delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private volatile LongConsumer queueWaitListener;
+
+    public VirtualThreadExecutor(String threadNamePrefix, int maxConcurrency) {
+        requireVirtualThreads();
+        this.delegate = new VirtualThreadTaskExecutor(threadNamePrefix);
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    static void requireVirtualThreads() {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("communication.async.mode=virtual requires Java 21 or later, running on "
+                    + Runtime.version());
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        LongConsumer listener = queueWaitListener;
+        long submitted = listener != null ? System.nanoTime() : 0;
+        delegate.execute(() -> {
+            permits.acquireUninterruptibly();
+            if (listener != null) {
+                listener.accept(System.nanoTime() - submitted);
+            }
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    @Override
+    public void setQueueWaitListener(LongConsumer listener) {
+        this.queueWaitListener = listener;
+    }
+}
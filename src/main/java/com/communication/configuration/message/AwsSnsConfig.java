@@ -9,10 +9,25 @@ import org.springframework.context.annotation.Configuration;
 @Setter
 @Configuration
 @ConfigurationProperties(prefix = "messaging.sns")
-public class AwsSnsConfig {
+public class AwsSnsConfig implements ProviderConfig {
     private boolean enabled;
     private String accessKey;
     private String secretKey;
     private String region;
+    /**
+     * Overrides the regional SNS endpoint, e.g. for LocalStack or the load-test mock.
+     */
+    private String endpoint;
+    /**
+     * Send asynchronously through an {@code SnsAsyncClient} on the Netty NIO client instead of blocking executor threads.
+     */
+    private boolean asyncClient = false;
+    private int maxConcurrency = 200;
+    private RateLimitProperties rateLimit = new RateLimitProperties();
+
+    @Override
+    public String getProvider() {
+        return "sns";
+    }
 }
 
@@ -0,0 +1,16 @@
+package com.communication.configuration.message;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The Azure SMS settings that live outside {@code messaging.microsoft}, next to the Azure connection string.
+ * Registered only through {@code CommunicationAutoConfiguration}, so that it has a single bean.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "azure.communication.sms")
+public class AzureSmsConfig {
+    private String fromPhoneNumber;
+}
@@ -0,0 +1,26 @@
+package com.communication.configuration.message;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "messaging.bird")
+public class BirdConfig implements ProviderConfig {
+    private boolean enabled;
+    private String channelId;
+    private RateLimitProperties rateLimit = new RateLimitProperties();
+
+    @Override
+    public String getProvider() {
+        return "bird";
+    }
+
+    @Override
+    public String getSender() {
+        return channelId;
+    }
+}
@@ -6,14 +6,25 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.util.StringUtils;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.SnsAsyncClientBuilder;
 import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.SnsClientBuilder;
 
+import java.net.URI;
 import java.time.Duration;
 
+/**
+ * Provider SDK clients. They are {@link Lazy}: the services resolve them on first send (or on warm-up), so
+ * building them does not add to application startup.
+ */
 @Configuration
 public class MessagingAutoConfiguration {
 
@@ -21,21 +32,45 @@ public class MessagingAutoConfiguration {
     private String connectionString;
 
     @Bean
+    @Lazy
     @ConditionalOnProperty(prefix = "messaging.sns", name = "enabled", havingValue = "true")
     public SnsClient snsClient(AwsSnsConfig awsSnsConfig) {
         AwsBasicCredentials credentials = AwsBasicCredentials.create(awsSnsConfig.getAccessKey(), awsSnsConfig.getSecretKey());
-        return SnsClient.builder()
+        SnsClientBuilder builder = SnsClient.builder()
                 .region(Region.of(awsSnsConfig.getRegion()))
                 .credentialsProvider(StaticCredentialsProvider.create(credentials))
                 .httpClientBuilder(ApacheHttpClient.builder()
                         .connectionTimeout(Duration.ofSeconds(5))
                         .socketTimeout(Duration.ofSeconds(30))
                         .maxConnections(50)
-                        .connectionAcquisitionTimeout(Duration.ofSeconds(10)))
-                .build();
+                        .connectionAcquisitionTimeout(Duration.ofSeconds(10)));
+        if (StringUtils.hasText(awsSnsConfig.getEndpoint())) {
+            builder.endpointOverride(URI.create(awsSnsConfig.getEndpoint()));
+        }
+        return builder.build();
     }
 
     @Bean
+    @Lazy
+    @ConditionalOnProperty(prefix = "messaging.sns", name = {"enabled", "async-client"}, havingValue = "true")
+    public SnsAsyncClient snsAsyncClient(AwsSnsConfig awsSnsConfig) {
+        AwsBasicCredentials credentials = AwsBasicCredentials.create(awsSnsConfig.getAccessKey(), awsSnsConfig.getSecretKey());
+        SnsAsyncClientBuilder builder = SnsAsyncClient.builder()
+                .region(Region.of(awsSnsConfig.getRegion()))
+                .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .connectionTimeout(Duration.ofSeconds(5))
+                        .readTimeout(Duration.ofSeconds(30))
+                        .maxConcurrency(awsSnsConfig.getMaxConcurrency())
+                        .connectionAcquisitionTimeout(Duration.ofSeconds(10)));
+        if (StringUtils.hasText(awsSnsConfig.getEndpoint())) {
+            builder.endpointOverride(URI.create(awsSnsConfig.getEndpoint()));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    @Lazy
     @ConditionalOnProperty(prefix = "messaging.microsoft", name = "enabled", havingValue = "true")
     public SmsClient smsClient() {
         return new SmsClientBuilder()
@@ -0,0 +1,34 @@
+package com.communication.configuration.message;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "messaging.microsoft")
+public class MicrosoftConfig implements ProviderConfig {
+    private boolean enabled;
+    private RateLimitProperties rateLimit = new RateLimitProperties();
+    /**
+     * Azure's sender lives outside this prefix, with the rest of the Azure SMS settings; not bound here.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Autowired(required = false)
+    private AzureSmsConfig azureSms;
+
+    @Override
+    public String getProvider() {
+        return "microsoft";
+    }
+
+    @Override
+    public String getSender() {
+        return azureSms != null ? azureSms.getFromPhoneNumber() : null;
+    }
+}
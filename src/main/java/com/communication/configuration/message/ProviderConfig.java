@@ -0,0 +1,24 @@
+package com.communication.configuration.message;
+
+/**
+ * Settings shared by every SMS provider's configuration class.
+ */
+public interface ProviderConfig {
+
+    /**
+     * Matches {@code MessageService.getProvider()} of the provider this configures.
+     */
+    String getProvider();
+
+    RateLimitProperties getRateLimit();
+
+    /**
+     * The number or channel the provider sends from. Providers send from their configured sender whatever
+     * {@code SmsRequest.from} says, so this is what the per-sender rate limit is keyed on.
+     *
+     * @return {@code null} if the provider has no fixed sender
+     */
+    default String getSender() {
+        return null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.communication.configuration.message;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * Client-side send limits for one provider. A value of 0 disables that limit.
+ * Sends over a rate limit are delayed until a token is available, not rejected, unless the
+ * delay would exceed {@code maxWait}.
+ */
+@Getter
+@Setter
+public class RateLimitProperties {
+    private double messagesPerSecond;
+    private int burst = 1;
+    private double perSenderMessagesPerSecond;
+    private int perSenderBurst = 1;
+    private int maxConcurrent;
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return messagesPerSecond > 0 || perSenderMessagesPerSecond > 0 || maxConcurrent > 0;
+    }
+}
@@ -1,7 +1,5 @@
 package com.communication.configuration.message;
 
-import com.twilio.Twilio;
-import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -11,14 +9,20 @@ import org.springframework.context.annotation.Configuration;
 @Setter
 @Configuration
 @ConfigurationProperties(prefix = "messaging.twilio")
-public class TwilioConfig {
+public class TwilioConfig implements ProviderConfig {
     private boolean enabled;
     private String sid;
     private String token;
     private String from;
+    private RateLimitProperties rateLimit = new RateLimitProperties();
 
-    @PostConstruct
-    public void init() {
-        Twilio.init(sid, token);
+    @Override
+    public String getProvider() {
+        return "twilio";
+    }
+
+    @Override
+    public String getSender() {
+        return from;
     }
 }
@@ -0,0 +1,412 @@
+package com.communication.idempotency;
+
+import com.communication.model.EmailResponse;
+import com.communication.model.SmsResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, expiring map from idempotency key to the future of the first send with that key. Keys are reduced
+ * to 64-bit fingerprints and kept in striped open-addressing tables of primitive arrays, so an entry costs
+ * about 45 bytes plus its future. Each stripe evicts in insertion order, which is also expiry order since
+ * every entry lives for the same window. Only successful sends stay cached: a send that fails or throws is
+ * forgotten, so an upstream retry goes through.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "communication.idempotency", name = "enabled", havingValue = "true")
+public class IdempotencyCache {
+
+    private static final int SNAPSHOT_MAGIC = 0x49444d31; // "IDM1"
+
+    private static final Map<String, Class<?>> SNAPSHOT_TYPES = Map.of(
+            SmsResponse.class.getName(), SmsResponse.class,
+            EmailResponse.class.getName(), EmailResponse.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IdempotencyProperties properties;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int windowSeconds;
+    private final long baseMillis = System.currentTimeMillis();
+    private final Path snapshotFile;
+    private ScheduledExecutorService snapshots;
+
+    public IdempotencyCache(IdempotencyProperties properties) {
+        this.properties = properties;
+        int stripeCount = Math.max(1, Integer.highestOneBit(Math.max(1, properties.getStripes()) - 1) << 1);
+        int perStripe = Math.max(1, (properties.getMaxEntries() + stripeCount - 1) / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.stripeMask = stripeCount - 1;
+        this.windowSeconds = (int) Math.max(1, properties.getWindow().toSeconds());
+        this.snapshotFile = properties.getSnapshotFile() != null ? Path.of(properties.getSnapshotFile()) : null;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (snapshotFile == null) {
+            return;
+        }
+        load();
+        long interval = properties.getSnapshotInterval().toMillis();
+        if (interval > 0) {
+            snapshots = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("comm-idempotency-"));
+            snapshots.scheduleWithFixedDelay(this::snapshot, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (snapshots != null) {
+            snapshots.shutdownNow();
+        }
+        if (snapshotFile != null) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Runs {@code send} unless an earlier send with the same key is remembered, in which case that send's
+     * future is returned instead. Concurrent duplicates share the first send's future.
+     *
+     * @param succeeded whether a completed send should be remembered
+     */
+    public <T> CompletableFuture<T> deduplicate(String scope, String key, Supplier<CompletableFuture<T>> send,
+                                                Predicate<T> succeeded) {
+        if (key == null) {
+            return send.get();
+        }
+        CompletableFuture<T> pending = new CompletableFuture<>();
+        CompletableFuture<T> existing = claim(scope, key, pending);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<T> call;
+        try {
+            call = send.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((result, ex) -> {
+            // Forget before completing, so a caller retrying on this outcome is not handed it again
+            if (ex != null || !succeeded.test(result)) {
+                release(scope, key, pending);
+            }
+            if (ex != null) {
+                pending.completeExceptionally(ex);
+            } else {
+                pending.complete(result);
+            }
+        });
+        return pending;
+    }
+
+    /**
+     * Registers {@code pending} as the send for {@code key} unless one is already remembered.
+     *
+     * @return the earlier send's future, or {@code null} if {@code pending} was registered
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> claim(String scope, String key, CompletableFuture<T> pending) {
+        long fingerprint = fingerprint(scope, key);
+        int now = nowSeconds();
+        CompletableFuture<T> existing = (CompletableFuture<T>) stripe(fingerprint).putIfAbsent(fingerprint, pending,
+                now, now + windowSeconds);
+        if (existing != null) {
+            log.debug("Duplicate {} send with idempotency key {}", scope, key);
+        }
+        return existing;
+    }
+
+    /**
+     * Forgets {@code key} if {@code pending} is still its registered send, so the next send with it goes through.
+     */
+    public void release(String scope, String key, CompletableFuture<?> pending) {
+        long fingerprint = fingerprint(scope, key);
+        stripe(fingerprint).remove(fingerprint, pending);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Writes every remembered, successfully completed send to the snapshot file (via a temporary file and an
+     * atomic rename). Sends still in flight are not saved.
+     */
+    public synchronized void snapshot() {
+        int now = nowSeconds();
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        int written = 0;
+        try {
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                List<Object> entries = new ArrayList<>();
+                for (Stripe stripe : stripes) {
+                    entries.clear();
+                    stripe.copyLive(now, entries);
+                    for (int i = 0; i < entries.size(); i += 3) {
+                        CompletableFuture<?> future = (CompletableFuture<?>) entries.get(i + 2);
+                        if (!future.isDone() || future.isCompletedExceptionally()) {
+                            continue;
+                        }
+                        Object result = future.join();
+                        if (result != null && !SNAPSHOT_TYPES.containsKey(result.getClass().getName())) {
+                            continue;
+                        }
+                        out.writeBoolean(true);
+                        out.writeLong((Long) entries.get(i));
+                        out.writeLong(toEpochMillis((Integer) entries.get(i + 1)));
+                        out.writeUTF(result != null ? result.getClass().getName() : "");
+                        if (result != null) {
+                            byte[] json = objectMapper.writeValueAsBytes(result);
+                            out.writeInt(json.length);
+                            out.write(json);
+                        }
+                        written++;
+                    }
+                }
+                out.writeBoolean(false);
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved {} idempotency keys to {}", written, snapshotFile);
+        } catch (IOException e) {
+            log.warn("Failed to save idempotency keys to {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        int now = nowSeconds();
+        int loaded = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                log.warn("Ignoring {}: not an idempotency snapshot", snapshotFile);
+                return;
+            }
+            while (in.readBoolean()) {
+                long fingerprint = in.readLong();
+                int expiry = toSeconds(in.readLong());
+                String type = in.readUTF();
+                Object result = null;
+                if (!type.isEmpty()) {
+                    byte[] json = in.readNBytes(in.readInt());
+                    Class<?> resultType = SNAPSHOT_TYPES.get(type);
+                    if (resultType == null) {
+                        continue;
+                    }
+                    result = objectMapper.readValue(json, resultType);
+                }
+                if (expiry > now) {
+                    stripe(fingerprint).putIfAbsent(fingerprint, CompletableFuture.completedFuture(result), now, expiry);
+                    loaded++;
+                }
+            }
+            log.info("Loaded {} idempotency keys from {}", loaded, snapshotFile);
+        } catch (IOException e) {
+            log.warn("Failed to load idempotency keys from {} ({} loaded): {}", snapshotFile, loaded, e.getMessage());
+        }
+    }
+
+    private Stripe stripe(long fingerprint) {
+        return stripes[(int) (fingerprint >>> 40) & stripeMask];
+    }
+
+    private int nowSeconds() {
+        return toSeconds(System.currentTimeMillis());
+    }
+
+    private int toSeconds(long epochMillis) {
+        return (int) Math.max(Integer.MIN_VALUE + 1, Math.min(Integer.MAX_VALUE, (epochMillis - baseMillis) / 1000));
+    }
+
+    private long toEpochMillis(int seconds) {
+        return baseMillis + seconds * 1000L;
+    }
+
+    /**
+     * 64-bit FNV-1a over scope and key, finished with the MurmurHash3 mixer; never 0, which marks an empty slot.
+     */
+    static long fingerprint(String scope, String key) {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, scope);
+        hash = (hash ^ ':') * 0x100000001b3L;
+        hash = mix(hash, key);
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash != 0 ? hash : 1;
+    }
+
+    private static long mix(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * One lock's worth of the cache: a linear-probing table at most half full, and a ring of keys in insertion
+     * order that drives eviction.
+     */
+    private static final class Stripe {
+        private final long[] keys;
+        private final int[] expiries;
+        private final Object[] values;
+        private final int mask;
+        private final long[] ringKeys;
+        private final int[] ringExpiries;
+        private int ringHead;
+        private int ringSize;
+        private int size;
+
+        private Stripe(int capacity) {
+            int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+            this.keys = new long[tableSize];
+            this.expiries = new int[tableSize];
+            this.values = new Object[tableSize];
+            this.mask = tableSize - 1;
+            this.ringKeys = new long[capacity];
+            this.ringExpiries = new int[capacity];
+        }
+
+        synchronized Object putIfAbsent(long key, Object value, int now, int expiry) {
+            int slot = find(key);
+            if (slot >= 0) {
+                if (expiries[slot] > now) {
+                    return values[slot];
+                }
+                removeAt(slot);
+            }
+            evict(now);
+            slot = (int) key & mask;
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            expiries[slot] = expiry;
+            values[slot] = value;
+            size++;
+            int tail = (ringHead + ringSize) % ringKeys.length;
+            ringKeys[tail] = key;
+            ringExpiries[tail] = expiry;
+            ringSize++;
+            return null;
+        }
+
+        synchronized void remove(long key, Object value) {
+            int slot = find(key);
+            if (slot >= 0 && values[slot] == value) {
+                removeAt(slot);
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        /**
+         * Appends key, expiry and value of every unexpired entry to {@code out}.
+         */
+        synchronized void copyLive(int now, List<Object> out) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != 0 && expiries[slot] > now) {
+                    out.add(keys[slot]);
+                    out.add(expiries[slot]);
+                    out.add(values[slot]);
+                }
+            }
+        }
+
+        /**
+         * Drops expired entries from the head of the ring, and the oldest entry if the ring is full. A ring
+         * entry whose key was since removed or re-added is dropped without touching the table.
+         */
+        private void evict(int now) {
+            while (ringSize > 0 && (ringSize == ringKeys.length || ringExpiries[ringHead] <= now)) {
+                int slot = find(ringKeys[ringHead]);
+                if (slot >= 0 && expiries[slot] == ringExpiries[ringHead]) {
+                    removeAt(slot);
+                }
+                ringHead = (ringHead + 1) % ringKeys.length;
+                ringSize--;
+            }
+        }
+
+        private int find(long key) {
+            int slot = (int) key & mask;
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Backward-shift deletion: later entries of the probe run move up into the gap, so lookups need
+         * no tombstones.
+         */
+        private void removeAt(int slot) {
+            int gap = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                long key = keys[next];
+                if (key == 0) {
+                    break;
+                }
+                int home = (int) key & mask;
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = key;
+                    expiries[gap] = expiries[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+            }
+            keys[gap] = 0;
+            expiries[gap] = 0;
+            values[gap] = null;
+            size--;
+        }
+    }
+}
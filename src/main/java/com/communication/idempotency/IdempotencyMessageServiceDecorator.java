@@ -0,0 +1,156 @@
+package com.communication.idempotency;
+
+import com.communication.model.SmsRequest;
+import com.communication.model.SmsResponse;
+import com.communication.service.MessageService;
+import com.communication.service.support.BulkSends;
+import com.communication.service.support.DelegatingMessageService;
+import com.communication.service.support.MessageServiceDecorator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+
+/**
+ * Answers a repeated send with the same {@link SmsRequest#getIdempotencyKey()} from the {@link IdempotencyCache}
+ * instead of calling the provider. Outermost layer, so a duplicate skips the outbox, retries and rate limits too.
+ * Keys are shared across providers: one logical notification is sent once whichever provider takes it.
+ */
+@Component
+@ConditionalOnProperty(prefix = "communication.idempotency", name = "enabled", havingValue = "true")
+public class IdempotencyMessageServiceDecorator implements MessageServiceDecorator {
+
+    public static final int ORDER = 1100;
+
+    static final String SCOPE = "sms";
+
+    private static final Predicate<SmsResponse> SUCCEEDED = SmsResponse::isSuccess;
+
+    private final IdempotencyCache cache;
+
+    public IdempotencyMessageServiceDecorator(IdempotencyCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public MessageService decorate(MessageService delegate, String beanName) {
+        return new IdempotentMessageService(delegate, cache);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    static class IdempotentMessageService extends DelegatingMessageService {
+
+        private final IdempotencyCache cache;
+
+        IdempotentMessageService(MessageService delegate, IdempotencyCache cache) {
+            super(delegate);
+            this.cache = cache;
+        }
+
+        @Override
+        public SmsResponse sendMessage(SmsRequest request) {
+            if (request.getIdempotencyKey() == null) {
+                return delegate.sendMessage(request);
+            }
+            CompletableFuture<SmsResponse> result = cache.deduplicate(SCOPE, request.getIdempotencyKey(), () -> {
+                try {
+                    return CompletableFuture.completedFuture(delegate.sendMessage(request));
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }, SUCCEEDED);
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        @Override
+        public CompletableFuture<SmsResponse> sendMessageAsync(SmsRequest request) {
+            return cache.deduplicate(SCOPE, request.getIdempotencyKey(), () -> delegate.sendMessageAsync(request), SUCCEEDED);
+        }
+
+        @Override
+        public Mono<SmsResponse> sendMessageReactive(SmsRequest request) {
+            if (request.getIdempotencyKey() == null) {
+                return delegate.sendMessageReactive(request);
+            }
+            // The future is shared with duplicates, so a cancelled subscriber must not cancel it
+            return Mono.defer(() -> Mono.fromFuture(cache.deduplicate(SCOPE, request.getIdempotencyKey(),
+                    () -> delegate.sendMessageReactive(request).toFuture(), SUCCEEDED), true));
+        }
+
+        /**
+         * For a natively batching provider, keys are claimed up front and only the requests without a remembered
+         * send go into the provider's bulk call; duplicates are answered in place from the cache.
+         */
+        @Override
+        public Flux<SmsResponse> sendMessages(Collection<SmsRequest> requests) {
+            if (!delegate.isNativeBulk()) {
+                return super.sendMessages(requests);
+            }
+            return Flux.defer(() -> {
+                List<SmsRequest> ordered = new ArrayList<>(requests);
+                List<CompletableFuture<SmsResponse>> results = new ArrayList<>(ordered.size());
+                List<SmsRequest> fresh = new ArrayList<>();
+                List<CompletableFuture<SmsResponse>> pending = new ArrayList<>();
+                for (SmsRequest request : ordered) {
+                    CompletableFuture<SmsResponse> sent = new CompletableFuture<>();
+                    CompletableFuture<SmsResponse> earlier = request.getIdempotencyKey() != null
+                            ? cache.claim(SCOPE, request.getIdempotencyKey(), sent)
+                            : null;
+                    if (earlier != null) {
+                        results.add(earlier);
+                    } else {
+                        results.add(sent);
+                        fresh.add(request);
+                        pending.add(sent);
+                    }
+                }
+
+                Flux<SmsResponse> send = fresh.isEmpty() ? Flux.empty() : Flux.range(0, fresh.size())
+                        .zipWith(delegate.sendMessages(fresh), (i, response) -> {
+                            complete(fresh.get(i), pending.get(i), response, null);
+                            return response;
+                        })
+                        .doFinally(signal -> {
+                            for (int i = 0; i < fresh.size(); i++) {
+                                complete(fresh.get(i), pending.get(i), null,
+                                        new IllegalStateException("Bulk send ended without a response"));
+                            }
+                        })
+                        .thenMany(Flux.empty());
+                Flux<SmsResponse> responses = Flux.range(0, ordered.size())
+                        .concatMap(i -> Mono.fromFuture(results.get(i), true)
+                                .onErrorResume(e -> Mono.just(BulkSends.failure(getProvider(), ordered.get(i), e))));
+                return Flux.merge(send, responses);
+            });
+        }
+
+        private void complete(SmsRequest request, CompletableFuture<SmsResponse> sent, SmsResponse response, Throwable error) {
+            if (sent.isDone()) {
+                return;
+            }
+            if (request.getIdempotencyKey() != null && (error != null || !response.isSuccess())) {
+                cache.release(SCOPE, request.getIdempotencyKey(), sent);
+            }
+            if (error != null) {
+                sent.completeExceptionally(error);
+            } else {
+                sent.complete(response);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.communication.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "communication.idempotency")
+public class IdempotencyProperties {
+    private boolean enabled = false;
+    /**
+     * How long a successful send's key is remembered (second resolution).
+     */
+    private Duration window = Duration.ofHours(24);
+    /**
+     * Upper bound on remembered keys; the oldest are evicted first.
+     */
+    private int maxEntries = 1_000_000;
+    /**
+     * Independently locked segments, rounded up to a power of two.
+     */
+    private int stripes = 64;
+    /**
+     * File the cache is saved to periodically and on shutdown, and reloaded from on startup.
+     * Unset keeps the cache in memory only.
+     */
+    private String snapshotFile;
+    private Duration snapshotInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,65 @@
+package com.communication.metrics;
+
+import com.communication.configuration.executor.MonitoredExecutor;
+import com.communication.configuration.executor.PriorityLaneExecutor;
+import com.communication.model.Priority;
+import com.communication.outbox.CommunicationOutbox;
+import com.communication.resilience.Resilience;
+import com.communication.routing.RoutingMessageService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/communication}: executor backlog (per priority lane, if enabled), circuit states, routing scores and outbox backlog.
+ */
+@Endpoint(id = "communication")
+public class CommunicationEndpoint {
+
+    private final Map<String, MonitoredExecutor> executors;
+    private final ObjectProvider<Resilience> resilience;
+    private final ObjectProvider<RoutingMessageService> routing;
+    private final ObjectProvider<CommunicationOutbox> outbox;
+
+    public CommunicationEndpoint(Map<String, MonitoredExecutor> executors, ObjectProvider<Resilience> resilience,
+                                 ObjectProvider<RoutingMessageService> routing, ObjectProvider<CommunicationOutbox> outbox) {
+        this.executors = executors;
+        this.resilience = resilience;
+        this.routing = routing;
+        this.outbox = outbox;
+    }
+
+    @ReadOperation
+    public Map<String, Object> communication() {
+        Map<String, Object> result = new LinkedHashMap<>();
+
+        Map<String, Object> executorStats = new LinkedHashMap<>();
+        executors.forEach((name, executor) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("queueDepth", executor.getQueueDepth());
+            stats.put("activeCount", executor.getActiveCount());
+            if (executor instanceof PriorityLaneExecutor lanes) {
+                Map<String, Object> laneStats = new LinkedHashMap<>();
+                for (Priority priority : Priority.values()) {
+                    laneStats.put(priority.name().toLowerCase(), Map.of("queueDepth", lanes.getQueueDepth(priority),
+                            "sloMisses", lanes.getSloMisses(priority)));
+                }
+                stats.put("lanes", laneStats);
+            }
+            executorStats.put(name, stats);
+        });
+        result.put("executors", executorStats);
+
+        resilience.ifAvailable(r -> {
+            Map<String, Object> circuits = new LinkedHashMap<>();
+            r.getCircuitBreakers().forEach((name, breaker) -> circuits.put(name, breaker.getState()));
+            result.put("circuitBreakers", circuits);
+        });
+        routing.ifAvailable(router -> result.put("routes", router.getStats()));
+        outbox.ifAvailable(o -> result.put("outboxUnacknowledged", o.getUnacknowledged()));
+        return result;
+    }
+}
@@ -0,0 +1,25 @@
+package com.communication.metrics;
+
+/**
+ * Email-side instrumentation hook. Kept free of Micrometer types so the email service works without it;
+ * {@link #NOOP} is used when no meter registry is present.
+ */
+public interface CommunicationMetrics {
+
+    CommunicationMetrics NOOP = new CommunicationMetrics() {
+        @Override
+        public void recordEmail(long elapsedNanos, int succeeded, int failed) {
+        }
+
+        @Override
+        public void recordAttachment(long bytes) {
+        }
+    };
+
+    /**
+     * Records one SMTP send call, which may carry several messages.
+     */
+    void recordEmail(long elapsedNanos, int succeeded, int failed);
+
+    void recordAttachment(long bytes);
+}
@@ -0,0 +1,51 @@
+package com.communication.metrics;
+
+import com.communication.configuration.executor.MonitoredExecutor;
+import com.communication.outbox.CommunicationOutbox;
+import com.communication.resilience.Resilience;
+import com.communication.routing.RoutingMessageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Micrometer and Actuator are optional dependencies; nothing here loads unless they are on the classpath.
+ */
+@Configuration
+@ConditionalOnClass(MeterRegistry.class)
+public class CommunicationMetricsConfiguration {
+
+    @Bean
+    public CommunicationMetrics communicationMetrics(ObjectProvider<MeterRegistry> registry) {
+        MeterRegistry meterRegistry = registry.getIfAvailable();
+        return meterRegistry != null ? new MicrometerCommunicationMetrics(meterRegistry) : CommunicationMetrics.NOOP;
+    }
+
+    @Bean
+    public MetricsMessageServiceDecorator metricsMessageServiceDecorator(ObjectProvider<MeterRegistry> registry) {
+        return new MetricsMessageServiceDecorator(registry);
+    }
+
+    @Bean
+    public ExecutorMetrics communicationExecutorMetrics(Map<String, MonitoredExecutor> executors) {
+        return new ExecutorMetrics(executors);
+    }
+
+    @Configuration
+    @ConditionalOnClass(Endpoint.class)
+    static class EndpointConfiguration {
+
+        @Bean
+        public CommunicationEndpoint communicationEndpoint(Map<String, MonitoredExecutor> executors,
+                                                          ObjectProvider<Resilience> resilience,
+                                                          ObjectProvider<RoutingMessageService> routing,
+                                                          ObjectProvider<CommunicationOutbox> outbox) {
+            return new CommunicationEndpoint(executors, resilience, routing, outbox);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.communication.metrics;
+
+import com.communication.configuration.executor.MonitoredExecutor;
+import com.communication.configuration.executor.PriorityLaneExecutor;
+import com.communication.model.Priority;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue depth and active-thread gauges plus a queue-wait timer for every communication executor.
+ * Executors with priority lanes also get per-lane depth, wait and SLO-miss meters, tagged {@code priority}.
+ * Task timing is only switched on once a registry binds this.
+ */
+public class ExecutorMetrics implements MeterBinder {
+
+    private final Map<String, MonitoredExecutor> executors;
+
+    public ExecutorMetrics(Map<String, MonitoredExecutor> executors) {
+        this.executors = executors;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        executors.forEach((name, executor) -> {
+            Gauge.builder("communication.executor.queue.depth", executor, MonitoredExecutor::getQueueDepth)
+                    .tag("executor", name)
+                    .register(registry);
+            Gauge.builder("communication.executor.active", executor, MonitoredExecutor::getActiveCount)
+                    .tag("executor", name)
+                    .register(registry);
+            Timer queueWait = Timer.builder("communication.executor.queue.wait")
+                    .tag("executor", name)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+            executor.setQueueWaitListener(nanos -> queueWait.record(nanos, TimeUnit.NANOSECONDS));
+            if (executor instanceof PriorityLaneExecutor lanes) {
+                bindLanes(registry, name, lanes);
+            }
+        });
+    }
+
+    private static void bindLanes(MeterRegistry registry, String name, PriorityLaneExecutor lanes) {
+        Map<Priority, Timer> laneWaits = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            Gauge.builder("communication.executor.lane.depth", lanes, executor -> executor.getQueueDepth(priority))
+                    .tag("executor", name)
+                    .tag("priority", tag)
+                    .register(registry);
+            FunctionCounter.builder("communication.executor.lane.slo.misses", lanes, executor -> executor.getSloMisses(priority))
+                    .tag("executor", name)
+                    .tag("priority", tag)
+                    .register(registry);
+            laneWaits.put(priority, Timer.builder("communication.executor.lane.wait")
+                    .tag("executor", name)
+                    .tag("priority", tag)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry));
+        }
+        lanes.setLaneWaitListener((priority, nanos) -> laneWaits.get(priority).record(nanos, TimeUnit.NANOSECONDS));
+    }
+}
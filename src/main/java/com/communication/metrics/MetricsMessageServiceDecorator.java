@@ -0,0 +1,127 @@
+package com.communication.metrics;
+
+import com.communication.model.SmsRequest;
+import com.communication.model.SmsResponse;
+import com.communication.service.MessageService;
+import com.communication.service.support.DelegatingMessageService;
+import com.communication.service.support.MessageServiceDecorator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every SMS send per provider and outcome ({@code success}, {@code failure} for {@code success=false},
+ * {@code error} for exceptions). Sits outside retries, so the timer covers the whole call. Meters are
+ * registered once per provider; without a {@link MeterRegistry} providers are left undecorated.
+ */
+public class MetricsMessageServiceDecorator implements MessageServiceDecorator {
+
+    public static final int ORDER = 300;
+
+    private final ObjectProvider<MeterRegistry> registry;
+
+    public MetricsMessageServiceDecorator(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public MessageService decorate(MessageService delegate, String beanName) {
+        MeterRegistry meterRegistry = registry.getIfAvailable();
+        if (meterRegistry == null) {
+            return delegate;
+        }
+        return new MeteredMessageService(delegate, meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    static class MeteredMessageService extends DelegatingMessageService {
+
+        private final Timer successTimer;
+        private final Timer failureTimer;
+        private final Timer errorTimer;
+        private final Counter sent;
+        private final Counter failed;
+
+        MeteredMessageService(MessageService delegate, MeterRegistry registry) {
+            super(delegate);
+            String provider = delegate.getProvider();
+            this.successTimer = MicrometerCommunicationMetrics.sendTimer(registry, "sms", provider, "success");
+            this.failureTimer = MicrometerCommunicationMetrics.sendTimer(registry, "sms", provider, "failure");
+            this.errorTimer = MicrometerCommunicationMetrics.sendTimer(registry, "sms", provider, "error");
+            this.sent = MicrometerCommunicationMetrics.messages(registry, "sms", provider, "success");
+            this.failed = MicrometerCommunicationMetrics.messages(registry, "sms", provider, "failure");
+        }
+
+        @Override
+        public SmsResponse sendMessage(SmsRequest request) {
+            long start = System.nanoTime();
+            try {
+                SmsResponse response = delegate.sendMessage(request);
+                record(start, response, null);
+                return response;
+            } catch (RuntimeException e) {
+                record(start, null, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public CompletableFuture<SmsResponse> sendMessageAsync(SmsRequest request) {
+            long start = System.nanoTime();
+            CompletableFuture<SmsResponse> future;
+            try {
+                future = delegate.sendMessageAsync(request);
+            } catch (RuntimeException e) {
+                record(start, null, e);
+                throw e;
+            }
+            return future.whenComplete((response, ex) -> record(start, response, ex));
+        }
+
+        @Override
+        public Mono<SmsResponse> sendMessageReactive(SmsRequest request) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return delegate.sendMessageReactive(request)
+                        .doOnNext(response -> record(start, response, null))
+                        .doOnError(e -> record(start, null, e));
+            });
+        }
+
+        /**
+         * Native bulk sends record each message with the time from the start of the bulk send to its result.
+         */
+        @Override
+        public Flux<SmsResponse> sendMessages(Collection<SmsRequest> requests) {
+            if (!delegate.isNativeBulk()) {
+                return super.sendMessages(requests);
+            }
+            return Flux.defer(() -> {
+                long start = System.nanoTime();
+                return delegate.sendMessages(requests).doOnNext(response -> record(start, response, null));
+            });
+        }
+
+        private void record(long start, SmsResponse response, Throwable error) {
+            long elapsed = System.nanoTime() - start;
+            if (error == null && response.isSuccess()) {
+                successTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                sent.increment();
+            } else {
+                (error != null ? errorTimer : failureTimer).record(elapsed, TimeUnit.NANOSECONDS);
+                failed.increment();
+            }
+        }
+    }
+}
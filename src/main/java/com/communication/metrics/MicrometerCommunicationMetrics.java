@@ -0,0 +1,67 @@
+package com.communication.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meter names shared by SMS and email: {@code communication.send} (timer, one sample per provider call) and
+ * {@code communication.messages} (counter), both tagged with {@code channel}, {@code provider} and {@code outcome}.
+ */
+public class MicrometerCommunicationMetrics implements CommunicationMetrics {
+
+    public static final String SEND_TIMER = "communication.send";
+    public static final String MESSAGES_COUNTER = "communication.messages";
+
+    private final Timer emailSuccessTimer;
+    private final Timer emailFailureTimer;
+    private final Counter emailSent;
+    private final Counter emailFailed;
+    private final DistributionSummary attachmentBytes;
+
+    public MicrometerCommunicationMetrics(MeterRegistry registry) {
+        this.emailSuccessTimer = sendTimer(registry, "email", "smtp", "success");
+        this.emailFailureTimer = sendTimer(registry, "email", "smtp", "failure");
+        this.emailSent = messages(registry, "email", "smtp", "success");
+        this.emailFailed = messages(registry, "email", "smtp", "failure");
+        this.attachmentBytes = DistributionSummary.builder("communication.email.attachment.size")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    @Override
+    public void recordEmail(long elapsedNanos, int succeeded, int failed) {
+        (failed == 0 ? emailSuccessTimer : emailFailureTimer).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (succeeded > 0) {
+            emailSent.increment(succeeded);
+        }
+        if (failed > 0) {
+            emailFailed.increment(failed);
+        }
+    }
+
+    @Override
+    public void recordAttachment(long bytes) {
+        attachmentBytes.record(bytes);
+    }
+
+    static Timer sendTimer(MeterRegistry registry, String channel, String provider, String outcome) {
+        return Timer.builder(SEND_TIMER)
+                .tag("channel", channel)
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(registry);
+    }
+
+    static Counter messages(MeterRegistry registry, String channel, String provider, String outcome) {
+        return Counter.builder(MESSAGES_COUNTER)
+                .tag("channel", channel)
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
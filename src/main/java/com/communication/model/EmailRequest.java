@@ -16,11 +16,37 @@ public class EmailRequest {
     private String subject;
     private String body;
     private String title;
+    /**
+     * Attachment locations: filesystem paths, or {@code classpath:} prefixed resources.
+     */
     private List<String> files;
+    private String from;
+    /**
+     * Optional caller-chosen key for the logical notification; with {@code communication.idempotency.enabled},
+     * a repeat {@code sendEmailAsync} with the same key inside the window returns the first send's future.
+     */
+    private String idempotencyKey;
+    /**
+     * Queue class on {@code communicationTaskExecutor}; {@code null} means {@link Priority#TRANSACTIONAL}.
+     */
+    private Priority priority;
 
     public EmailRequest(String to, String subject, String body) {
         this.to = to;
         this.subject = subject;
         this.body = body;
     }
+
+    public EmailRequest(String to, String subject, String body, String title, List<String> files) {
+        this.to = to;
+        this.subject = subject;
+        this.body = body;
+        this.title = title;
+        this.files = files;
+    }
+
+    public EmailRequest(String to, String subject, String body, String title, List<String> files, String from) {
+        this(to, subject, body, title, files);
+        this.from = from;
+    }
 }
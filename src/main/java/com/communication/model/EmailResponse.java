@@ -0,0 +1,14 @@
+package com.communication.model;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailResponse {
+    private boolean success;
+    private String to;
+    private String messageId;
+    private String error;
+}
@@ -0,0 +1,28 @@
+package com.communication.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Email content that has been rendered and MIME-encoded once, ready to be sent to many recipients.
+ * Created by {@code EmailService.prepareEmail}; only the per-recipient headers are built at send time.
+ */
+@Getter
+@AllArgsConstructor
+public class PreparedEmail {
+    private final String subject;
+    private final String from;
+    private final String title;
+    private final List<EncodedPart> parts;
+
+    @Getter
+    @AllArgsConstructor
+    public static class EncodedPart {
+        private final String contentType;
+        private final String fileName;
+        private final String transferEncoding;
+        private final byte[] content;
+    }
+}
@@ -0,0 +1,18 @@
+package com.communication.model;
+
+/**
+ * Delivery class of an {@link SmsRequest} or {@link EmailRequest}. With {@code communication.async.lanes.enabled},
+ * each class is queued separately on the communication executors. Requests without one are {@link #TRANSACTIONAL}.
+ */
+public enum Priority {
+    /** One-time passwords and other messages a user is waiting on. */
+    CRITICAL,
+    /** Receipts, alerts and other per-user notifications. */
+    TRANSACTIONAL,
+    /** Campaigns and other bulk sends. */
+    BULK;
+
+    public static Priority orDefault(Priority priority) {
+        return priority != null ? priority : TRANSACTIONAL;
+    }
+}
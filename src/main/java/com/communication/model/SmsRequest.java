@@ -10,6 +10,19 @@ public class SmsRequest {
     private String to;
     private String message;
     private String from;
-}
-
+    /**
+     * Optional caller-chosen key for the logical notification; with {@code communication.idempotency.enabled},
+     * a repeat send with the same key inside the window returns the first send's response.
+     */
+    private String idempotencyKey;
+    /**
+     * Queue class on the provider executors; {@code null} means {@link Priority#TRANSACTIONAL}.
+     */
+    private Priority priority;
 
+    public SmsRequest(String to, String message, String from) {
+        this.to = to;
+        this.message = message;
+        this.from = from;
+    }
+}
@@ -3,12 +3,27 @@ package com.communication.model;
 import lombok.*;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class SmsResponse {
     private boolean success;
     private String provider;
+    /**
+     * Recipient; always set on responses from {@code MessageService.sendMessages}.
+     */
+    private String to;
     private String messageId;
     private String error;
-}
\ No newline at end of file
+    /**
+     * For failures: whether the provider error is transient and the send may be retried.
+     */
+    private boolean retryable;
+
+    public SmsResponse(boolean success, String provider, String messageId, String error) {
+        this.success = success;
+        this.provider = provider;
+        this.messageId = messageId;
+        this.error = error;
+    }
+}
@@ -0,0 +1,353 @@
+package com.communication.outbox;
+
+import com.communication.exception.CircuitOpenException;
+import com.communication.exception.RateLimitExceededException;
+import com.communication.model.Priority;
+import com.communication.resilience.RetryClassifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Durable local outbox: sends are written to the {@link OutboxLog} first, delivered by worker threads
+ * and acknowledged once delivery succeeds or fails for good. A transient failure (see {@link RetryClassifier};
+ * an open circuit or rate limit counts as transient here) is redelivered with exponential backoff up to
+ * {@code max-attempts} times and then left unacknowledged. Entries left unacknowledged by a crash, a restart or
+ * exhausted attempts are replayed on startup, so delivery is at-least-once. Workers take pending deliveries by
+ * {@link Priority}, most urgent first, then in log order.
+ * <p>
+ * Files a payload refers to can be kept in {@link #getAttachmentDirectory()}, which lives next to the log; a
+ * handler's release callback deletes them once the outbox no longer holds the entry.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "communication.outbox", name = "enabled", havingValue = "true")
+public class CommunicationOutbox implements SmartLifecycle {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Registration<?, ?>> handlers = new ConcurrentHashMap<>();
+    private final OutboxLog outboxLog;
+    private final Path attachmentDirectory;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService redeliveries;
+    /** Deliveries waiting out a backoff, failed by {@link #stop()} if it discards their scheduled retry. */
+    private final Set<Delivery<?>> backingOff = ConcurrentHashMap.newKeySet();
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private volatile boolean running;
+
+    public CommunicationOutbox(OutboxProperties properties) {
+        try {
+            this.outboxLog = new OutboxLog(Path.of(properties.getDirectory()),
+                    Math.toIntExact(properties.getSegmentSize().toBytes()),
+                    properties.getGroupCommitInterval().toNanos());
+            this.attachmentDirectory = Files.createDirectories(Path.of(properties.getDirectory(), "attachments"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open communication outbox in " + properties.getDirectory(), e);
+        }
+        this.workers = new ThreadPoolExecutor(properties.getWorkerThreads(), properties.getWorkerThreads(), 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), new CustomizableThreadFactory("comm-outbox-"));
+        CustomizableThreadFactory retryThreads = new CustomizableThreadFactory("comm-outbox-retry-");
+        retryThreads.setDaemon(true);
+        this.redeliveries = Executors.newSingleThreadScheduledExecutor(retryThreads);
+        this.maxAttempts = Math.max(1, properties.getMaxAttempts());
+        this.initialBackoffMillis = properties.getInitialBackoff().toMillis();
+        this.maxBackoffMillis = properties.getMaxBackoff().toMillis();
+    }
+
+    /**
+     * Registers the delivery for a channel. Must happen before startup replay, i.e. during bean initialization.
+     */
+    public <T, R> void registerHandler(String channel, Class<T> payloadType, OutboxHandler<T, R> handler) {
+        registerHandler(channel, payloadType, handler, result -> false);
+    }
+
+    /**
+     * @param retryableResult whether a result the handler completed with is a transient failure
+     */
+    public <T, R> void registerHandler(String channel, Class<T> payloadType, OutboxHandler<T, R> handler,
+                                       Predicate<R> retryableResult) {
+        registerHandler(channel, payloadType, handler, retryableResult, payload -> { });
+    }
+
+    /**
+     * @param released called once the outbox no longer holds a payload: after its entry is acknowledged, or when
+     *                 {@link #submit} could not persist it. Not called for entries left for replay.
+     */
+    public <T, R> void registerHandler(String channel, Class<T> payloadType, OutboxHandler<T, R> handler,
+                                       Predicate<R> retryableResult, Consumer<T> released) {
+        handlers.put(channel, new Registration<>(payloadType, handler, retryableResult, released));
+    }
+
+    /**
+     * A directory on the outbox's volume for files that must outlive a restart until their entry is delivered.
+     */
+    public Path getAttachmentDirectory() {
+        return attachmentDirectory;
+    }
+
+    /**
+     * Durably enqueues {@code payload} for {@code channel} as {@link Priority#TRANSACTIONAL}.
+     *
+     * @return a future completed with the handler's result once the entry has been delivered
+     */
+    public <R> CompletableFuture<R> submit(String channel, Object payload) {
+        return submit(channel, payload, null);
+    }
+
+    /**
+     * Durably enqueues {@code payload} for {@code channel}.
+     *
+     * @param priority the delivery's class; {@code null} means {@link Priority#TRANSACTIONAL}
+     * @return a future completed with the handler's result once the entry has been delivered
+     */
+    public <R> CompletableFuture<R> submit(String channel, Object payload, Priority priority) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        byte[] data;
+        try {
+            data = objectMapper.writeValueAsBytes(payload);
+        } catch (IOException e) {
+            release(channel, payload);
+            result.completeExceptionally(e);
+            return result;
+        }
+        CompletableFuture<Long> appended;
+        try {
+            appended = outboxLog.append(channel, data);
+        } catch (RuntimeException e) {
+            // Oversized, or the log is already closed
+            release(channel, payload);
+            result.completeExceptionally(e);
+            return result;
+        }
+        appended.whenComplete((sequence, ex) -> {
+            if (ex != null) {
+                release(channel, payload);
+                result.completeExceptionally(ex);
+            } else {
+                dispatch(new Delivery<>(sequence, channel, data, Priority.orDefault(priority), result, 1));
+            }
+        });
+        return result;
+    }
+
+    public int getUnacknowledged() {
+        return outboxLog.getUnacknowledged();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T, R> void deliver(Delivery<R> delivery) {
+        long sequence = delivery.sequence;
+        String channel = delivery.channel;
+        CompletableFuture<R> result = delivery.result;
+        int attempt = delivery.attempt;
+        Registration<T, R> registration = (Registration<T, R>) handlers.get(channel);
+        if (registration == null) {
+            log.warn("No outbox handler for channel {}; entry {} stays queued", channel, sequence);
+            result.completeExceptionally(new IllegalStateException("No outbox handler for channel " + channel));
+            return;
+        }
+        T payload = null;
+        try {
+            payload = objectMapper.readValue(delivery.data, registration.payloadType);
+            T delivered = payload;
+            registration.handler.deliver(payload).whenComplete((value, ex) -> {
+                boolean retryable = ex != null ? isTransient(ex) : registration.retryableResult.test(value);
+                if (!retryable) {
+                    outboxLog.acknowledge(sequence);
+                    registration.release(delivered);
+                } else if (attempt < maxAttempts && redeliver(delivery)) {
+                    return;
+                } else {
+                    log.warn("Outbox entry {} on {} failed {} times; it stays queued and is replayed on restart",
+                            sequence, channel, attempt);
+                }
+                if (ex != null) {
+                    result.completeExceptionally(ex);
+                } else {
+                    result.complete(value);
+                }
+            });
+        } catch (Exception e) {
+            // A delivery that cannot even start would fail the same way on every replay
+            log.error("Outbox delivery of entry {} on {} failed", sequence, channel, e);
+            outboxLog.acknowledge(sequence);
+            if (payload != null) {
+                registration.release(payload);
+            }
+            result.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (OutboxLog.Entry entry : outboxLog.getRecovered()) {
+            dispatch(new Delivery<>(entry.getSequence(), entry.getChannel(), entry.getPayload(),
+                    recoveredPriority(entry.getPayload()), new CompletableFuture<>(), 1));
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        redeliveries.shutdownNow();
+        for (Delivery<?> delivery : backingOff) {
+            if (backingOff.remove(delivery)) {
+                leaveForReplay(delivery, new RejectedExecutionException("Communication outbox stopped"));
+            }
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Outbox workers did not finish in time; pending entries will be replayed on restart");
+            }
+            outboxLog.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Failed to close outbox log: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return {@code false} if the outbox is shutting down, in which case the entry is left for replay
+     */
+    private <R> boolean redeliver(Delivery<R> delivery) {
+        long delay = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(delivery.attempt - 1, 20));
+        backingOff.add(delivery);
+        try {
+            redeliveries.schedule(() -> {
+                if (backingOff.remove(delivery)) {
+                    dispatch(delivery.next());
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            backingOff.remove(delivery);
+            return false;
+        }
+    }
+
+    /**
+     * Hands a delivery to the workers; once they are shut down the entry stays in the log for replay.
+     */
+    private <R> void dispatch(Delivery<R> delivery) {
+        try {
+            workers.execute(delivery);
+        } catch (RejectedExecutionException e) {
+            leaveForReplay(delivery, e);
+        }
+    }
+
+    private void release(String channel, Object payload) {
+        Registration<?, ?> registration = handlers.get(channel);
+        if (registration != null) {
+            registration.releaseIfInstance(payload);
+        }
+    }
+
+    private void leaveForReplay(Delivery<?> delivery, Exception cause) {
+        log.warn("Outbox is stopped; entry {} on {} stays queued and is replayed on restart",
+                delivery.sequence, delivery.channel);
+        delivery.result.completeExceptionally(cause);
+    }
+
+    /**
+     * The log does not record priorities, so a replayed entry's is read back from its payload's {@code priority}.
+     */
+    private Priority recoveredPriority(byte[] payload) {
+        try {
+            String priority = objectMapper.readTree(payload).path("priority").asText(null);
+            return priority != null ? Priority.valueOf(priority) : Priority.TRANSACTIONAL;
+        } catch (IOException | IllegalArgumentException e) {
+            return Priority.TRANSACTIONAL;
+        }
+    }
+
+    private static boolean isTransient(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+            if (e instanceof CircuitOpenException || e instanceof RateLimitExceededException) {
+                return true;
+            }
+        }
+        return RetryClassifier.isRetryable(error);
+    }
+
+    /**
+     * One delivery attempt of a log entry; workers take the most urgent, then the oldest.
+     */
+    @RequiredArgsConstructor
+    private final class Delivery<R> implements Runnable, Comparable<Delivery<?>> {
+        private final long sequence;
+        private final String channel;
+        private final byte[] data;
+        private final Priority priority;
+        private final CompletableFuture<R> result;
+        private final int attempt;
+
+        @Override
+        public void run() {
+            deliver(this);
+        }
+
+        @Override
+        public int compareTo(Delivery<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+
+        private Delivery<R> next() {
+            return new Delivery<>(sequence, channel, data, priority, result, attempt + 1);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Registration<T, R> {
+        private final Class<T> payloadType;
+        private final OutboxHandler<T, R> handler;
+        private final Predicate<R> retryableResult;
+        private final Consumer<T> released;
+
+        private void release(T payload) {
+            try {
+                released.accept(payload);
+            } catch (RuntimeException e) {
+                log.warn("Failed to release outbox payload: {}", e.getMessage());
+            }
+        }
+
+        private void releaseIfInstance(Object payload) {
+            if (payloadType.isInstance(payload)) {
+                release(payloadType.cast(payload));
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.communication.outbox;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Delivers one outbox entry. The entry is acknowledged once the returned stage completes, unless it failed
+ * transiently.
+ */
+@FunctionalInterface
+public interface OutboxHandler<T, R> {
+    CompletionStage<R> deliver(T payload) throws Exception;
+}
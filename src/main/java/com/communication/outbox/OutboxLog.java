@@ -0,0 +1,372 @@
+package com.communication.outbox;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead log of memory-mapped segment files.
+ * <p>
+ * Record layout: {@code length:int, crc32c:int, type:byte, sequence:long} followed, for entries, by
+ * {@code channelLength:short, channel, payload}. The length is written last, so a torn record reads as
+ * the end of the segment. Appends only copy into the mapping; a single flusher thread forces the dirty
+ * range and completes every append that landed in it (group commit). Acknowledgements are appended the
+ * same way but never waited on; a lost ack only means the entry is replayed again.
+ * <p>
+ * Segments are deleted oldest-first once every entry in them is acknowledged, which keeps acks in later
+ * segments valid for as long as the entries they refer to exist.
+ */
+@Slf4j
+public class OutboxLog implements Closeable {
+
+    private static final int HEADER_SIZE = 4 + 4 + 1 + 8;
+    private static final byte ENTRY = 1;
+    private static final byte ACK = 2;
+    private static final String SEGMENT_PREFIX = "outbox-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Entry {
+        private final long sequence;
+        private final String channel;
+        private final byte[] payload;
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long groupCommitNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Map<Long, Segment> owners = new HashMap<>();
+    private final List<Entry> recovered;
+    private final Thread flusher;
+    private List<Pending> pending = new ArrayList<>();
+    private Segment active;
+    private long nextSequence;
+    private long nextSegmentId;
+    private volatile boolean closed;
+
+    public OutboxLog(Path directory, int segmentSize, long groupCommitNanos) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.groupCommitNanos = groupCommitNanos;
+        Files.createDirectories(directory);
+        this.recovered = recover();
+        this.active = openSegment();
+        this.flusher = new Thread(this::flushLoop, "comm-outbox-flush");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Entries found unacknowledged when the log was opened, in append order.
+     */
+    public List<Entry> getRecovered() {
+        return recovered;
+    }
+
+    /**
+     * @return a future completed with the entry's sequence once it has been forced to disk
+     */
+    public CompletableFuture<Long> append(String channel, byte[] payload) {
+        byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+        int length = HEADER_SIZE + 2 + channelBytes.length + payload.length;
+        if (length > segmentSize) {
+            throw new IllegalArgumentException("Outbox entry of " + length + " bytes exceeds segment size " + segmentSize);
+        }
+        CompletableFuture<Long> durable = new CompletableFuture<>();
+        lock.lock();
+        try {
+            ensureOpen();
+            if (active.remaining() < length) {
+                roll();
+            }
+            long sequence = nextSequence++;
+            write(ENTRY, sequence, channelBytes, payload);
+            active.live++;
+            owners.put(sequence, active);
+            pending.add(new Pending(sequence, durable));
+            flushRequested.signal();
+        } catch (IOException e) {
+            durable.completeExceptionally(e);
+        } finally {
+            lock.unlock();
+        }
+        return durable;
+    }
+
+    public void acknowledge(long sequence) {
+        lock.lock();
+        try {
+            Segment owner = owners.remove(sequence);
+            if (owner == null || closed) {
+                return;
+            }
+            if (active.remaining() < HEADER_SIZE) {
+                roll();
+            }
+            write(ACK, sequence, null, null);
+            owner.live--;
+            reclaim();
+        } catch (IOException e) {
+            log.warn("Failed to record outbox ack for {}; it will be replayed on restart: {}", sequence, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getUnacknowledged() {
+        lock.lock();
+        try {
+            return owners.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushRequested.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            active.buffer.force();
+            active.channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ----------------------------
+    // Writing
+    // ----------------------------
+
+    private void write(byte type, long sequence, byte[] channel, byte[] payload) {
+        MappedByteBuffer buffer = active.buffer;
+        int start = active.position;
+        int length = HEADER_SIZE + (channel != null ? 2 + channel.length + payload.length : 0);
+        buffer.position(start + 8);
+        buffer.put(type).putLong(sequence);
+        if (channel != null) {
+            buffer.putShort((short) channel.length).put(channel).put(payload);
+        }
+        buffer.putInt(start + 4, checksum(buffer, start, length));
+        buffer.putInt(start, length);
+        active.position = start + length;
+    }
+
+    private void roll() throws IOException {
+        Segment previous = active;
+        previous.buffer.force();
+        previous.flushedPosition = previous.position;
+        previous.channel.close();
+        active = openSegment();
+        reclaim();
+    }
+
+    private Segment openSegment() throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSegmentId++, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Segment segment = new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private void reclaim() {
+        Segment head;
+        while ((head = segments.peekFirst()) != null && head != active && head.live == 0) {
+            segments.pollFirst();
+            try {
+                Files.deleteIfExists(head.path);
+            } catch (IOException e) {
+                log.warn("Failed to delete outbox segment {}: {}", head.path, e.getMessage());
+            }
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Outbox log is closed");
+        }
+    }
+
+    // ----------------------------
+    // Group commit
+    // ----------------------------
+
+    private void flushLoop() {
+        while (true) {
+            lock.lock();
+            try {
+                while (pending.isEmpty() && !closed) {
+                    flushRequested.awaitUninterruptibly();
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (groupCommitNanos > 0 && !closed) {
+                LockSupport.parkNanos(groupCommitNanos);
+            }
+
+            List<Pending> batch;
+            Segment segment;
+            int from;
+            int to;
+            lock.lock();
+            try {
+                batch = pending;
+                pending = new ArrayList<>();
+                segment = active;
+                from = segment.flushedPosition;
+                to = segment.position;
+                segment.flushedPosition = to;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                if (to > from) {
+                    segment.buffer.force(from, to - from);
+                }
+                batch.forEach(p -> p.durable.complete(p.sequence));
+            } catch (RuntimeException e) {
+                log.error("Outbox group commit of {} entries failed", batch.size(), e);
+                batch.forEach(p -> p.durable.completeExceptionally(e));
+            }
+        }
+    }
+
+    // ----------------------------
+    // Recovery
+    // ----------------------------
+
+    private List<Entry> recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().toList();
+        }
+
+        Map<Long, Entry> unacked = new LinkedHashMap<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long segmentId = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            nextSegmentId = Math.max(nextSegmentId, segmentId + 1);
+            Segment segment = new Segment(file, null, null);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                scan(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), segment, unacked);
+            }
+            segments.addLast(segment);
+        }
+        reclaim();
+        if (!unacked.isEmpty()) {
+            log.info("Recovered {} unacknowledged outbox entries from {}", unacked.size(), directory);
+        }
+        return List.copyOf(unacked.values());
+    }
+
+    private void scan(ByteBuffer buffer, Segment segment, Map<Long, Entry> unacked) {
+        int position = 0;
+        while (position + HEADER_SIZE <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            if (length < HEADER_SIZE || position + length > buffer.limit()) {
+                break;
+            }
+            if (buffer.getInt(position + 4) != checksum(buffer, position, length)) {
+                log.warn("Outbox segment {} has a torn record at offset {}; ignoring the rest", segment.path, position);
+                break;
+            }
+            byte type = buffer.get(position + 8);
+            long sequence = buffer.getLong(position + 9);
+            nextSequence = Math.max(nextSequence, sequence + 1);
+            if (type == ENTRY) {
+                int channelLength = buffer.getShort(position + HEADER_SIZE);
+                byte[] channel = new byte[channelLength];
+                byte[] payload = new byte[length - HEADER_SIZE - 2 - channelLength];
+                buffer.get(position + HEADER_SIZE + 2, channel);
+                buffer.get(position + HEADER_SIZE + 2 + channelLength, payload);
+                unacked.put(sequence, new Entry(sequence, new String(channel, StandardCharsets.UTF_8), payload));
+                owners.put(sequence, segment);
+                segment.live++;
+            } else if (type == ACK && unacked.remove(sequence) != null) {
+                owners.remove(sequence).live--;
+            }
+            position += length;
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer, int start, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().limit(start + length).position(start + 8));
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private int flushedPosition;
+        private int live;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private int remaining() {
+            return buffer.capacity() - position;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Pending {
+        private final long sequence;
+        private final CompletableFuture<Long> durable;
+    }
+}
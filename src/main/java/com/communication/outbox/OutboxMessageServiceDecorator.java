@@ -0,0 +1,66 @@
+package com.communication.outbox;
+
+import com.communication.model.SmsRequest;
+import com.communication.model.SmsResponse;
+import com.communication.service.MessageService;
+import com.communication.service.support.BulkSends;
+import com.communication.service.support.DelegatingMessageService;
+import com.communication.service.support.MessageServiceDecorator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Routes async and reactive SMS sends through the {@link CommunicationOutbox}. Synchronous sends
+ * go straight to the provider, since their caller is already waiting on the outcome.
+ */
+@Component
+@ConditionalOnProperty(prefix = "communication.outbox", name = "enabled", havingValue = "true")
+public class OutboxMessageServiceDecorator implements MessageServiceDecorator {
+
+    public static final int ORDER = 1000;
+
+    private final CommunicationOutbox outbox;
+
+    public OutboxMessageServiceDecorator(CommunicationOutbox outbox) {
+        this.outbox = outbox;
+    }
+
+    @Override
+    public MessageService decorate(MessageService delegate, String beanName) {
+        String channel = "sms:" + beanName;
+        outbox.registerHandler(channel, SmsRequest.class, delegate::sendMessageAsync,
+                response -> !response.isSuccess() && response.isRetryable());
+        return new DelegatingMessageService(delegate) {
+            @Override
+            public CompletableFuture<SmsResponse> sendMessageAsync(SmsRequest request) {
+                return outbox.submit(channel, request, request.getPriority());
+            }
+
+            @Override
+            public Mono<SmsResponse> sendMessageReactive(SmsRequest request) {
+                return Mono.fromFuture(() -> sendMessageAsync(request));
+            }
+
+            // Every message of a bulk send is journaled, so native batching below the outbox is not used
+            @Override
+            public Flux<SmsResponse> sendMessages(Collection<SmsRequest> requests) {
+                return BulkSends.individually(this, requests, BULK_CONCURRENCY);
+            }
+
+            @Override
+            public boolean isNativeBulk() {
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,28 @@
+package com.communication.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "communication.outbox")
+public class OutboxProperties {
+    private boolean enabled = false;
+    private String directory = "communication-outbox";
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    /**
+     * How long the flusher waits for more appends to join a group commit before forcing to disk.
+     */
+    private Duration groupCommitInterval = Duration.ofMillis(2);
+    private int workerThreads = 2;
+    /**
+     * Deliveries of an entry that keeps failing transiently before it is left for replay on the next startup.
+     */
+    private int maxAttempts = 5;
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = Duration.ofMinutes(1);
+}
@@ -0,0 +1,99 @@
+package com.communication.ratelimit;
+
+import com.communication.model.Priority;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking counting semaphore. {@link #acquire} completes with the action that releases the permit, so
+ * async callers queue without holding a thread. Waiters are served by {@link Priority}, most urgent first,
+ * and in FIFO order within a priority.
+ */
+public final class AsyncPermits {
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final AtomicInteger available;
+    private final Queue<CompletableFuture<Runnable>>[] waiters;
+
+    @SuppressWarnings("unchecked")
+    public AsyncPermits(int permits) {
+        this.available = new AtomicInteger(permits);
+        this.waiters = new Queue[PRIORITIES.length];
+        for (int i = 0; i < waiters.length; i++) {
+            waiters[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * @param priority the waiter's class; {@code null} means {@link Priority#TRANSACTIONAL}
+     */
+    public CompletableFuture<Runnable> acquire(Priority priority) {
+        CompletableFuture<Runnable> permit = new CompletableFuture<>();
+        waiters[Priority.orDefault(priority).ordinal()].add(permit);
+        drain();
+        return permit;
+    }
+
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Queue<CompletableFuture<Runnable>> queue : waiters) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    private void drain() {
+        while (hasWaiters() && tryAcquire()) {
+            CompletableFuture<Runnable> waiter = poll();
+            // A waiter cancelled, or taken by a concurrent drain, in the meantime hands its permit straight back
+            if (waiter == null || !waiter.complete(releaseOnce())) {
+                available.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean hasWaiters() {
+        for (Queue<CompletableFuture<Runnable>> queue : waiters) {
+            if (!queue.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CompletableFuture<Runnable> poll() {
+        for (Queue<CompletableFuture<Runnable>> queue : waiters) {
+            CompletableFuture<Runnable> waiter = queue.poll();
+            if (waiter != null) {
+                return waiter;
+            }
+        }
+        return null;
+    }
+
+    private boolean tryAcquire() {
+        int current;
+        do {
+            current = available.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!available.compareAndSet(current, current - 1));
+        return true;
+    }
+
+    private Runnable releaseOnce() {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                available.incrementAndGet();
+                drain();
+            }
+        };
+    }
+}
@@ -0,0 +1,163 @@
+package com.communication.ratelimit;
+
+import com.communication.configuration.message.RateLimitProperties;
+import com.communication.exception.RateLimitExceededException;
+import com.communication.model.Priority;
+import com.communication.model.SmsRequest;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies a provider's {@link RateLimitProperties}: an account-wide token bucket, one bucket per sender
+ * number and a cap on concurrent in-flight calls. The sender is the provider's configured one, falling back to
+ * {@code SmsRequest.from} for providers without a fixed sender. Urgent sends book tokens ahead in arrival order;
+ * {@link Priority#BULK} sends only take tokens that are free, so a campaign never queues ahead of an OTP.
+ */
+public class ProviderRateLimiter {
+
+    private static final CompletableFuture<Runnable> NO_PERMIT = CompletableFuture.completedFuture(() -> {
+    });
+
+    private final String provider;
+    private final String sender;
+    private final RateLimitProperties properties;
+    private final long maxWaitNanos;
+    private final TokenBucket providerBucket;
+    private final Map<String, TokenBucket> senderBuckets = new ConcurrentHashMap<>();
+    private final AsyncPermits permits;
+
+    public ProviderRateLimiter(String provider, String sender, RateLimitProperties properties) {
+        this.provider = provider;
+        this.sender = sender;
+        this.properties = properties;
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.providerBucket = properties.getMessagesPerSecond() > 0
+                ? new TokenBucket(properties.getMessagesPerSecond(), properties.getBurst())
+                : null;
+        this.permits = properties.getMaxConcurrent() > 0 ? new AsyncPermits(properties.getMaxConcurrent()) : null;
+    }
+
+    /**
+     * Reserves a send slot for {@code request} sent as {@code priority}, emitting the nanoseconds to delay the send
+     * by. A {@link Priority#BULK} send first waits, without holding tokens, until tokens are free and then emits 0.
+     * Errors with {@link RateLimitExceededException} if the wait would exceed {@code max-wait}.
+     */
+    public Mono<Long> reservation(SmsRequest request, Priority priority) {
+        if (Priority.orDefault(priority) != Priority.BULK) {
+            return Mono.fromCallable(() -> reserve(request));
+        }
+        return Mono.defer(() -> reserveWhenFree(request, System.nanoTime() + maxWaitNanos));
+    }
+
+    /**
+     * Reserves a send slot for {@code request}, booking tokens ahead if none are free.
+     *
+     * @return nanoseconds to delay the send by
+     * @throws RateLimitExceededException if the delay would exceed {@code max-wait}, in which case nothing is reserved
+     */
+    public long reserve(SmsRequest request) {
+        long wait = 0;
+        TokenBucket senderBucket = senderBucket(request);
+        if (senderBucket != null) {
+            wait = take(senderBucket, "sender " + sender(request));
+        }
+        if (providerBucket != null) {
+            try {
+                wait = Math.max(wait, take(providerBucket, "account"));
+            } catch (RateLimitExceededException e) {
+                if (senderBucket != null) {
+                    senderBucket.cancel();
+                }
+                throw e;
+            }
+        }
+        return wait;
+    }
+
+    /**
+     * Reserves a send slot only if tokens are free now.
+     *
+     * @return 0 if the slot was reserved, otherwise nanoseconds after which to try again; nothing is reserved then
+     */
+    long tryReserveNow(SmsRequest request) {
+        TokenBucket senderBucket = senderBucket(request);
+        if (senderBucket != null && senderBucket.reserve(0) < 0) {
+            return Math.max(1, senderBucket.nanosUntilAvailable());
+        }
+        if (providerBucket != null && providerBucket.reserve(0) < 0) {
+            if (senderBucket != null) {
+                senderBucket.cancel();
+            }
+            return Math.max(1, providerBucket.nanosUntilAvailable());
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the tokens {@link #reserve} took for a send that will not happen.
+     */
+    public void cancel(SmsRequest request) {
+        TokenBucket senderBucket = senderBucket(request);
+        if (senderBucket != null) {
+            senderBucket.cancel();
+        }
+        if (providerBucket != null) {
+            providerBucket.cancel();
+        }
+    }
+
+    /**
+     * @return a future completed with the permit's release action once a concurrent slot is free; waiters are
+     * served most urgent {@code priority} first
+     */
+    public CompletableFuture<Runnable> acquirePermit(Priority priority) {
+        return permits != null ? permits.acquire(priority) : NO_PERMIT;
+    }
+
+    public int getQueueDepth() {
+        return permits != null ? permits.getQueueDepth() : 0;
+    }
+
+    private TokenBucket senderBucket(SmsRequest request) {
+        if (properties.getPerSenderMessagesPerSecond() <= 0) {
+            return null;
+        }
+        return senderBuckets.computeIfAbsent(sender(request), s ->
+                new TokenBucket(properties.getPerSenderMessagesPerSecond(), properties.getPerSenderBurst()));
+    }
+
+    private String sender(SmsRequest request) {
+        if (sender != null) {
+            return sender;
+        }
+        return request.getFrom() != null ? request.getFrom() : "";
+    }
+
+    private Mono<Long> reserveWhenFree(SmsRequest request, long deadline) {
+        long retryIn = tryReserveNow(request);
+        if (retryIn == 0) {
+            return Mono.just(0L);
+        }
+        if (System.nanoTime() + retryIn > deadline) {
+            return Mono.error(exceeded("bulk"));
+        }
+        return Mono.delay(Duration.ofNanos(retryIn)).then(Mono.defer(() -> reserveWhenFree(request, deadline)));
+    }
+
+    private long take(TokenBucket bucket, String scope) {
+        long wait = bucket.reserve(maxWaitNanos);
+        if (wait < 0) {
+            throw exceeded(scope);
+        }
+        return wait;
+    }
+
+    private RateLimitExceededException exceeded(String scope) {
+        return new RateLimitExceededException(provider + " " + scope + " rate limit would delay this send beyond "
+                + properties.getMaxWait());
+    }
+}
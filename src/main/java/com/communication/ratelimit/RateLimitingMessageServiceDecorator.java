@@ -0,0 +1,172 @@
+package com.communication.ratelimit;
+
+import com.communication.configuration.message.ProviderConfig;
+import com.communication.configuration.message.RateLimitProperties;
+import com.communication.exception.RateLimitExceededException;
+import com.communication.model.Priority;
+import com.communication.model.SmsRequest;
+import com.communication.model.SmsResponse;
+import com.communication.service.MessageService;
+import com.communication.service.support.BulkSends;
+import com.communication.service.support.DelegatingMessageService;
+import com.communication.service.support.MessageServiceDecorator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Smooths sends to each provider's configured rate: over-limit sends are delayed (sync callers sleep,
+ * async and reactive callers are scheduled later) and concurrent calls are capped. Both respect
+ * {@link Priority}, so bulk sends wait behind more urgent ones.
+ */
+@Component
+public class RateLimitingMessageServiceDecorator implements MessageServiceDecorator {
+
+    public static final int ORDER = 100;
+
+    private static final int MAX_BULK_CHUNK_SIZE = 100;
+
+    private final Map<String, ProviderConfig> configs;
+
+    public RateLimitingMessageServiceDecorator(List<ProviderConfig> configs) {
+        // A config class can be registered twice (as @Configuration and via @EnableConfigurationProperties); both bind the same properties
+        this.configs = configs.stream().collect(Collectors.toMap(ProviderConfig::getProvider, Function.identity(), (first, second) -> first));
+    }
+
+    @Override
+    public MessageService decorate(MessageService delegate, String beanName) {
+        ProviderConfig config = configs.get(delegate.getProvider());
+        if (config == null || !config.getRateLimit().isEnabled()) {
+            return delegate;
+        }
+        return new RateLimitedMessageService(delegate,
+                new ProviderRateLimiter(delegate.getProvider(), config.getSender(), config.getRateLimit()),
+                bulkChunkSize(config.getRateLimit()));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Requests per paced chunk of a native bulk send: at most about one second of the tightest rate, so a
+     * chunk's delay stays well inside {@code max-wait}.
+     */
+    static int bulkChunkSize(RateLimitProperties rateLimit) {
+        double rate = Double.MAX_VALUE;
+        if (rateLimit.getMessagesPerSecond() > 0) {
+            rate = rateLimit.getMessagesPerSecond();
+        }
+        if (rateLimit.getPerSenderMessagesPerSecond() > 0) {
+            rate = Math.min(rate, rateLimit.getPerSenderMessagesPerSecond());
+        }
+        return (int) Math.max(1, Math.min(MAX_BULK_CHUNK_SIZE, rate));
+    }
+
+    static class RateLimitedMessageService extends DelegatingMessageService {
+
+        private final ProviderRateLimiter limiter;
+        private final int bulkChunkSize;
+
+        RateLimitedMessageService(MessageService delegate, ProviderRateLimiter limiter, int bulkChunkSize) {
+            super(delegate);
+            this.limiter = limiter;
+            this.bulkChunkSize = bulkChunkSize;
+        }
+
+        @Override
+        public SmsResponse sendMessage(SmsRequest request) {
+            long wait = limiter.reservation(request, request.getPriority()).block();
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for " + delegate.getProvider() + " rate limit", e);
+                }
+            }
+            Runnable release = limiter.acquirePermit(request.getPriority()).join();
+            try {
+                return delegate.sendMessage(request);
+            } finally {
+                release.run();
+            }
+        }
+
+        @Override
+        public CompletableFuture<SmsResponse> sendMessageAsync(SmsRequest request) {
+            return limiter.reservation(request, request.getPriority()).toFuture()
+                    .thenCompose(wait -> wait > 0
+                            ? CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS))
+                            : CompletableFuture.completedFuture(null))
+                    .thenCompose(ignored -> limiter.acquirePermit(request.getPriority()))
+                    .thenCompose(release -> {
+                        try {
+                            return delegate.sendMessageAsync(request).whenComplete((response, ex) -> release.run());
+                        } catch (RuntimeException e) {
+                            release.run();
+                            throw e;
+                        }
+                    });
+        }
+
+        @Override
+        public Mono<SmsResponse> sendMessageReactive(SmsRequest request) {
+            Mono<SmsResponse> send = Mono.usingWhen(
+                    Mono.fromFuture(() -> limiter.acquirePermit(request.getPriority())),
+                    release -> delegate.sendMessageReactive(request),
+                    release -> Mono.fromRunnable(release));
+            return limiter.reservation(request, request.getPriority())
+                    .flatMap(wait -> wait > 0 ? Mono.delay(Duration.ofNanos(wait)).then(send) : send);
+        }
+
+        /**
+         * Native bulk sends are paced in chunks: tokens for a whole chunk are reserved before it is handed on,
+         * and each chunk in flight holds one concurrency permit. A chunk that would wait beyond {@code max-wait}
+         * is answered with failed responses.
+         */
+        @Override
+        public Flux<SmsResponse> sendMessages(Collection<SmsRequest> requests) {
+            if (!delegate.isNativeBulk()) {
+                return super.sendMessages(requests);
+            }
+            // concatMap reserves one chunk at a time, after the previous chunk's delay has elapsed
+            return Flux.fromIterable(requests)
+                    .buffer(bulkChunkSize)
+                    .concatMap(this::pace)
+                    .flatMapSequential(Function.identity(), BULK_CONCURRENCY);
+        }
+
+        private Mono<Flux<SmsResponse>> pace(List<SmsRequest> chunk) {
+            Priority priority = BulkSends.priority(chunk);
+            return Mono.defer(() -> {
+                int[] reserved = {0};
+                return Flux.fromIterable(chunk)
+                        .concatMap(request -> limiter.reservation(request, priority).doOnNext(wait -> reserved[0]++))
+                        .reduce(0L, Math::max)
+                        .flatMap(wait -> {
+                            Flux<SmsResponse> send = Flux.usingWhen(
+                                    Mono.fromFuture(() -> limiter.acquirePermit(priority)),
+                                    release -> delegate.sendMessages(chunk),
+                                    release -> Mono.fromRunnable(release));
+                            return wait > 0 ? Mono.delay(Duration.ofNanos(wait)).thenReturn(send) : Mono.just(send);
+                        })
+                        .onErrorResume(RateLimitExceededException.class, e -> {
+                            // The chunk is not sent, so the tokens already taken for it are given back
+                            chunk.subList(0, reserved[0]).forEach(limiter::cancel);
+                            return Mono.just(Flux.fromIterable(BulkSends.failures(delegate.getProvider(), chunk, e)));
+                        });
+            });
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.communication.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as a generic cell rate algorithm: the only state is the
+ * theoretical arrival time of the next token, advanced with a single CAS per reservation.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double tokensPerSecond, int burst) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.toleranceNanos = (Math.max(1, burst) - 1) * intervalNanos;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Reserves one token.
+     *
+     * @return nanoseconds the caller must wait before using the token, or -1 if that would exceed
+     * {@code maxWaitNanos}, in which case nothing is reserved
+     */
+    public long reserve(long maxWaitNanos) {
+        long now = System.nanoTime();
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long wait = Math.max(0, arrival - toleranceNanos - now);
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, Math.max(arrival, now) + intervalNanos)) {
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * @return nanoseconds until {@link #reserve} would grant a token without waiting
+     */
+    public long nanosUntilAvailable() {
+        return Math.max(0, theoreticalArrival.get() - toleranceNanos - System.nanoTime());
+    }
+
+    /**
+     * Returns a token reserved by {@link #reserve} that will not be used.
+     */
+    public void cancel() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+}
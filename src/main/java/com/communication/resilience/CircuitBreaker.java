@@ -0,0 +1,83 @@
+package com.communication.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consecutive-failure circuit breaker. State lives in three atomics, so the closed-state fast path is a
+ * single volatile read and nothing is allocated per call.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final int CLOSED = 0;
+    private static final int OPEN = 1;
+    private static final int HALF_OPEN = 2;
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final AtomicInteger state = new AtomicInteger(CLOSED);
+    private final AtomicInteger failures = new AtomicInteger();
+    /** When the circuit opened, or when the current probe was let through. */
+    private final AtomicLong openedAt = new AtomicLong();
+
+    public CircuitBreaker(String name, int failureThreshold, long openNanos) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * @return whether a call may proceed; after the open period exactly one caller gets through as a probe. A probe
+     * that reports nothing for another open period is given up on and the next caller probes instead.
+     */
+    public boolean tryAcquire() {
+        if (state.get() == CLOSED) {
+            return true;
+        }
+        long since = openedAt.get();
+        long now = System.nanoTime();
+        if (now - since < openNanos || !openedAt.compareAndSet(since, now)) {
+            return false;
+        }
+        state.compareAndSet(OPEN, HALF_OPEN);
+        return true;
+    }
+
+    /**
+     * Records a call the provider answered, including non-retryable rejections.
+     */
+    public void onSuccess() {
+        failures.set(0);
+        if (state.get() != CLOSED) {
+            state.set(CLOSED);
+        }
+    }
+
+    public void onFailure() {
+        if (state.get() == HALF_OPEN || failures.incrementAndGet() >= failureThreshold) {
+            openedAt.set(System.nanoTime());
+            state.set(OPEN);
+            failures.set(0);
+        }
+    }
+
+    /**
+     * Records a call that ended without an outcome, e.g. cancelled: a probe's slot goes to the next caller.
+     */
+    public void release() {
+        if (state.compareAndSet(HALF_OPEN, OPEN)) {
+            openedAt.set(System.nanoTime() - openNanos);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return State.values()[state.get()];
+    }
+}
@@ -0,0 +1,199 @@
+package com.communication.resilience;
+
+import com.communication.exception.CircuitOpenException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker plus retry with decorrelated-jitter backoff, keyed by provider name.
+ * A call that fails with a retryable error (see {@link RetryClassifier}), or returns a result matching
+ * {@code retryableResult}, is retried up to {@code max-attempts}; every such failure counts against the
+ * circuit. While the circuit is open calls fail immediately with {@link CircuitOpenException}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "communication.resilience", name = "enabled", havingValue = "true")
+public class Resilience {
+
+    private final ResilienceProperties properties;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public Resilience(ResilienceProperties properties) {
+        this.properties = properties;
+    }
+
+    public CircuitBreaker circuitBreaker(String name) {
+        return breakers.computeIfAbsent(name, key -> new CircuitBreaker(key, properties.getFailureThreshold(),
+                properties.getOpenDuration().toNanos()));
+    }
+
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return Map.copyOf(breakers);
+    }
+
+    public int getMaxAttempts() {
+        return Math.max(1, properties.getMaxAttempts());
+    }
+
+    /**
+     * Next sleep for decorrelated jitter: uniform in {@code [initial, previous * 3]}, capped at {@code max-backoff}.
+     * Pass 0 for the first retry.
+     */
+    public long nextBackoffNanos(long previousNanos) {
+        long base = properties.getInitialBackoff().toNanos();
+        long cap = properties.getMaxBackoff().toNanos();
+        long upper = Math.min(cap, Math.max(base, previousNanos) * 3);
+        return upper <= base ? base : ThreadLocalRandom.current().nextLong(base, upper + 1);
+    }
+
+    public <T> T execute(String name, Supplier<T> action, Predicate<T> retryableResult) {
+        CircuitBreaker breaker = circuitBreaker(name);
+        long backoff = 0;
+        for (int attempt = 1; ; attempt++) {
+            if (!breaker.tryAcquire()) {
+                throw open(breaker);
+            }
+            boolean last = attempt >= getMaxAttempts();
+            try {
+                T result = action.get();
+                if (!retryableResult.test(result)) {
+                    breaker.onSuccess();
+                    return result;
+                }
+                breaker.onFailure();
+                if (last) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (!RetryClassifier.isRetryable(e)) {
+                    breaker.onSuccess();
+                    throw e;
+                }
+                breaker.onFailure();
+                if (last) {
+                    throw e;
+                }
+            } catch (Throwable e) {
+                // An Error says nothing about the provider, but must not keep a probe's slot
+                breaker.release();
+                throw e;
+            }
+            backoff = nextBackoffNanos(backoff);
+            log.warn("{} send failed, retrying in {} ms (attempt {}/{})", name, TimeUnit.NANOSECONDS.toMillis(backoff),
+                    attempt + 1, getMaxAttempts());
+            try {
+                TimeUnit.NANOSECONDS.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while backing off " + name + " retry", e);
+            }
+        }
+    }
+
+    public void run(String name, Runnable action) {
+        execute(name, () -> {
+            action.run();
+            return null;
+        }, result -> false);
+    }
+
+    public <T> CompletableFuture<T> executeAsync(String name, Supplier<CompletableFuture<T>> action, Predicate<T> retryableResult) {
+        return attemptAsync(circuitBreaker(name), action, retryableResult, 1, 0);
+    }
+
+    private <T> CompletableFuture<T> attemptAsync(CircuitBreaker breaker, Supplier<CompletableFuture<T>> action,
+                                                  Predicate<T> retryableResult, int attempt, long previousBackoff) {
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(open(breaker));
+        }
+        CompletableFuture<T> call;
+        try {
+            call = action.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.handle((result, ex) -> {
+            Throwable error = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (error instanceof CancellationException) {
+                breaker.release();
+                return CompletableFuture.<T>failedFuture(error);
+            }
+            boolean retryable = error != null ? RetryClassifier.isRetryable(error) : retryableResult.test(result);
+            if (retryable) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+            if (!retryable || attempt >= getMaxAttempts()) {
+                return error == null ? CompletableFuture.completedFuture(result) : CompletableFuture.<T>failedFuture(error);
+            }
+            long backoff = nextBackoffNanos(previousBackoff);
+            log.warn("{} send failed, retrying in {} ms (attempt {}/{})", breaker.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(backoff), attempt + 1, getMaxAttempts());
+            return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(backoff, TimeUnit.NANOSECONDS))
+                    .thenCompose(ignored -> attemptAsync(breaker, action, retryableResult, attempt + 1, backoff));
+        }).thenCompose(next -> next);
+    }
+
+    public <T> Mono<T> executeReactive(String name, Supplier<Mono<T>> action, Predicate<T> retryableResult) {
+        return Mono.defer(() -> attemptReactive(circuitBreaker(name), action, retryableResult, 1, 0));
+    }
+
+    private <T> Mono<T> attemptReactive(CircuitBreaker breaker, Supplier<Mono<T>> action, Predicate<T> retryableResult,
+                                        int attempt, long previousBackoff) {
+        if (!breaker.tryAcquire()) {
+            return Mono.error(open(breaker));
+        }
+        return action.get()
+                .doOnCancel(breaker::release)
+                .<Object>map(result -> result)
+                .onErrorResume(e -> Mono.just(new Failure(e)))
+                .flatMap(outcome -> {
+                    Throwable error = outcome instanceof Failure failure ? failure.error : null;
+                    @SuppressWarnings("unchecked")
+                    T result = error == null ? (T) outcome : null;
+                    boolean retryable = error != null ? RetryClassifier.isRetryable(error) : retryableResult.test(result);
+                    if (retryable) {
+                        breaker.onFailure();
+                    } else {
+                        breaker.onSuccess();
+                    }
+                    if (!retryable || attempt >= getMaxAttempts()) {
+                        return error == null ? Mono.just(result) : Mono.<T>error(error);
+                    }
+                    long backoff = nextBackoffNanos(previousBackoff);
+                    log.warn("{} send failed, retrying in {} ms (attempt {}/{})", breaker.getName(),
+                            TimeUnit.NANOSECONDS.toMillis(backoff), attempt + 1, getMaxAttempts());
+                    return Mono.delay(Duration.ofNanos(backoff))
+                            .then(Mono.defer(() -> attemptReactive(breaker, action, retryableResult, attempt + 1, backoff)));
+                });
+    }
+
+    private static CircuitOpenException open(CircuitBreaker breaker) {
+        return new CircuitOpenException("Circuit for " + breaker.getName() + " is open");
+    }
+
+    /**
+     * Carries an error through {@code flatMap} so a later attempt's error is not re-handled by this one.
+     */
+    private static final class Failure {
+        private final Throwable error;
+
+        private Failure(Throwable error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.communication.resilience;
+
+import com.communication.model.SmsRequest;
+import com.communication.model.SmsResponse;
+import com.communication.service.MessageService;
+import com.communication.service.support.BulkSends;
+import com.communication.service.support.DelegatingMessageService;
+import com.communication.service.support.MessageServiceDecorator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * Retries and circuit-breaks every provider send. Sits outside the rate limiter, so each retry takes a new token.
+ */
+@Component
+@ConditionalOnProperty(prefix = "communication.resilience", name = "enabled", havingValue = "true")
+public class ResilienceMessageServiceDecorator implements MessageServiceDecorator {
+
+    public static final int ORDER = 200;
+
+    private static final Predicate<SmsResponse> RETRYABLE_RESPONSE = response -> !response.isSuccess() && response.isRetryable();
+
+    private final Resilience resilience;
+
+    public ResilienceMessageServiceDecorator(Resilience resilience) {
+        this.resilience = resilience;
+    }
+
+    @Override
+    public MessageService decorate(MessageService delegate, String beanName) {
+        return new ResilientMessageService(delegate, resilience);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    static class ResilientMessageService extends DelegatingMessageService {
+
+        private final Resilience resilience;
+
+        ResilientMessageService(MessageService delegate, Resilience resilience) {
+            super(delegate);
+            this.resilience = resilience;
+        }
+
+        @Override
+        public SmsResponse sendMessage(SmsRequest request) {
+            return resilience.execute(delegate.getProvider(), () -> delegate.sendMessage(request), RETRYABLE_RESPONSE);
+        }
+
+        @Override
+        public CompletableFuture<SmsResponse> sendMessageAsync(SmsRequest request) {
+            return resilience.executeAsync(delegate.getProvider(), () -> delegate.sendMessageAsync(request), RETRYABLE_RESPONSE);
+        }
+
+        @Override
+        public Mono<SmsResponse> sendMessageReactive(SmsRequest request) {
+            return resilience.executeReactive(delegate.getProvider(), () -> delegate.sendMessageReactive(request), RETRYABLE_RESPONSE);
+        }
+
+        /**
+         * A native bulk send goes out as a whole while the circuit is closed. Every per-message result counts
+         * against the circuit like a single send would, and retryable failures are then retried one message at a
+         * time. Otherwise each message is sent (and circuit-checked) individually.
+         */
+        @Override
+        public Flux<SmsResponse> sendMessages(Collection<SmsRequest> requests) {
+            CircuitBreaker breaker = resilience.circuitBreaker(delegate.getProvider());
+            if (!delegate.isNativeBulk() || breaker.getState() != CircuitBreaker.State.CLOSED) {
+                return BulkSends.individually(this, requests, BULK_CONCURRENCY);
+            }
+            return Flux.fromIterable(requests)
+                    .zipWith(delegate.sendMessages(requests))
+                    .flatMapSequential(sent -> {
+                        if (!RETRYABLE_RESPONSE.test(sent.getT2())) {
+                            breaker.onSuccess();
+                            return Mono.just(sent.getT2());
+                        }
+                        breaker.onFailure();
+                        return sendMessageReactive(sent.getT1())
+                                .onErrorResume(e -> Mono.just(BulkSends.failure(delegate.getProvider(), sent.getT1(), e)));
+                    }, BULK_CONCURRENCY);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.communication.resilience;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "communication.resilience")
+public class ResilienceProperties {
+    private boolean enabled = false;
+    /**
+     * Total attempts per send, including the first.
+     */
+    private int maxAttempts = 3;
+    private Duration initialBackoff = Duration.ofMillis(100);
+    private Duration maxBackoff = Duration.ofSeconds(5);
+    /**
+     * Consecutive retryable failures that open a provider's circuit.
+     */
+    private int failureThreshold = 5;
+    /**
+     * How long an open circuit fails fast before a single probe is let through.
+     */
+    private Duration openDuration = Duration.ofSeconds(30);
+}
@@ -0,0 +1,72 @@
+package com.communication.resilience;
+
+import com.communication.exception.CircuitOpenException;
+import com.communication.exception.FileUploadSizeException;
+import com.communication.exception.RateLimitExceededException;
+import com.twilio.exception.ApiConnectionException;
+import com.twilio.exception.ApiException;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import software.amazon.awssdk.core.exception.SdkException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decides whether a failed send is worth retrying: connection problems, timeouts, throttling, 5xx
+ * responses and transient (4xx) SMTP replies are; rejected input, authentication errors and local limits are not.
+ */
+public final class RetryClassifier {
+
+    private RetryClassifier() {
+    }
+
+    public static boolean isRetryable(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+            if (e instanceof CircuitOpenException || e instanceof RateLimitExceededException
+                    || e instanceof FileUploadSizeException || e instanceof MailAuthenticationException
+                    || e instanceof MailParseException || e instanceof MailPreparationException) {
+                return false;
+            }
+            if (e instanceof MailSendException mail && mail.getMessageExceptions().length > 0) {
+                // JavaMailSender reports per-message failures in a map rather than as the cause
+                for (Exception failure : mail.getMessageExceptions()) {
+                    if (failure != mail && isRetryable(failure)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (e instanceof WebClientResponseException response) {
+                return isRetryableStatus(response.getStatusCode().value());
+            }
+            if (e instanceof ApiException api) {
+                return api.getStatusCode() != null && isRetryableStatus(api.getStatusCode());
+            }
+            if (e instanceof SMTPSendFailedException smtp) {
+                return smtp.getReturnCode() / 100 == 4;
+            }
+            if (e instanceof SMTPAddressFailedException smtp) {
+                return smtp.getReturnCode() / 100 == 4;
+            }
+            if (e instanceof SdkException sdk) {
+                return sdk.retryable();
+            }
+            if (e instanceof IOException || e instanceof TimeoutException || e instanceof ApiConnectionException
+                    || e instanceof WebClientRequestException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isRetryableStatus(int status) {
+        return status == 408 || status == 429 || status >= 500;
+    }
+}
@@ -0,0 +1,65 @@
+package com.communication.routing;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exponentially weighted latency and error rate of one provider. Updates are CAS loops on the raw
+ * double bits, so routing decisions read the current score without locking. Only successful calls
+ * feed the latency, so a provider that fails fast does not look fast.
+ */
+public final class ProviderHealth {
+
+    private final double smoothing;
+    private final double errorPenaltyMicros;
+    private final AtomicLong latencyMicros = new AtomicLong(Double.doubleToRawLongBits(0));
+    private final AtomicLong errorRate = new AtomicLong(Double.doubleToRawLongBits(0));
+
+    public ProviderHealth(double smoothing, Duration errorPenalty) {
+        this.smoothing = smoothing;
+        this.errorPenaltyMicros = errorPenalty.toNanos() / 1_000.0;
+    }
+
+    public void record(long elapsedNanos, boolean success) {
+        if (success) {
+            update(latencyMicros, elapsedNanos / 1_000.0);
+        }
+        update(errorRate, success ? 0 : 1);
+    }
+
+    /**
+     * Records a result whose own latency is unknown, such as one message of a native bulk call; only the error
+     * rate moves.
+     */
+    public void recordOutcome(boolean success) {
+        update(errorRate, success ? 0 : 1);
+    }
+
+    public double getLatencyMicros() {
+        return Double.longBitsToDouble(latencyMicros.get());
+    }
+
+    public double getErrorRate() {
+        return Double.longBitsToDouble(errorRate.get());
+    }
+
+    /**
+     * Lower is better: latency in microseconds plus the error rate times {@code error-penalty}, so errors outweigh
+     * any realistic latency difference. A provider that has never been called scores 0, so it is tried early.
+     */
+    public double score() {
+        return getLatencyMicros() + errorPenaltyMicros * getErrorRate();
+    }
+
+    private void update(AtomicLong average, double sample) {
+        long current;
+        long next;
+        do {
+            current = average.get();
+            double value = Double.longBitsToDouble(current);
+            // Seed with the first sample instead of decaying up from zero
+            double updated = value == 0 && average == latencyMicros ? sample : value + smoothing * (sample - value);
+            next = Double.doubleToRawLongBits(updated);
+        } while (!average.compareAndSet(current, next));
+    }
+}
@@ -0,0 +1,243 @@
+package com.communication.routing;
+
+import com.communication.exception.CircuitOpenException;
+import com.communication.exception.RateLimitExceededException;
+import com.communication.model.SmsRequest;
+import com.communication.model.SmsResponse;
+import com.communication.resilience.RetryClassifier;
+import com.communication.service.MessageService;
+import com.communication.service.support.BulkSends;
+import com.communication.service.support.CompositeMessageService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sends each SMS through the healthiest, fastest enabled provider and fails over to the next one
+ * within the same call when a provider fails transiently (see {@link RetryClassifier} and
+ * {@link SmsResponse#isRetryable()}), its circuit is open or its rate limit is hit. A permanent rejection
+ * (an invalid number, say) is returned as it is and counts as an answer, not an error, in the provider's health.
+ */
+@Slf4j
+@Primary
+@Service
+@ConditionalOnProperty(prefix = "communication.routing", name = "enabled", havingValue = "true")
+public class RoutingMessageService implements CompositeMessageService {
+
+    private final ObjectProvider<MessageService> services;
+    private final RoutingProperties properties;
+    private volatile Route[] routes;
+
+    public RoutingMessageService(ObjectProvider<MessageService> services, RoutingProperties properties) {
+        this.services = services;
+        this.properties = properties;
+    }
+
+    @Override
+    public String getProvider() {
+        return "routing";
+    }
+
+    @Override
+    public SmsResponse sendMessage(SmsRequest request) {
+        Route[] order = order();
+        SmsResponse lastResponse = null;
+        RuntimeException lastError = null;
+        for (Route route : order) {
+            long start = System.nanoTime();
+            try {
+                SmsResponse response = route.service.sendMessage(request);
+                if (!failsOver(route, System.nanoTime() - start, response, null)) {
+                    return response;
+                }
+                lastResponse = response;
+                lastError = null;
+            } catch (RuntimeException e) {
+                if (!failsOver(route, System.nanoTime() - start, null, e)) {
+                    throw e;
+                }
+                lastError = e;
+            }
+            log.warn("SMS via {} failed, failing over", route.provider);
+        }
+        if (lastError != null) {
+            throw lastError;
+        }
+        return lastResponse;
+    }
+
+    @Override
+    public CompletableFuture<SmsResponse> sendMessageAsync(SmsRequest request) {
+        return routeAsync(request, order(), 0);
+    }
+
+    @Override
+    public Mono<SmsResponse> sendMessageReactive(SmsRequest request) {
+        return Mono.defer(() -> routeReactive(request, order(), 0));
+    }
+
+    /**
+     * A bulk send goes to the best-scoring provider as a whole when it batches natively, and each transiently failed
+     * message then fails over on its own. Each bulk result moves that provider's error rate, but not its latency,
+     * since a batch call's duration says nothing about a single send. Otherwise every message is routed individually.
+     */
+    @Override
+    public Flux<SmsResponse> sendMessages(Collection<SmsRequest> requests) {
+        return Flux.defer(() -> {
+            Route[] order = order();
+            if (!order[0].service.isNativeBulk()) {
+                return CompositeMessageService.super.sendMessages(requests);
+            }
+            return Flux.fromIterable(requests)
+                    .zipWith(order[0].service.sendMessages(requests))
+                    .flatMapSequential(sent -> {
+                        SmsResponse response = sent.getT2();
+                        boolean failover = !response.isSuccess() && response.isRetryable();
+                        order[0].health.recordOutcome(!failover);
+                        if (!failover || order.length == 1) {
+                            return Mono.just(response);
+                        }
+                        log.warn("SMS via {} failed, failing over", order[0].provider);
+                        return routeReactive(sent.getT1(), order, 1)
+                                .onErrorResume(e -> Mono.just(BulkSends.failure(getProvider(), sent.getT1(), e)));
+                    }, BULK_CONCURRENCY);
+        });
+    }
+
+    public List<RouteStats> getStats() {
+        return Arrays.stream(routes()).map(route -> new RouteStats(route.provider,
+                route.health.getLatencyMicros(), route.health.getErrorRate())).toList();
+    }
+
+    private CompletableFuture<SmsResponse> routeAsync(SmsRequest request, Route[] order, int attempt) {
+        Route route = order[attempt];
+        boolean last = attempt + 1 >= order.length;
+        long start = System.nanoTime();
+        CompletableFuture<SmsResponse> call;
+        try {
+            call = route.service.sendMessageAsync(request);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.handle((response, ex) -> {
+            Throwable error = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (!failsOver(route, System.nanoTime() - start, response, error) || last) {
+                return error == null ? CompletableFuture.completedFuture(response) : CompletableFuture.<SmsResponse>failedFuture(error);
+            }
+            log.warn("SMS via {} failed, failing over", route.provider);
+            return routeAsync(request, order, attempt + 1);
+        }).thenCompose(next -> next);
+    }
+
+    private Mono<SmsResponse> routeReactive(SmsRequest request, Route[] order, int attempt) {
+        Route route = order[attempt];
+        boolean last = attempt + 1 >= order.length;
+        long start = System.nanoTime();
+        return route.service.sendMessageReactive(request)
+                .<Object>map(response -> response)
+                .onErrorResume(e -> Mono.just(e))
+                .flatMap(outcome -> {
+                    boolean failover = outcome instanceof Throwable e
+                            ? failsOver(route, System.nanoTime() - start, null, e)
+                            : failsOver(route, System.nanoTime() - start, (SmsResponse) outcome, null);
+                    if (!failover || last) {
+                        return outcome instanceof Throwable e ? Mono.<SmsResponse>error(e) : Mono.just((SmsResponse) outcome);
+                    }
+                    log.warn("SMS via {} failed, failing over", route.provider);
+                    return routeReactive(request, order, attempt + 1);
+                });
+    }
+
+    /**
+     * Records a provider's answer ({@code response}) or {@code error} in its health.
+     *
+     * @return whether the send should move on to the next provider
+     */
+    private static boolean failsOver(Route route, long elapsedNanos, SmsResponse response, Throwable error) {
+        if (error == null) {
+            boolean failover = !response.isSuccess() && response.isRetryable();
+            route.health.record(elapsedNanos, !failover);
+            return failover;
+        }
+        for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+            if (e instanceof RateLimitExceededException) {
+                // Nothing reached the provider, so its health is unchanged
+                return true;
+            }
+            if (e instanceof CircuitOpenException) {
+                route.health.recordOutcome(false);
+                return true;
+            }
+        }
+        boolean failover = RetryClassifier.isRetryable(error);
+        route.health.record(elapsedNanos, !failover);
+        return failover;
+    }
+
+    /**
+     * Providers by ascending score; occasionally a random provider goes first so stale scores get refreshed.
+     */
+    private Route[] order() {
+        Route[] order = routes().clone();
+        Arrays.sort(order, Comparator.comparingDouble(route -> route.health.score()));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (order.length > 1 && random.nextDouble() < properties.getExplorationRate()) {
+            int pick = random.nextInt(order.length);
+            Route explored = order[pick];
+            System.arraycopy(order, 0, order, 1, pick);
+            order[0] = explored;
+        }
+        return order;
+    }
+
+    private Route[] routes() {
+        Route[] result = routes;
+        if (result == null) {
+            result = services.orderedStream()
+                    .filter(service -> !(service instanceof CompositeMessageService))
+                    .filter(service -> properties.getProviders().isEmpty() || properties.getProviders().contains(service.getProvider()))
+                    .map(service -> new Route(service.getProvider(), service,
+                            new ProviderHealth(properties.getSmoothing(), properties.getErrorPenalty())))
+                    .toArray(Route[]::new);
+            if (result.length == 0) {
+                throw new IllegalStateException("communication.routing.enabled=true but no SMS provider is enabled");
+            }
+            routes = result;
+        }
+        return result;
+    }
+
+    private static final class Route {
+        private final String provider;
+        private final MessageService service;
+        private final ProviderHealth health;
+
+        private Route(String provider, MessageService service, ProviderHealth health) {
+            this.provider = provider;
+            this.service = service;
+            this.health = health;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RouteStats {
+        private final String provider;
+        private final double latencyMicros;
+        private final double errorRate;
+    }
+}
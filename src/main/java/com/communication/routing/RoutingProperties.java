@@ -0,0 +1,35 @@
+package com.communication.routing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationUnit;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "communication.routing")
+public class RoutingProperties {
+    private boolean enabled = false;
+    /**
+     * Providers to route across, by {@code MessageService.getProvider()}. Empty means every enabled provider.
+     */
+    private List<String> providers = new ArrayList<>();
+    /**
+     * Weight of the newest sample in the latency and error-rate moving averages.
+     */
+    private double smoothing = 0.2;
+    /**
+     * Latency added to a provider's score at a 100% error rate, pro rata below that. Plain numbers are seconds.
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration errorPenalty = Duration.ofSeconds(10);
+    /**
+     * Share of sends that try a random provider first, so a recovered provider gets traffic again.
+     */
+    private double explorationRate = 0.02;
+}
@@ -1,9 +1,13 @@
 package com.communication.service;
 
+import com.communication.model.EmailRequest;
+import com.communication.model.EmailResponse;
+import com.communication.model.PreparedEmail;
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public interface EmailService {
@@ -20,6 +24,47 @@ public interface EmailService {
 
     CompletableFuture<Void> sendEmailAsync(String to, String subject, String body, String from, String title, List<Resource> attachments);
 
+    CompletableFuture<Void> sendEmailAsync(EmailRequest request);
+
     void sendEmailWithMultipartFiles(String to, String subject, String body, String from, String title, List<MultipartFile> multipartFiles);
+
+    /**
+     * Sends many emails over a small number of SMTP sessions, chunked by {@code messaging.mail.batch-size}.
+     * Failures are reported per message in the returned list (same order as {@code requests}) instead of failing the batch.
+     */
+    List<EmailResponse> sendEmailBatch(List<EmailRequest> requests);
+
+    /**
+     * Builds the body and attachments once, already transfer-encoded, for fan-out to many recipients.
+     */
+    PreparedEmail prepareEmail(String subject, String body, String from, String title, List<Resource> attachments);
+
+    /**
+     * Sends a prepared email to each recipient, reusing its encoded parts. Batched like {@link #sendEmailBatch}.
+     */
+    List<EmailResponse> sendPreparedEmail(PreparedEmail email, List<String> recipients);
+
+    /**
+     * Sends a prepared email to many recipients as one message per domain, so the content is transferred once for
+     * up to {@code messaging.mail.max-recipients-per-envelope} envelope ({@code RCPT TO}) recipients. Grouped
+     * messages show {@code visibleTo} as their {@code To} header ({@code undisclosed-recipients:;} when
+     * {@code null}); a recipient alone at its domain gets a message addressed to them. One outcome per recipient,
+     * in the order of {@code recipients}.
+     */
+    List<EmailResponse> sendPreparedEmailBulk(PreparedEmail email, List<String> recipients, String visibleTo);
+
+    /**
+     * Renders the named template (see {@code messaging.mail.template.*}) with {@code variables} and sends it.
+     */
+    void sendTemplatedEmail(String to, String subject, String templateName, Map<String, ?> variables, String from,
+                            String title, List<Resource> attachments);
+
+    /**
+     * Sends one rendering of the template per recipient, keyed by address. The template is compiled and the
+     * attachments encoded once; each body is rendered into a reused buffer. Batched like {@link #sendEmailBatch}.
+     */
+    List<EmailResponse> sendTemplatedEmailBatch(String subject, String templateName,
+                                                Map<String, ? extends Map<String, ?>> variablesByRecipient,
+                                                String from, String title, List<Resource> attachments);
 }
 
@@ -2,12 +2,60 @@ package com.communication.service;
 
 import com.communication.model.SmsRequest;
 import com.communication.model.SmsResponse;
+import com.communication.service.support.BulkSends;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 
 public interface MessageService {
+
+    /**
+     * Default number of sends (or native batch calls) {@link #sendMessages} keeps in flight.
+     */
+    int BULK_CONCURRENCY = 64;
+
+    /**
+     * Short provider key, matching its configuration prefix (e.g. {@code twilio}, {@code sns}).
+     */
+    default String getProvider() {
+        return getClass().getSimpleName();
+    }
+
     SmsResponse sendMessage(SmsRequest request);
 
     CompletableFuture<SmsResponse> sendMessageAsync(SmsRequest request);
-}
 
+    /**
+     * Non-blocking send. Providers without a reactive client adapt {@link #sendMessageAsync}.
+     */
+    default Mono<SmsResponse> sendMessageReactive(SmsRequest request) {
+        return Mono.fromFuture(() -> sendMessageAsync(request));
+    }
+
+    /**
+     * Bulk send. Emits exactly one response per request, in request order, as results arrive; every response has
+     * {@code to} set and a failed send is emitted as {@code success=false} instead of ending the stream.
+     * Providers with a multi-recipient API batch natively (see {@link #isNativeBulk()}); the default pipelines
+     * {@link #sendMessageReactive} with at most {@link #BULK_CONCURRENCY} sends in flight.
+     */
+    default Flux<SmsResponse> sendMessages(Collection<SmsRequest> requests) {
+        return BulkSends.individually(this, requests, BULK_CONCURRENCY);
+    }
+
+    /**
+     * Whether {@link #sendMessages} uses a native multi-recipient call. Decorators hand a bulk send to such a
+     * service as a whole; for any other service they send it message by message through their own layer.
+     */
+    default boolean isNativeBulk() {
+        return false;
+    }
+
+    /**
+     * Builds the provider's client ahead of the first send and, where the provider supports it, opens a connection.
+     * Called in the background when {@code communication.warm-up.enabled} is set; a no-op by default.
+     */
+    default void warmUp() {
+    }
+}
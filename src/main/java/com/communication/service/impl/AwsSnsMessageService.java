@@ -1,52 +1,207 @@
 package com.communication.service.impl;
 
+import com.communication.configuration.executor.MonitoredExecutors;
+import com.communication.model.Priority;
 import com.communication.model.SmsRequest;
 import com.communication.model.SmsResponse;
+import com.communication.ratelimit.AsyncPermits;
+import com.communication.resilience.RetryClassifier;
 import com.communication.service.MessageService;
+import com.communication.service.support.LazyClient;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
+import software.amazon.awssdk.services.sns.model.PublishBatchResultEntry;
 import software.amazon.awssdk.services.sns.model.PublishRequest;
 import software.amazon.awssdk.services.sns.model.PublishResponse;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Slf4j
 @Service
 @ConditionalOnProperty(prefix = "messaging.sns", name = "enabled", havingValue = "true")
 public class AwsSnsMessageService implements MessageService {
 
-    private final SnsClient snsClient;
+    /**
+     * SNS accepts at most 10 entries per PublishBatch call.
+     */
+    static final int MAX_BATCH_SIZE = 10;
 
-    public AwsSnsMessageService(SnsClient snsClient) {
-        this.snsClient = snsClient;
+    private final LazyClient<SnsClient> snsClient;
+    private final LazyClient<SnsAsyncClient> snsAsyncClient;
+    private final Executor executor;
+
+    /**
+     * One permit per request the async client may have in flight ({@code max-concurrency}), handed out most urgent
+     * {@link Priority} first, so sends never wait in the client's own FIFO acquire queue.
+     */
+    private final AsyncPermits asyncPermits;
+
+    public AwsSnsMessageService(ObjectProvider<SnsClient> snsClient, ObjectProvider<SnsAsyncClient> snsAsyncClient,
+                                @Qualifier("snsTaskExecutor") Executor executor,
+                                @Value("${messaging.sns.max-concurrency:200}") int maxConcurrency) {
+        this.snsClient = new LazyClient<>("sns", snsClient::getObject);
+        this.snsAsyncClient = new LazyClient<>("sns async", snsAsyncClient::getIfAvailable);
+        this.executor = executor;
+        this.asyncPermits = new AsyncPermits(maxConcurrency);
+    }
+
+    @Override
+    public String getProvider() {
+        return "sns";
     }
 
     @Override
     public SmsResponse sendMessage(SmsRequest request) {
         try {
-            PublishRequest publishRequest = PublishRequest.builder()
-                    .message(request.getMessage())
-                    .phoneNumber(request.getTo())
-                    .build();
-
-            PublishResponse result = snsClient.publish(publishRequest);
-
-            return SmsResponse.builder()
-                    .success(true)
-                    .provider("AWS_SNS")
-                    .messageId(result.messageId())
-                    .build();
+            PublishResponse result = snsClient.get().publish(toPublishRequest(request));
+            return success(result.messageId());
 
         } catch (Exception e) {
             log.error("AWS SNS send failed: {}", e.getMessage(), e);
-            throw new RuntimeException("AWS SNS send failed: " + e.getMessage());
+            throw new RuntimeException("AWS SNS send failed: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public void warmUp() {
+        snsClient.get();
+        snsAsyncClient.get();
+    }
+
     @Override
     public CompletableFuture<SmsResponse> sendMessageAsync(SmsRequest request) {
-        return CompletableFuture.supplyAsync(() -> sendMessage(request));
+        SnsAsyncClient asyncClient = snsAsyncClient.get();
+        if (asyncClient == null) {
+            return CompletableFuture.supplyAsync(() -> sendMessage(request), MonitoredExecutors.lane(executor, request.getPriority()));
+        }
+        return asyncPermits.acquire(request.getPriority())
+                .thenCompose(release -> asyncClient.publish(toPublishRequest(request)).whenComplete((result, ex) -> release.run()))
+                .handle((result, ex) -> {
+                    if (ex != null) {
+                        Throwable cause = unwrap(ex);
+                        log.error("AWS SNS send failed: {}", cause.getMessage(), cause);
+                        throw new RuntimeException("AWS SNS send failed: " + cause.getMessage(), cause);
+                    }
+                    return success(result.messageId());
+                });
+    }
+
+    /**
+     * Publishes {@code messages} to a topic through PublishBatch, 10 per call. Responses are in the order of
+     * {@code messages}; entries SNS rejected come back with {@code success=false}.
+     */
+    public List<SmsResponse> publishToTopic(String topicArn, List<String> messages) {
+        List<SmsResponse> responses = new ArrayList<>(messages.size());
+        for (int from = 0; from < messages.size(); from += MAX_BATCH_SIZE) {
+            List<String> chunk = messages.subList(from, Math.min(from + MAX_BATCH_SIZE, messages.size()));
+            try {
+                responses.addAll(toResponses(chunk.size(), snsClient.get().publishBatch(toBatchRequest(topicArn, chunk))));
+            } catch (Exception e) {
+                log.error("AWS SNS batch publish failed: {}", e.getMessage(), e);
+                chunk.forEach(message -> responses.add(failure(e.getMessage(), RetryClassifier.isRetryable(e))));
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Asynchronous {@link #publishToTopic}; all PublishBatch calls are issued concurrently.
+     */
+    public CompletableFuture<List<SmsResponse>> publishToTopicAsync(String topicArn, List<String> messages) {
+        SnsAsyncClient asyncClient = snsAsyncClient.get();
+        if (asyncClient == null) {
+            return CompletableFuture.supplyAsync(() -> publishToTopic(topicArn, messages),
+                    MonitoredExecutors.lane(executor, Priority.BULK));
+        }
+        List<CompletableFuture<List<SmsResponse>>> batches = new ArrayList<>();
+        for (int from = 0; from < messages.size(); from += MAX_BATCH_SIZE) {
+            List<String> chunk = messages.subList(from, Math.min(from + MAX_BATCH_SIZE, messages.size()));
+            batches.add(asyncPermits.acquire(Priority.BULK)
+                    .thenCompose(release -> asyncClient.publishBatch(toBatchRequest(topicArn, chunk))
+                            .whenComplete((result, ex) -> release.run()))
+                    .handle((result, ex) -> {
+                        if (ex == null) {
+                            return toResponses(chunk.size(), result);
+                        }
+                        Throwable cause = unwrap(ex);
+                        log.error("AWS SNS batch publish failed: {}", cause.getMessage(), cause);
+                        return chunk.stream().map(message -> failure(cause.getMessage(), RetryClassifier.isRetryable(cause))).toList();
+                    }));
+        }
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    List<SmsResponse> responses = new ArrayList<>(messages.size());
+                    batches.forEach(batch -> responses.addAll(batch.join()));
+                    return responses;
+                });
+    }
+
+    private PublishRequest toPublishRequest(SmsRequest request) {
+        return PublishRequest.builder()
+                .message(request.getMessage())
+                .phoneNumber(request.getTo())
+                .build();
+    }
+
+    private PublishBatchRequest toBatchRequest(String topicArn, List<String> chunk) {
+        List<PublishBatchRequestEntry> entries = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            entries.add(PublishBatchRequestEntry.builder()
+                    .id(Integer.toString(i))
+                    .message(chunk.get(i))
+                    .build());
+        }
+        return PublishBatchRequest.builder()
+                .topicArn(topicArn)
+                .publishBatchRequestEntries(entries)
+                .build();
+    }
+
+    private List<SmsResponse> toResponses(int size, PublishBatchResponse result) {
+        SmsResponse[] responses = new SmsResponse[size];
+        for (PublishBatchResultEntry entry : result.successful()) {
+            responses[Integer.parseInt(entry.id())] = success(entry.messageId());
+        }
+        for (BatchResultErrorEntry entry : result.failed()) {
+            responses[Integer.parseInt(entry.id())] = failure(entry.code() + ": " + entry.message(),
+                    !Boolean.TRUE.equals(entry.senderFault()));
+        }
+        return Arrays.asList(responses);
+    }
+
+    private SmsResponse success(String messageId) {
+        return SmsResponse.builder()
+                .success(true)
+                .provider("AWS_SNS")
+                .messageId(messageId)
+                .build();
+    }
+
+    private SmsResponse failure(String error, boolean retryable) {
+        return SmsResponse.builder()
+                .success(false)
+                .provider("AWS_SNS")
+                .error(error)
+                .retryable(retryable)
+                .build();
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
     }
-}
\ No newline at end of file
+}
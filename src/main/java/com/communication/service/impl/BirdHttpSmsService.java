@@ -1,23 +1,41 @@
 package com.communication.service.impl;
 
+import com.communication.model.Priority;
 import com.communication.model.SmsRequest;
 import com.communication.model.SmsResponse;
+import com.communication.ratelimit.AsyncPermits;
+import com.communication.resilience.RetryClassifier;
 import com.communication.service.MessageService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.communication.service.support.BulkSends;
+import com.communication.service.support.LazyClient;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 @Slf4j
@@ -26,8 +44,9 @@ import java.util.concurrent.CompletableFuture;
 @RequiredArgsConstructor
 public class BirdHttpSmsService implements MessageService {
 
-    private WebClient webClient;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Duration WARM_UP_TIMEOUT = Duration.ofSeconds(10);
+
+    private final LazyClient<WebClient> webClient = new LazyClient<>("bird", this::createWebClient);
 
     @Value("${messaging.bird.base-url}")
     private String baseUrl;
@@ -41,16 +60,60 @@ public class BirdHttpSmsService implements MessageService {
     @Value("${messaging.bird.channel-id}")
     private String channelId;
 
+    @Value("${messaging.bird.max-connections:500}")
+    private int maxConnections;
+
+    @Value("${messaging.bird.pending-acquire-max-count:10000}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${messaging.bird.max-contacts-per-message:100}")
+    private int maxContactsPerMessage;
+
+    private ConnectionProvider connectionProvider;
+
+    /**
+     * One permit per pooled connection, handed out most urgent {@link Priority} first, so sends never wait in the
+     * pool's own FIFO acquire queue.
+     */
+    private AsyncPermits connectionPermits;
+
+    private HttpClient httpClient;
+
+    private URI messagesUri;
+
     @PostConstruct
     public void init() {
         String key = apiKey != null ? apiKey.trim() : "";
-        webClient = WebClient.builder()
+        messagesUri = UriComponentsBuilder.fromUriString(baseUrl)
+                .path("/workspaces/{workspaceId}/channels/{channelId}/messages")
+                .buildAndExpand(workspaceId, channelId)
+                .encode()
+                .toUri();
+        log.debug("BirdHttpSmsService initialized (keyMask={}, workspace={}, channel={})",
+                maskKey(key), workspaceId, channelId);
+    }
+
+    /**
+     * Builds the Netty connection pool and {@link WebClient} on first send rather than at startup.
+     */
+    private WebClient createWebClient() {
+        connectionProvider = ConnectionProvider.builder("bird-sms")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .build();
+        connectionPermits = new AsyncPermits(maxConnections);
+        httpClient = HttpClient.create(connectionProvider);
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .baseUrl(baseUrl)
-                .defaultHeader(HttpHeaders.AUTHORIZATION, key)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, apiKey != null ? apiKey.trim() : "")
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .build();
-        log.debug("BirdHttpSmsService initialized (keyMask={}, workspace={}, channel={})",
-                maskKey(key), workspaceId, channelId);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        webClient.ifInitialized(client -> connectionProvider.dispose());
     }
 
     private String maskKey(String k) {
@@ -61,79 +124,133 @@ public class BirdHttpSmsService implements MessageService {
     }
 
     @Override
-    public SmsResponse sendMessage(SmsRequest request) {
-        // Build payload same as your curl
-        Map<String, Object> payload = Map.of(
-                "body", Map.of("type", "text", "text", Map.of("text", request.getMessage())),
-                "receiver", Map.of("contacts", List.of(Map.of(
-                        "identifierValue", request.getTo(),
-                        "identifierKey", "phonenumber"
-                )))
-        );
+    public String getProvider() {
+        return "bird";
+    }
 
-        String uri = String.format("/workspaces/%s/channels/%s/messages", workspaceId, channelId);
+    /**
+     * Builds the client, initializes Netty's event loops and resolver, and opens one pooled connection with a
+     * {@code HEAD} request to the base URL (its status is ignored).
+     */
+    @Override
+    public void warmUp() {
+        WebClient client = webClient.get();
+        httpClient.warmup().block(WARM_UP_TIMEOUT);
+        client.head()
+                .uri(URI.create(baseUrl))
+                .exchangeToMono(ClientResponse::releaseBody)
+                .onErrorResume(e -> {
+                    log.debug("Bird warm-up request failed: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .block(WARM_UP_TIMEOUT);
+    }
 
-        try {
-            String respBody = webClient.post()
-                    .uri(uri)
-                    .bodyValue(payload)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            log.debug("Bird API response: {}", respBody);
-
-            // Defensive parse to extract message id if present
-            String messageId = extractMessageId(respBody);
-
-            return SmsResponse.builder()
-                    .success(true)
-                    .provider("BIRD")
-                    .messageId(messageId)
-                    .build();
-
-        } catch (WebClientResponseException e) {
-            log.error("Bird API returned status {} body={}", e.getStatusCode(), e.getResponseBodyAsString());
-            return SmsResponse.builder()
-                    .success(false)
-                    .provider("BIRD")
-                    .error("HTTP " + e.getStatusCode() + ": " + e.getResponseBodyAsString())
-                    .build();
-        } catch (Exception e) {
-            log.error("Unexpected error calling Bird API", e);
-            return SmsResponse.builder()
-                    .success(false)
-                    .provider("BIRD")
-                    .error(e.getMessage())
-                    .build();
-        }
+    @Override
+    public SmsResponse sendMessage(SmsRequest request) {
+        return sendMessageReactive(request).block();
     }
 
     @Override
     public CompletableFuture<SmsResponse> sendMessageAsync(SmsRequest request) {
-        return CompletableFuture.supplyAsync(() -> sendMessage(request));
+        return sendMessageReactive(request).toFuture();
     }
 
-    private String extractMessageId(String respBody) {
-        if (respBody == null || respBody.isBlank()) return null;
-        try {
-            JsonNode root = objectMapper.readTree(respBody);
-
-            // Common possible locations: "id", "messageId", or inside an array/object like "data[0].id"
-            if (root.has("id")) return root.get("id").asText();
-            if (root.has("messageId")) return root.get("messageId").asText();
-            if (root.has("data") && root.get("data").isArray() && root.get("data").size() > 0) {
-                JsonNode first = root.get("data").get(0);
-                if (first.has("id")) return first.get("id").asText();
-                if (first.has("messageId")) return first.get("messageId").asText();
-            }
-            // sometimes Bird returns created resources under "result" or nested; try a shallow search
-            JsonNode idNode = root.findValue("id");
-            if (idNode != null && idNode.isTextual()) return idNode.asText();
+    /**
+     * Native non-blocking send; the sync and async variants adapt this, so no thread waits on the HTTP call.
+     * The body is streamed into a buffer from the connection's pooled allocator and the response is parsed
+     * in place, so no map tree, JSON tree or response String is built per message.
+     */
+    @Override
+    public Mono<SmsResponse> sendMessageReactive(SmsRequest request) {
+        return send(List.of(request));
+    }
 
+    @Override
+    public boolean isNativeBulk() {
+        return true;
+    }
+
+    /**
+     * Consecutive requests with the same text are sent as one Bird message with up to
+     * {@code max-contacts-per-message} receivers; each recipient's response carries that message's id.
+     */
+    @Override
+    public Flux<SmsResponse> sendMessages(Collection<SmsRequest> requests) {
+        return Flux.fromIterable(BulkSends.sameMessageRuns(requests, maxContactsPerMessage))
+                .flatMapSequential(batch -> send(batch).flatMapIterable(response -> BulkSends.perRecipient(response, batch)),
+                        BULK_CONCURRENCY);
+    }
+
+    private Mono<SmsResponse> send(List<SmsRequest> batch) {
+        WebClient client = webClient.get();
+        Priority priority = BulkSends.priority(batch);
+        return Mono.usingWhen(
+                Mono.fromFuture(() -> connectionPermits.acquire(priority)),
+                release -> post(client, batch),
+                release -> Mono.fromRunnable(release));
+    }
+
+    private Mono<SmsResponse> post(WebClient client, List<SmsRequest> batch) {
+        return client.post()
+                .uri(messagesUri)
+                .body((ClientHttpRequest message, BodyInserter.Context context) -> Mono
+                        .fromCallable(() -> BirdPayloadCodec.encode(batch, message.bufferFactory()))
+                        .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                        .flatMap(buffer -> {
+                            message.getHeaders().setContentLength(buffer.readableByteCount());
+                            return message.writeWith(Mono.just(buffer));
+                        }))
+                .retrieve()
+                .bodyToMono(DataBuffer.class)
+                .map(respBody -> {
+                    try {
+                        if (log.isDebugEnabled()) {
+                            log.debug("Bird API response: {}", respBody.toString(StandardCharsets.UTF_8));
+                        }
+                        return success(extractMessageId(respBody));
+                    } finally {
+                        DataBufferUtils.release(respBody);
+                    }
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> success(null)))
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    log.error("Bird API returned status {} body={}", e.getStatusCode(), e.getResponseBodyAsString());
+                    return Mono.just(SmsResponse.builder()
+                            .success(false)
+                            .provider("BIRD")
+                            .error("HTTP " + e.getStatusCode() + ": " + e.getResponseBodyAsString())
+                            .retryable(RetryClassifier.isRetryableStatus(e.getStatusCode().value()))
+                            .build());
+                })
+                .onErrorResume(e -> {
+                    log.error("Unexpected error calling Bird API", e);
+                    return Mono.just(SmsResponse.builder()
+                            .success(false)
+                            .provider("BIRD")
+                            .error(e.getMessage())
+                            .retryable(RetryClassifier.isRetryable(e))
+                            .build());
+                });
+    }
+
+    private SmsResponse success(String messageId) {
+        return SmsResponse.builder()
+                .success(true)
+                .provider("BIRD")
+                .messageId(messageId)
+                .build();
+    }
+
+    /**
+     * Defensive parse: {@code id}, {@code messageId} or {@code data[0].id}, else any nested {@code id}.
+     */
+    private String extractMessageId(DataBuffer respBody) {
+        try {
+            return BirdPayloadCodec.extractMessageId(respBody);
         } catch (Exception ex) {
             log.debug("Failed to parse Bird response for id extraction", ex);
+            return null;
         }
-        return null;
     }
 }
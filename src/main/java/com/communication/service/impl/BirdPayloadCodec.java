@@ -0,0 +1,248 @@
+package com.communication.service.impl;
+
+import com.communication.model.SmsRequest;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Streaming codec for the Bird messages API: writes the request body straight into a (pooled) {@link DataBuffer}
+ * and pulls the message id out of the response without building a tree.
+ */
+final class BirdPayloadCodec {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private static final SerializableString BODY = new SerializedString("body");
+    private static final SerializableString TYPE = new SerializedString("type");
+    private static final SerializableString TEXT = new SerializedString("text");
+    private static final SerializableString RECEIVER = new SerializedString("receiver");
+    private static final SerializableString CONTACTS = new SerializedString("contacts");
+    private static final SerializableString IDENTIFIER_VALUE = new SerializedString("identifierValue");
+    private static final SerializableString IDENTIFIER_KEY = new SerializedString("identifierKey");
+    private static final SerializableString PHONE_NUMBER = new SerializedString("phonenumber");
+
+    /** Size of the body without the message text and recipient. */
+    private static final int ENVELOPE_SIZE = 128;
+    /** Size of one more {@code contacts} entry. */
+    private static final int CONTACT_SIZE = 64;
+
+    // Candidate ranks for extractMessageId, best first; matches the lookup order of the old tree-based parse
+    private static final int ROOT_ID = 0;
+    private static final int ROOT_MESSAGE_ID = 1;
+    private static final int DATA_ID = 2;
+    private static final int DATA_MESSAGE_ID = 3;
+    private static final int NESTED_ID = 4;
+    private static final int NONE = 5;
+
+    private BirdPayloadCodec() {
+    }
+
+    /**
+     * Request body, same shape as the Bird curl example:
+     * {@code {"body":{"type":"text","text":{"text":...}},"receiver":{"contacts":[{"identifierValue":...,"identifierKey":"phonenumber"}]}}}
+     */
+    static DataBuffer encode(SmsRequest request, DataBufferFactory bufferFactory) throws IOException {
+        return encode(List.of(request), bufferFactory);
+    }
+
+    /**
+     * One message to every recipient of {@code batch}, as a {@code contacts} entry each; the text is taken
+     * from the first request.
+     */
+    static DataBuffer encode(List<SmsRequest> batch, DataBufferFactory bufferFactory) throws IOException {
+        String message = batch.get(0).getMessage();
+        int estimate = ENVELOPE_SIZE + (message != null ? message.length() : 0) + (batch.size() - 1) * CONTACT_SIZE;
+        DataBuffer buffer = bufferFactory.allocateBuffer(estimate);
+        boolean release = true;
+        try {
+            try (OutputStream out = buffer.asOutputStream()) {
+                write(batch, out);
+            }
+            release = false;
+            return buffer;
+        } finally {
+            if (release) {
+                DataBufferUtils.release(buffer);
+            }
+        }
+    }
+
+    static void write(List<SmsRequest> batch, OutputStream out) throws IOException {
+        try (JsonGenerator generator = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+
+            generator.writeFieldName(BODY);
+            generator.writeStartObject();
+            generator.writeFieldName(TYPE);
+            generator.writeString(TEXT);
+            generator.writeFieldName(TEXT);
+            generator.writeStartObject();
+            generator.writeFieldName(TEXT);
+            generator.writeString(batch.get(0).getMessage());
+            generator.writeEndObject();
+            generator.writeEndObject();
+
+            generator.writeFieldName(RECEIVER);
+            generator.writeStartObject();
+            generator.writeFieldName(CONTACTS);
+            generator.writeStartArray();
+            for (SmsRequest request : batch) {
+                generator.writeStartObject();
+                generator.writeFieldName(IDENTIFIER_VALUE);
+                generator.writeString(request.getTo());
+                generator.writeFieldName(IDENTIFIER_KEY);
+                generator.writeString(PHONE_NUMBER);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+
+            generator.writeEndObject();
+        }
+    }
+
+    static String extractMessageId(DataBuffer body) throws IOException {
+        if (body.readableByteCount() == 0) return null;
+        try (InputStream in = body.asInputStream()) {
+            return extractMessageId(in);
+        }
+    }
+
+    static String extractMessageId(InputStream body) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            return extractMessageId(parser);
+        }
+    }
+
+    /**
+     * Looks for {@code id}, then {@code messageId} at the root, then either in the first element of {@code data},
+     * then any textual {@code id} below the root. Returns as soon as a root {@code id} is seen (where Bird puts it,
+     * normally the first field); otherwise keeps the best candidate and skips subtrees that cannot beat it.
+     */
+    static String extractMessageId(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+        String best = null;
+        int bestRank = NONE;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isScalarValue()) {
+                if ("id".equals(field)) {
+                    return parser.getText();
+                }
+                if ("messageId".equals(field) && bestRank > ROOT_MESSAGE_ID) {
+                    best = parser.getText();
+                    bestRank = ROOT_MESSAGE_ID;
+                }
+            } else if ("data".equals(field) && value == JsonToken.START_ARRAY && bestRank > DATA_ID) {
+                JsonToken first = parser.nextToken();
+                if (first == JsonToken.START_OBJECT) {
+                    String[] candidate = new String[1];
+                    int rank = scanFirstDataElement(parser, candidate, bestRank);
+                    if (rank < bestRank) {
+                        best = candidate[0];
+                        bestRank = rank;
+                    }
+                } else if (first != null && first.isStructStart()) {
+                    // not an object: data[0] holds no candidates of its own, only nested ids
+                    String nested = findNestedId(parser);
+                    if (nested != null && bestRank > NESTED_ID) {
+                        best = nested;
+                        bestRank = NESTED_ID;
+                    }
+                }
+                if (first != JsonToken.END_ARRAY) {
+                    if (bestRank > NESTED_ID) {
+                        best = findNestedId(parser);
+                        bestRank = best != null ? NESTED_ID : NONE;
+                    } else {
+                        skipRest(parser);
+                    }
+                }
+            } else if (bestRank > NESTED_ID) {
+                String nested = findNestedId(parser);
+                if (nested != null) {
+                    best = nested;
+                    bestRank = NESTED_ID;
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return best;
+    }
+
+    /** Scans {@code data[0]} (parser on its START_OBJECT) and leaves the parser on its END_OBJECT. */
+    private static int scanFirstDataElement(JsonParser parser, String[] candidate, int bestRank) throws IOException {
+        int rank = bestRank;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isScalarValue()) {
+                if ("id".equals(field) && rank > DATA_ID) {
+                    candidate[0] = parser.getText();
+                    rank = DATA_ID;
+                } else if ("messageId".equals(field) && rank > DATA_MESSAGE_ID) {
+                    candidate[0] = parser.getText();
+                    rank = DATA_MESSAGE_ID;
+                }
+            } else if (rank > NESTED_ID) {
+                String nested = findNestedId(parser);
+                if (nested != null) {
+                    candidate[0] = nested;
+                    rank = NESTED_ID;
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * First textual {@code id} in document order inside the container the parser is on (or inside), up to the
+     * container's end token.
+     */
+    private static String findNestedId(JsonParser parser) throws IOException {
+        String found = null;
+        int depth = 1;
+        while (depth > 0) {
+            JsonToken token = parser.nextToken();
+            if (token == null) break;
+            if (token.isStructStart()) {
+                if (found != null) {
+                    parser.skipChildren();
+                } else {
+                    depth++;
+                }
+            } else if (token.isStructEnd()) {
+                depth--;
+            } else if (token == JsonToken.VALUE_STRING && found == null && "id".equals(parser.currentName())) {
+                found = parser.getText();
+            }
+        }
+        return found;
+    }
+
+    /** Skips the remaining elements of the array the parser is inside, leaving it on the END_ARRAY. */
+    private static void skipRest(JsonParser parser) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+        }
+    }
+}
@@ -1,38 +1,147 @@
 package com.communication.service.impl;
 
+import com.communication.configuration.email.MailConfig;
+import com.communication.configuration.executor.MonitoredExecutors;
+import com.communication.exception.CircuitOpenException;
 import com.communication.exception.FileUploadSizeException;
+import com.communication.idempotency.IdempotencyCache;
+import com.communication.metrics.CommunicationMetrics;
+import com.communication.model.EmailRequest;
+import com.communication.model.EmailResponse;
+import com.communication.model.PreparedEmail;
+import com.communication.outbox.CommunicationOutbox;
+import com.communication.resilience.CircuitBreaker;
+import com.communication.resilience.Resilience;
+import com.communication.resilience.RetryClassifier;
 import com.communication.service.EmailService;
+import com.communication.service.support.AttachmentMetadataCache;
+import com.communication.template.TemplateEngine;
+import jakarta.activation.DataHandler;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Part;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.AddressException;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import jakarta.mail.internet.MimeUtility;
+import jakarta.mail.internet.PreencodedMimeBodyPart;
+import jakarta.mail.util.ByteArrayDataSource;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPMessage;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Service
 @Slf4j
 public class EmailServiceImpl implements EmailService {
 
+    private static final String OUTBOX_CHANNEL = "email";
+
+    private static final String CIRCUIT = "email";
+
+    private static final String IDEMPOTENCY_SCOPE = "email";
+
+    private static final String HTML_CONTENT_TYPE = "text/html; charset=UTF-8";
+
+    private static final String UNDISCLOSED_RECIPIENTS = "undisclosed-recipients:;";
+
+    private static final String DEFAULT_ATTACHMENT_NAME = "attachment";
+
     @Value("${spring.servlet.multipart.max-file-size:10MB}")
     private String maxSize;
 
+    /** {@link #maxSize} in bytes, resolved once at startup. */
+    private long maxSizeBytes;
+
     private final JavaMailSender mailSender;
 
-    public EmailServiceImpl(JavaMailSender mailSender) {
+    private final Executor taskExecutor;
+
+    private final CommunicationOutbox outbox;
+
+    private final Resilience resilience;
+
+    private final CommunicationMetrics metrics;
+
+    private final TemplateEngine templateEngine;
+
+    private final IdempotencyCache idempotency;
+
+    private final AttachmentMetadataCache attachmentMetadata;
+
+    private final MailConfig mailConfig;
+
+    public EmailServiceImpl(JavaMailSender mailSender, @Qualifier("communicationTaskExecutor") Executor taskExecutor,
+                            ObjectProvider<CommunicationOutbox> outbox, ObjectProvider<Resilience> resilience,
+                            ObjectProvider<CommunicationMetrics> metrics, ObjectProvider<TemplateEngine> templateEngine,
+                            ObjectProvider<IdempotencyCache> idempotency,
+                            ObjectProvider<AttachmentMetadataCache> attachmentMetadata,
+                            ObjectProvider<MailConfig> mailConfig) {
+        this.mailConfig = mailConfig.getIfAvailable(MailConfig::new);
         this.mailSender = mailSender;
+        this.taskExecutor = taskExecutor;
+        this.outbox = outbox.getIfAvailable();
+        this.resilience = resilience.getIfAvailable();
+        this.metrics = metrics.getIfAvailable(() -> CommunicationMetrics.NOOP);
+        this.templateEngine = templateEngine.getIfAvailable();
+        this.idempotency = idempotency.getIfAvailable();
+        this.attachmentMetadata = attachmentMetadata.getIfAvailable(
+                () -> new AttachmentMetadataCache(this.mailConfig.getAttachmentCache()));
+    }
+
+    @PostConstruct
+    public void init() {
+        maxSizeBytes = DataSize.parse(maxSize).toBytes();
+        if (outbox != null) {
+            outbox.registerHandler(OUTBOX_CHANNEL, EmailRequest.class, request -> CompletableFuture.runAsync(
+                    () -> sendEmail(request.getTo(), request.getSubject(), request.getBody(), request.getFrom(),
+                            request.getTitle(), resolveResources(request.getFiles())),
+                    MonitoredExecutors.lane(taskExecutor, request.getPriority())), result -> false, this::releaseSpooled);
+        }
     }
 
     /**
@@ -42,41 +151,503 @@ public class EmailServiceImpl implements EmailService {
     @Async("communicationTaskExecutor")
     public void sendEmail(String to, String subject, String body, String from, String title,List<Resource> attachments) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            MimeMessage message = createMessage(to, subject, body, from, title, attachments);
+            long start = System.nanoTime();
+            try {
+                if (resilience != null) {
+                    resilience.run(CIRCUIT, () -> mailSender.send(message));
+                } else {
+                    mailSender.send(message);
+                }
+                metrics.recordEmail(System.nanoTime() - start, 1, 0);
+            } catch (RuntimeException e) {
+                metrics.recordEmail(System.nanoTime() - start, 0, 1);
+                throw e;
+            }
+        } catch (FileUploadSizeException | CircuitOpenException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to send email: " + e.getMessage(), e);
+        }
+    }
 
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(body, true); // HTML enabled
+    @Override
+    public List<EmailResponse> sendEmailBatch(List<EmailRequest> requests) {
+        return sendInChunks(requests, EmailRequest::getTo, request -> createMessage(request.getTo(), request.getSubject(),
+                request.getBody(), request.getFrom(), request.getTitle(), resolveResources(request.getFiles())));
+    }
 
-            InternetAddress internetAddress = new InternetAddress(from, title);
-            helper.setFrom(internetAddress);
+    @Override
+    public PreparedEmail prepareEmail(String subject, String body, String from, String title, List<Resource> attachments) {
+        try {
+            List<PreparedEmail.EncodedPart> parts = new ArrayList<>();
+            parts.add(new PreparedEmail.EncodedPart(HTML_CONTENT_TYPE, null, "quoted-printable",
+                    encode(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), "quoted-printable")));
 
-            if (attachments != null && !attachments.isEmpty()) {
-                long maxSizeBytes = org.springframework.util.unit.DataSize.parse(maxSize).toBytes();
+            if (attachments != null) {
                 for (Resource attachment : attachments) {
-                    long size = 0;
-                    try {
-                        size = attachment.contentLength();
-                    } catch (IOException e) {
-                        throw new RuntimeException("Failed to read attachment size", e);
+                    parts.add(encodeAttachment(attachment, attachmentMetadata(attachment)));
+                }
+            }
+            return new PreparedEmail(subject, from != null ? from : mailConfig.getDefaultFrom(), title, List.copyOf(parts));
+        } catch (FileUploadSizeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to prepare email: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<EmailResponse> sendPreparedEmail(PreparedEmail email, List<String> recipients) {
+        return sendInChunks(recipients, to -> to, to -> createPreparedMessage(email, to, null));
+    }
+
+    @Override
+    public List<EmailResponse> sendPreparedEmailBulk(PreparedEmail email, List<String> recipients, String visibleTo) {
+        EmailResponse[] results = new EmailResponse[recipients.size()];
+        InternetAddress[] addresses = new InternetAddress[recipients.size()];
+        Map<String, List<Integer>> byDomain = new LinkedHashMap<>();
+        for (int i = 0; i < recipients.size(); i++) {
+            try {
+                addresses[i] = new InternetAddress(recipients.get(i), true);
+                String address = addresses[i].getAddress();
+                String domain = address.substring(address.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+                byDomain.computeIfAbsent(domain, key -> new ArrayList<>()).add(i);
+            } catch (AddressException e) {
+                results[i] = failure(recipients.get(i), e);
+            }
+        }
+
+        List<List<Integer>> envelopes = new ArrayList<>();
+        int envelopeSize = Math.max(1, mailConfig.getMaxRecipientsPerEnvelope());
+        for (List<Integer> group : byDomain.values()) {
+            for (int start = 0; start < group.size(); start += envelopeSize) {
+                envelopes.add(group.subList(start, Math.min(start + envelopeSize, group.size())));
+            }
+        }
+        int chunkSize = Math.max(1, mailConfig.getBatchSize());
+        for (int start = 0; start < envelopes.size(); start += chunkSize) {
+            sendEnvelopes(email, visibleTo, envelopes.subList(start, Math.min(start + chunkSize, envelopes.size())),
+                    recipients, addresses, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public void sendTemplatedEmail(String to, String subject, String templateName, Map<String, ?> variables, String from,
+                                   String title, List<Resource> attachments) {
+        Map<String, Map<String, ?>> model = new LinkedHashMap<>();
+        model.put(to, variables);
+        EmailResponse response = sendTemplatedEmailBatch(subject, templateName, model, from, title, attachments).get(0);
+        if (!response.isSuccess()) {
+            throw new RuntimeException("Failed to send email: " + response.getError());
+        }
+    }
+
+    @Override
+    public List<EmailResponse> sendTemplatedEmailBatch(String subject, String templateName,
+                                                       Map<String, ? extends Map<String, ?>> variablesByRecipient,
+                                                       String from, String title, List<Resource> attachments) {
+        if (templateEngine == null) {
+            throw new IllegalStateException("Email templates need messaging.mail.enabled=true");
+        }
+        templateEngine.getTemplate(templateName);
+        PreparedEmail shared = prepareEmail(subject, "", from, title, attachments);
+        List<String> recipients = new ArrayList<>(variablesByRecipient.keySet());
+        return sendInChunks(recipients, to -> to,
+                to -> createPreparedMessage(shared, to, renderBody(templateName, variablesByRecipient.get(to))));
+    }
+
+    private PreparedEmail.EncodedPart renderBody(String templateName, Map<String, ?> variables) {
+        byte[] encoded = templateEngine.renderUtf8(templateName, variables, utf8 -> {
+            try {
+                return encode(new ByteArrayInputStream(utf8.array(), utf8.arrayOffset() + utf8.position(), utf8.remaining()),
+                        "quoted-printable");
+            } catch (IOException | MessagingException e) {
+                throw new RuntimeException("Failed to encode email body: " + e.getMessage(), e);
+            }
+        });
+        return new PreparedEmail.EncodedPart(HTML_CONTENT_TYPE, null, "quoted-printable", encoded);
+    }
+
+    @FunctionalInterface
+    private interface MessageFactory<T> {
+        MimeMessage create(T item) throws Exception;
+    }
+
+    private <T> List<EmailResponse> sendInChunks(List<T> items, Function<T, String> recipient, MessageFactory<T> factory) {
+        List<EmailResponse> responses = new ArrayList<>(items.size());
+        int chunkSize = Math.max(1, mailConfig.getBatchSize());
+        for (int start = 0; start < items.size(); start += chunkSize) {
+            responses.addAll(sendChunk(items.subList(start, Math.min(start + chunkSize, items.size())), recipient, factory));
+        }
+        return responses;
+    }
+
+    /**
+     * Sends one chunk through a single {@code mailSender.send(MimeMessage...)} call, i.e. one SMTP session.
+     */
+    private <T> List<EmailResponse> sendChunk(List<T> chunk, Function<T, String> recipient, MessageFactory<T> factory) {
+        EmailResponse[] results = new EmailResponse[chunk.size()];
+        MimeMessage[] built = new MimeMessage[chunk.size()];
+        List<MimeMessage> messages = new ArrayList<>(chunk.size());
+        Map<Object, Integer> positions = new IdentityHashMap<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                MimeMessage message = factory.create(chunk.get(i));
+                built[i] = message;
+                messages.add(message);
+                positions.put(message, i);
+            } catch (Exception e) {
+                results[i] = failure(recipient.apply(chunk.get(i)), e);
+            }
+        }
+
+        List<MimeMessage> pending = messages;
+        long backoff = 0;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            boolean canRetry = resilience != null && attempt < resilience.getMaxAttempts();
+            List<MimeMessage> retry = new ArrayList<>();
+            send(pending).forEach((message, ex) -> {
+                Integer i = positions.get(message);
+                if (i == null) {
+                    return;
+                }
+                if (canRetry && RetryClassifier.isRetryable(ex)) {
+                    retry.add((MimeMessage) message);
+                } else {
+                    results[i] = failure(recipient.apply(chunk.get(i)), ex);
+                }
+            });
+            if (!retry.isEmpty()) {
+                try {
+                    backoff = backOff(backoff, retry.size(), messages.size());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    for (MimeMessage message : retry) {
+                        int i = positions.get(message);
+                        results[i] = failure(recipient.apply(chunk.get(i)), e);
+                    }
+                    break;
+                }
+            }
+            pending = retry;
+        }
+
+        List<EmailResponse> responses = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            responses.add(results[i] != null ? results[i] : success(recipient.apply(chunk.get(i)), built[i]));
+        }
+        return responses;
+    }
+
+    /**
+     * Sends one message per envelope and records an outcome for each of its recipients. Recipients the server
+     * rejected or did not get the message on a retryable failure are retried in a new envelope without the rest.
+     */
+    private void sendEnvelopes(PreparedEmail email, String visibleTo, List<List<Integer>> envelopes, List<String> recipients,
+                               InternetAddress[] addresses, EmailResponse[] results) {
+        List<List<Integer>> pending = envelopes;
+        long backoff = 0;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            boolean canRetry = resilience != null && attempt < resilience.getMaxAttempts();
+            Map<MimeMessage, List<Integer>> messages = new IdentityHashMap<>();
+            for (List<Integer> envelope : pending) {
+                try {
+                    messages.put(createEnvelopeMessage(email, visibleTo, envelope, addresses), envelope);
+                } catch (Exception e) {
+                    envelope.forEach(i -> results[i] = failure(recipients.get(i), e));
+                }
+            }
+
+            Map<Object, Exception> failed = send(new ArrayList<>(messages.keySet()));
+            List<List<Integer>> retry = new ArrayList<>();
+            int retried = 0;
+            for (Map.Entry<MimeMessage, List<Integer>> entry : messages.entrySet()) {
+                Exception error = failed.get(entry.getKey());
+                List<Integer> again = new ArrayList<>();
+                for (int i : entry.getValue()) {
+                    Exception recipientError = error != null ? recipientError(error, addresses[i]) : null;
+                    if (recipientError == null) {
+                        results[i] = success(recipients.get(i), entry.getKey());
+                    } else if (canRetry && RetryClassifier.isRetryable(recipientError)) {
+                        again.add(i);
+                    } else {
+                        results[i] = failure(recipients.get(i), recipientError);
+                    }
+                }
+                if (!again.isEmpty()) {
+                    retry.add(again);
+                    retried += again.size();
+                }
+            }
+            if (!retry.isEmpty()) {
+                try {
+                    backoff = backOff(backoff, retried, recipients.size());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    for (List<Integer> envelope : retry) {
+                        envelope.forEach(i -> results[i] = failure(recipients.get(i), e));
                     }
+                    break;
+                }
+            }
+            pending = retry;
+        }
+    }
 
-                    if (size > maxSizeBytes) {
-                        throw new FileUploadSizeException("File upload size exceeding for "+ attachment.getFilename() + ". Maximum size is "  + maxSizeBytes);
+    /**
+     * The part of a failed send that concerns {@code recipient}: {@code null} if the server accepted the message
+     * for them despite rejecting others, their own rejection if it has one, otherwise the message's error.
+     */
+    private static Exception recipientError(Exception error, InternetAddress recipient) {
+        for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+            if (e instanceof SendFailedException sent && (sent.getValidSentAddresses() != null
+                    || sent.getInvalidAddresses() != null || sent.getValidUnsentAddresses() != null)) {
+                if (contains(sent.getValidSentAddresses(), recipient)) {
+                    return null;
+                }
+                for (Exception next = sent.getNextException(); next != null;
+                     next = next instanceof MessagingException m ? m.getNextException() : null) {
+                    if (next instanceof SMTPAddressFailedException rejected && recipient.equals(rejected.getAddress())) {
+                        return rejected;
                     }
-                    helper.addAttachment(attachment.getFilename(), attachment);
                 }
+                return sent;
             }
+        }
+        return error;
+    }
 
-            mailSender.send(message);
+    private static boolean contains(Address[] addresses, InternetAddress recipient) {
+        if (addresses != null) {
+            for (Address address : addresses) {
+                if (recipient.equals(address)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 
-        } catch (FileUploadSizeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to send email: " + e.getMessage(), e);
+    /**
+     * Sleeps for the next retry backoff.
+     *
+     * @return the backoff slept, to pass to the next call
+     */
+    private long backOff(long previous, int retries, int total) throws InterruptedException {
+        long backoff = resilience.nextBackoffNanos(previous);
+        log.warn("Retrying {} of {} emails in {} ms", retries, total, TimeUnit.NANOSECONDS.toMillis(backoff));
+        TimeUnit.NANOSECONDS.sleep(backoff);
+        return backoff;
+    }
+
+    /**
+     * Sends {@code messages} in one SMTP session, behind the email circuit breaker when resilience is enabled.
+     *
+     * @return the messages that failed, mapped to their error
+     */
+    private Map<Object, Exception> send(List<MimeMessage> messages) {
+        CircuitBreaker breaker = resilience != null ? resilience.circuitBreaker(CIRCUIT) : null;
+        Map<Object, Exception> failed = new IdentityHashMap<>();
+        if (breaker != null && !breaker.tryAcquire()) {
+            CircuitOpenException open = new CircuitOpenException("Circuit for " + CIRCUIT + " is open");
+            messages.forEach(message -> failed.put(message, open));
+            return failed;
+        }
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failed.putAll(e.getFailedMessages());
+        } catch (MailException e) {
+            log.error("Email batch of {} failed: {}", messages.size(), e.getMessage());
+            messages.forEach(message -> failed.put(message, e));
         }
+        metrics.recordEmail(System.nanoTime() - start, messages.size() - failed.size(), failed.size());
+        if (breaker != null) {
+            if (failed.values().stream().anyMatch(RetryClassifier::isRetryable)) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+        return failed;
+    }
+
+    private MimeMessage createMessage(String to, String subject, String body, String from, String title, List<Resource> attachments) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(body, true); // HTML enabled
+
+        InternetAddress internetAddress = new InternetAddress(from != null ? from : mailConfig.getDefaultFrom(), title);
+        helper.setFrom(internetAddress);
+
+        if (attachments != null) {
+            for (Resource attachment : attachments) {
+                AttachmentMetadataCache.Metadata metadata = attachmentMetadata(attachment);
+                if (metadata != null) {
+                    // Streamed into the message as it is written
+                    helper.addAttachment(attachmentName(attachment), attachment, metadata.contentType());
+                } else {
+                    helper.getRootMimeMultipart().addBodyPart(toBodyPart(encodeAttachment(attachment, null)));
+                }
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Only the recipient and envelope headers are new per message; the encoded parts are shared.
+     *
+     * @param body replaces the prepared body part (always the first part) when not {@code null}
+     */
+    private MimeMessage createPreparedMessage(PreparedEmail email, String to, PreparedEmail.EncodedPart body) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(to));
+        setPreparedContent(message, email, body);
+        return message;
+    }
+
+    /**
+     * A message whose recipients are given by the envelope rather than by its headers.
+     */
+    private MimeMessage createEnvelopeMessage(PreparedEmail email, String visibleTo, List<Integer> envelope,
+                                              InternetAddress[] addresses) throws Exception {
+        InternetAddress[] recipients = new InternetAddress[envelope.size()];
+        for (int i = 0; i < recipients.length; i++) {
+            recipients[i] = addresses[envelope.get(i)];
+        }
+        Session session = mailSender instanceof JavaMailSenderImpl impl ? impl.getSession()
+                : Session.getInstance(new Properties());
+        MimeMessage message = new EnvelopeMimeMessage(session, recipients);
+        if (recipients.length == 1) {
+            message.setRecipients(Message.RecipientType.TO, recipients);
+        } else {
+            message.setHeader("To", visibleTo != null ? visibleTo : UNDISCLOSED_RECIPIENTS);
+        }
+        setPreparedContent(message, email, null);
+        return message;
+    }
+
+    private void setPreparedContent(MimeMessage message, PreparedEmail email, PreparedEmail.EncodedPart body) throws Exception {
+        message.setFrom(new InternetAddress(email.getFrom(), email.getTitle(), "UTF-8"));
+        message.setSubject(email.getSubject(), "UTF-8");
+
+        MimeMultipart multipart = new MimeMultipart("mixed");
+        for (int i = 0; i < email.getParts().size(); i++) {
+            multipart.addBodyPart(toBodyPart(i == 0 && body != null ? body : email.getParts().get(i)));
+        }
+        message.setContent(multipart);
+    }
+
+    private static PreencodedMimeBodyPart toBodyPart(PreparedEmail.EncodedPart part) throws MessagingException {
+        PreencodedMimeBodyPart bodyPart = new PreencodedMimeBodyPart(part.getTransferEncoding());
+        bodyPart.setDataHandler(new DataHandler(new ByteArrayDataSource(part.getContent(), part.getContentType())));
+        if (part.getFileName() != null) {
+            bodyPart.setDisposition(Part.ATTACHMENT);
+            bodyPart.setFileName(part.getFileName());
+        }
+        return bodyPart;
+    }
+
+    /**
+     * Sent to its envelope recipients whatever its headers say. Partial sends are on, so with JavaMail's transport
+     * too a message some recipients reject still reaches the others.
+     */
+    private static final class EnvelopeMimeMessage extends SMTPMessage {
+
+        private final InternetAddress[] envelope;
+
+        EnvelopeMimeMessage(Session session, InternetAddress[] envelope) {
+            super(session);
+            this.envelope = envelope;
+            setSendPartial(true);
+        }
+
+        @Override
+        public Address[] getAllRecipients() {
+            return envelope.clone();
+        }
+    }
+
+    /**
+     * Checks a classpath or filesystem attachment against the size limit from cached metadata, without reading it.
+     *
+     * @return {@code null} for other attachments, which are checked as they are read by {@link #encodeAttachment}
+     */
+    private AttachmentMetadataCache.Metadata attachmentMetadata(Resource attachment) {
+        AttachmentMetadataCache.Metadata metadata;
+        try {
+            metadata = attachmentMetadata.get(attachment);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read attachment size", e);
+        }
+        if (metadata != null) {
+            validateAttachment(attachmentName(attachment), metadata.size());
+        }
+        return metadata;
+    }
+
+    private void validateAttachment(String fileName, long size) {
+        if (size > maxSizeBytes) {
+            throw sizeExceeded(fileName);
+        }
+        metrics.recordAttachment(size);
+    }
+
+    private FileUploadSizeException sizeExceeded(String fileName) {
+        return new FileUploadSizeException("File upload size exceeding for "+ fileName + ". Maximum size is "  + maxSizeBytes);
+    }
+
+    /**
+     * Reads the attachment once, base64-encoding it as it goes. Without {@code metadata} the size limit is enforced
+     * on the bytes read, so an oversized stream is rejected without being read to its end.
+     */
+    private PreparedEmail.EncodedPart encodeAttachment(Resource attachment, AttachmentMetadataCache.Metadata metadata)
+            throws IOException, MessagingException {
+        String fileName = attachmentName(attachment);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(
+                metadata != null ? (int) Math.min(metadata.size() / 3 * 4 + 1024, Integer.MAX_VALUE - 8) : 8192);
+        long size = 0;
+        try (InputStream in = attachment.getInputStream();
+             OutputStream encoder = MimeUtility.encode(buffer, "base64")) {
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                size += read;
+                if (metadata == null && size > maxSizeBytes) {
+                    throw sizeExceeded(fileName);
+                }
+                encoder.write(chunk, 0, read);
+            }
+        }
+        if (metadata == null) {
+            metrics.recordAttachment(size);
+        }
+        String contentType = metadata != null ? metadata.contentType() : attachmentMetadata.getContentType(fileName);
+        return new PreparedEmail.EncodedPart(contentType, MimeUtility.encodeText(fileName), "base64", buffer.toByteArray());
+    }
+
+    /**
+     * Stream and byte-array resources have no file name; they are attached under a generic one instead.
+     */
+    private static String attachmentName(Resource attachment) {
+        String fileName = attachment.getFilename();
+        return StringUtils.hasText(fileName) ? fileName : DEFAULT_ATTACHMENT_NAME;
+    }
+
+    private static byte[] encode(InputStream in, String transferEncoding) throws IOException, MessagingException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream encoder = MimeUtility.encode(buffer, transferEncoding)) {
+            in.transferTo(encoder);
+        }
+        return buffer.toByteArray();
     }
 
     // ----------------------------
@@ -102,37 +673,36 @@ public class EmailServiceImpl implements EmailService {
 //    }
 
     public void sendEmailWithMultipartFile(String to, String subject, String body, String from, String title, MultipartFile multipartFile) {
-        Resource resource = null;
-        if(multipartFile != null){
-            resource = new ByteArrayResource(toByteArray(multipartFile)) {
-                @Override
-                public String getFilename() {
-                    return multipartFile.getOriginalFilename();
-                }
-            };
-        }
-        sendEmailAsync(to, subject, body, from, title, resource != null ? List.of(resource) : null);
+        sendEmailWithMultipartFiles(to, subject, body, from, title, multipartFile != null ? List.of(multipartFile) : null);
     }
 
+    /**
+     * Uploads are spooled to temp files and streamed into the MIME encoder, so heap use per in-flight email
+     * does not grow with attachment size. The spool is deleted once the send completes; with the outbox enabled
+     * it is kept in the outbox's attachment directory until the entry is acknowledged, so a replay still finds it.
+     */
     public void sendEmailWithMultipartFiles(String to, String subject, String body, String from, String title, List<MultipartFile> multipartFiles) {
 
         List<Resource> resources = new ArrayList<>();
+        List<Path> spooled = new ArrayList<>();
 
-        if (multipartFiles != null) {
-            for (MultipartFile mf : multipartFiles) {
-                if (mf != null && !mf.isEmpty()) {
-                    Resource r = new ByteArrayResource(toByteArray(mf)) {
-                        @Override
-                        public String getFilename() {
-                            return mf.getOriginalFilename();
-                        }
-                    };
-                    resources.add(r);
+        try {
+            if (multipartFiles != null) {
+                for (MultipartFile mf : multipartFiles) {
+                    if (mf != null && !mf.isEmpty()) {
+                        resources.add(spool(mf, spooled));
+                    }
                 }
             }
-        }
 
-        sendEmailAsync(to, subject, body, from, title, resources.isEmpty() ? null : resources);
+            CompletableFuture<Void> sent = sendEmailAsync(to, subject, body, from, title, resources.isEmpty() ? null : resources);
+            if (outbox == null) {
+                sent.whenComplete((ignored, ex) -> deleteSpooled(spooled));
+            }
+        } catch (RuntimeException e) {
+            deleteSpooled(spooled);
+            throw e;
+        }
     }
 
 
@@ -141,20 +711,160 @@ public class EmailServiceImpl implements EmailService {
         sendEmailAsync(to, subject, body, from, title, resources);
     }
 
+    /**
+     * Runs on {@code communicationTaskExecutor} directly rather than via {@code @Async}, so the helper methods
+     * above (which call this on {@code this}, bypassing the proxy) get the same single hop onto the executor.
+     * With the outbox enabled, the email is persisted first unless an attachment cannot be referenced by location.
+     */
     @Override
-    @Async("communicationTaskExecutor")
     public CompletableFuture<Void> sendEmailAsync(String to, String subject, String body, String from, String title, List<Resource> attachments) {
-        return CompletableFuture.runAsync(() -> sendEmail(to, subject, body, from, title, attachments));
+        if (outbox != null) {
+            Optional<List<String>> locations = toLocations(attachments);
+            if (locations.isPresent()) {
+                return outbox.submit(OUTBOX_CHANNEL, new EmailRequest(to, subject, body, title, locations.get(), from));
+            }
+            log.debug("Email to {} has in-memory attachments; sending without the outbox", to);
+        }
+        return CompletableFuture.runAsync(() -> sendEmail(to, subject, body, from, title, attachments), taskExecutor);
+    }
+
+    /**
+     * With idempotency enabled, a repeat call with the same {@link EmailRequest#getIdempotencyKey()} inside the
+     * window returns the first call's future without sending again.
+     */
+    @Override
+    public CompletableFuture<Void> sendEmailAsync(EmailRequest request) {
+        if (idempotency != null && request.getIdempotencyKey() != null) {
+            return idempotency.deduplicate(IDEMPOTENCY_SCOPE, request.getIdempotencyKey(), () -> dispatchAsync(request),
+                    sent -> true);
+        }
+        return dispatchAsync(request);
+    }
+
+    private CompletableFuture<Void> dispatchAsync(EmailRequest request) {
+        if (outbox != null) {
+            return outbox.submit(OUTBOX_CHANNEL, request, request.getPriority());
+        }
+        return CompletableFuture.runAsync(() -> sendEmail(request.getTo(), request.getSubject(), request.getBody(),
+                request.getFrom(), request.getTitle(), resolveResources(request.getFiles())),
+                MonitoredExecutors.lane(taskExecutor, request.getPriority()));
     }
 
     // ----------------------------
     // Utility Converters
     // ----------------------------
-    private byte[] toByteArray(MultipartFile file) {
+    private List<Resource> resolveResources(List<String> locations) {
+        if (locations == null || locations.isEmpty()) {
+            return null;
+        }
+        return locations.stream().map(this::resolveResource).toList();
+    }
+
+    /**
+     * @return attachment locations that survive a restart, or empty if any attachment only exists in memory
+     */
+    private Optional<List<String>> toLocations(List<Resource> attachments) {
+        List<String> locations = new ArrayList<>();
+        if (attachments != null) {
+            for (Resource attachment : attachments) {
+                if (attachment instanceof ClassPathResource classPathResource) {
+                    locations.add(ResourceUtils.CLASSPATH_URL_PREFIX + classPathResource.getPath());
+                } else if (attachment instanceof FileSystemResource fileSystemResource) {
+                    locations.add(fileSystemResource.getPath());
+                } else {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.of(locations);
+    }
+
+    private Resource resolveResource(String location) {
+        if (location.startsWith(ResourceUtils.CLASSPATH_URL_PREFIX)) {
+            return new ClassPathResource(location.substring(ResourceUtils.CLASSPATH_URL_PREFIX.length()));
+        }
+        return new FileSystemResource(location);
+    }
+
+    private EmailResponse success(String to, MimeMessage message) {
+        String messageId = null;
         try {
-            return file.getBytes();
+            messageId = message.getMessageID();
+        } catch (Exception e) {
+            log.debug("Could not read Message-ID for {}", to);
+        }
+        return EmailResponse.builder()
+                .success(true)
+                .to(to)
+                .messageId(messageId)
+                .build();
+    }
+
+    private EmailResponse failure(String to, Exception e) {
+        log.error("Email to {} failed: {}", to, e.getMessage());
+        return EmailResponse.builder()
+                .success(false)
+                .to(to)
+                .error(e.getMessage())
+                .build();
+    }
+
+    private Resource spool(MultipartFile file, List<Path> spooled) {
+        if (file.getSize() > maxSizeBytes) {
+            throw sizeExceeded(file.getOriginalFilename());
+        }
+        try {
+            // One directory per upload keeps the original file name, which becomes the attachment name
+            Path directory;
+            if (outbox != null) {
+                directory = Files.createTempDirectory(outbox.getAttachmentDirectory(), "comm-");
+            } else if (mailConfig.getSpoolDirectory() != null) {
+                directory = Files.createTempDirectory(Path.of(mailConfig.getSpoolDirectory()), "comm-");
+            } else {
+                directory = Files.createTempDirectory("comm-");
+            }
+            spooled.add(directory);
+            String fileName = StringUtils.getFilename(StringUtils.cleanPath(
+                    file.getOriginalFilename() != null ? file.getOriginalFilename() : DEFAULT_ATTACHMENT_NAME));
+            Path target = directory.resolve(StringUtils.hasText(fileName) ? fileName : DEFAULT_ATTACHMENT_NAME);
+            spooled.add(target);
+            file.transferTo(target);
+            return new FileSystemResource(target);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to read MultipartFile: " + e.getMessage(), e);
+            throw new RuntimeException("Failed to spool MultipartFile: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deletes the uploads an outbox entry spooled, once the outbox has acknowledged it. Files outside the outbox's
+     * attachment directory belong to the caller and are left alone.
+     */
+    private void releaseSpooled(EmailRequest request) {
+        if (request.getFiles() == null) {
+            return;
+        }
+        Path attachments = outbox.getAttachmentDirectory().toAbsolutePath().normalize();
+        List<Path> spooled = new ArrayList<>();
+        for (String location : request.getFiles()) {
+            if (location.startsWith(ResourceUtils.CLASSPATH_URL_PREFIX)) {
+                continue;
+            }
+            Path file = Path.of(location).toAbsolutePath().normalize();
+            if (file.getParent() != null && attachments.equals(file.getParent().getParent())) {
+                spooled.add(file.getParent());
+                spooled.add(file);
+            }
+        }
+        deleteSpooled(spooled);
+    }
+
+    private void deleteSpooled(List<Path> spooled) {
+        for (int i = spooled.size() - 1; i >= 0; i--) {
+            try {
+                Files.deleteIfExists(spooled.get(i));
+            } catch (IOException e) {
+                log.warn("Failed to delete spooled attachment {}: {}", spooled.get(i), e.getMessage());
+            }
         }
     }
 //
@@ -2,33 +2,69 @@ package com.communication.service.impl;
 
 import com.azure.communication.sms.SmsClient;
 import com.azure.communication.sms.models.SmsSendResult;
+import com.communication.configuration.executor.MonitoredExecutors;
+import com.communication.model.Priority;
 import com.communication.model.SmsRequest;
 import com.communication.model.SmsResponse;
+import com.communication.resilience.RetryClassifier;
 import com.communication.service.MessageService;
-import lombok.RequiredArgsConstructor;
+import com.communication.service.support.BulkSends;
+import com.communication.service.support.LazyClient;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 @Service
 @Slf4j
 @ConditionalOnProperty(prefix = "messaging.microsoft", name = "enabled", havingValue = "true")
-@RequiredArgsConstructor
 public class MicrosoftSmsService implements MessageService {
 
     @Value("${azure.communication.sms.from-phone-number}")
     private String fromPhoneNumber;
 
-    private final SmsClient smsClient;
+    @Value("${messaging.microsoft.max-recipients-per-request:100}")
+    private int maxRecipientsPerRequest;
 
+    private final LazyClient<SmsClient> smsClient;
+    private final Executor executor;
+    private final Map<Priority, Scheduler> schedulers = new EnumMap<>(Priority.class);
+
+    public MicrosoftSmsService(ObjectProvider<SmsClient> smsClient, @Qualifier("microsoftTaskExecutor") Executor executor) {
+        this.smsClient = new LazyClient<>("microsoft", smsClient::getObject);
+        this.executor = executor;
+        for (Priority priority : Priority.values()) {
+            schedulers.put(priority, Schedulers.fromExecutor(MonitoredExecutors.lane(executor, priority)));
+        }
+    }
+
+    @Override
+    public String getProvider() {
+        return "microsoft";
+    }
 
     @Override
     public SmsResponse sendMessage(SmsRequest request) {
         try {
-            SmsSendResult sendResult = smsClient.send(fromPhoneNumber, request.getTo(), request.getMessage());
+            SmsSendResult sendResult = smsClient.get().send(fromPhoneNumber, request.getTo(), request.getMessage());
             return SmsResponse.builder()
                     .messageId(sendResult.getMessageId())
                     .success(sendResult.isSuccessful())
@@ -40,8 +76,82 @@ public class MicrosoftSmsService implements MessageService {
 
     }
 
+    @Override
+    public void warmUp() {
+        smsClient.get();
+    }
+
     @Override
     public CompletableFuture<SmsResponse> sendMessageAsync(SmsRequest request) {
-        return CompletableFuture.supplyAsync(() -> sendMessage(request));
+        return CompletableFuture.supplyAsync(() -> sendMessage(request), MonitoredExecutors.lane(executor, request.getPriority()));
+    }
+
+    @Override
+    public boolean isNativeBulk() {
+        return true;
+    }
+
+    /**
+     * Consecutive requests with the same text go out as one {@code SmsClient.send} call with up to
+     * {@code max-recipients-per-request} recipients, on the provider executor in the lane of the batch's most
+     * urgent request.
+     */
+    @Override
+    public Flux<SmsResponse> sendMessages(Collection<SmsRequest> requests) {
+        return Flux.fromIterable(BulkSends.sameMessageRuns(requests, maxRecipientsPerRequest))
+                .flatMapSequential(batch -> Mono.fromCallable(() -> sendBatch(batch))
+                        .subscribeOn(schedulers.get(BulkSends.priority(batch)))
+                        .onErrorResume(e -> {
+                            log.error("Microsoft bulk send sms failed {}", e.getMessage(), e);
+                            return Mono.just(BulkSends.failures(getProvider(), batch, e));
+                        })
+                        .flatMapIterable(Function.identity()), BULK_CONCURRENCY);
+    }
+
+    private List<SmsResponse> sendBatch(List<SmsRequest> batch) {
+        List<String> recipients = new ArrayList<>(batch.size());
+        for (SmsRequest request : batch) {
+            recipients.add(request.getTo());
+        }
+        List<SmsSendResult> results = new ArrayList<>(batch.size());
+        for (SmsSendResult result : smsClient.get().send(fromPhoneNumber, recipients, batch.get(0).getMessage())) {
+            results.add(result);
+        }
+        // One result per recipient, in request order; match by recipient only if some are missing
+        Map<String, Deque<SmsSendResult>> resultsByRecipient = null;
+        if (results.size() != batch.size()) {
+            resultsByRecipient = new HashMap<>();
+            for (SmsSendResult result : results) {
+                resultsByRecipient.computeIfAbsent(result.getTo(), to -> new ArrayDeque<>()).add(result);
+            }
+        }
+
+        List<SmsResponse> responses = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            SmsRequest request = batch.get(i);
+            SmsSendResult result;
+            if (resultsByRecipient == null) {
+                result = results.get(i);
+            } else {
+                Deque<SmsSendResult> forRecipient = resultsByRecipient.get(request.getTo());
+                result = forRecipient != null ? forRecipient.poll() : null;
+            }
+            if (result == null) {
+                responses.add(SmsResponse.builder()
+                        .success(false)
+                        .to(request.getTo())
+                        .error("No result for recipient")
+                        .build());
+                continue;
+            }
+            responses.add(SmsResponse.builder()
+                    .success(result.isSuccessful())
+                    .to(request.getTo())
+                    .messageId(result.getMessageId())
+                    .error(result.isSuccessful() ? null : result.getHttpStatusCode() + ": " + result.getErrorMessage())
+                    .retryable(!result.isSuccessful() && RetryClassifier.isRetryableStatus(result.getHttpStatusCode()))
+                    .build());
+        }
+        return responses;
     }
 }
@@ -1,21 +1,61 @@
 package com.communication.service.impl;
 
+import com.communication.configuration.executor.MonitoredExecutors;
 import com.communication.model.SmsRequest;
 import com.communication.model.SmsResponse;
 import com.communication.service.MessageService;
+import com.communication.service.support.LazyClient;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.twilio.http.NetworkHttpClient;
+import com.twilio.http.TwilioRestClient;
 import com.twilio.rest.api.v2010.account.Message;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.net.URI;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Slf4j
 @Service
 @ConditionalOnProperty(prefix = "messaging.twilio", name = "enabled", havingValue = "true")
 public class TwilioMessageService implements MessageService {
 
+    private static final Duration WARM_UP_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final String DEFAULT_BASE_URL = "https://api.twilio.com";
+
     @Value("${messaging.twilio.from}")
     private String fromNumber;
 
@@ -25,14 +65,155 @@ public class TwilioMessageService implements MessageService {
     @Value("${messaging.twilio.token}")
     private String authToken;
 
+    @Value("${messaging.twilio.base-url:" + DEFAULT_BASE_URL + "}")
+    private String baseUrl;
+
+    @Value("${messaging.twilio.reactive-client:false}")
+    private boolean reactiveClient;
+
+    @Value("${messaging.twilio.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${messaging.twilio.max-connections-per-route:100}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${messaging.twilio.pending-acquire-max-count:10000}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${messaging.twilio.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${messaging.twilio.response-timeout:30s}")
+    private Duration responseTimeout;
+
+    @Value("${messaging.twilio.pool-acquire-timeout:10s}")
+    private Duration poolAcquireTimeout;
+
+    @Value("${messaging.twilio.keep-alive:60s}")
+    private Duration keepAlive;
+
+    private final Executor executor;
+
+    private final LazyClient<TwilioRestClient> client;
+
+    private final LazyClient<WebClient> webClient = new LazyClient<>("twilio-reactive", this::createWebClient);
+
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    private ConnectionProvider connectionProvider;
+
+    private HttpClient httpClient;
+
+    private URI messagesUri;
+
+    /**
+     * Sends through a {@link TwilioRestClient} bean if one is defined, otherwise through a client built from
+     * {@code messaging.twilio.sid}/{@code token} on first send.
+     */
+    public TwilioMessageService(@Qualifier("twilioTaskExecutor") Executor executor, ObjectProvider<TwilioRestClient> restClient) {
+        this.executor = executor;
+        this.client = new LazyClient<>("twilio", () -> restClient.getIfAvailable(this::createRestClient));
+    }
+
+    @PostConstruct
+    public void init() {
+        messagesUri = UriComponentsBuilder.fromUriString(baseUrl)
+                .path("/2010-04-01/Accounts/{accountSid}/Messages.json")
+                .buildAndExpand(accountSid)
+                .encode()
+                .toUri();
+    }
+
+    /**
+     * Blocking client on a pooled Apache connection manager sized and timed by the {@code messaging.twilio.*}
+     * settings. The SDK sets its own fixed {@link RequestConfig} on every request, so the first interceptor
+     * replaces it with ours before a connection is leased. A non-default {@code base-url} (a gateway or mock)
+     * receives every connection, since the SDK's request URLs always name its own host.
+     */
+    private TwilioRestClient createRestClient() {
+        connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setSoTimeout(Timeout.of(responseTimeout))
+                        .setSoKeepAlive(true)
+                        .build())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(responseTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(1))
+                        .build())
+                .build();
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout))
+                .setResponseTimeout(Timeout.of(responseTimeout))
+                .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                .build();
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .addRequestInterceptorFirst((request, entity, context) ->
+                        HttpClientContext.castOrCreate(context).setRequestConfig(requestConfig))
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .evictIdleConnections(TimeValue.of(keepAlive));
+        if (!DEFAULT_BASE_URL.equals(baseUrl)) {
+            URI base = URI.create(baseUrl);
+            HttpHost host = new HttpHost(base.getScheme(), base.getHost(), base.getPort());
+            HttpRoute route = new HttpRoute(host, null, "https".equalsIgnoreCase(base.getScheme()));
+            builder.setRoutePlanner((target, context) -> route);
+        }
+        return new TwilioRestClient.Builder(accountSid, authToken)
+                .httpClient(new NetworkHttpClient(builder))
+                .build();
+    }
+
+    /**
+     * Non-blocking client for {@code messaging.twilio.reactive-client}: a Netty pool against the Messages
+     * resource, so in-flight sends do not each hold a thread.
+     */
+    private WebClient createWebClient() {
+        connectionProvider = ConnectionProvider.builder("twilio-sms")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(poolAcquireTimeout)
+                .maxIdleTime(keepAlive)
+                .build();
+        httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(responseTimeout);
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeaders(headers -> headers.setBasicAuth(accountSid, authToken))
+                .build();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        client.ifInitialized(restClient -> {
+            if (connectionManager != null) {
+                connectionManager.close(CloseMode.GRACEFUL);
+            }
+        });
+        webClient.ifInitialized(reactive -> connectionProvider.dispose());
+    }
+
+    @Override
+    public String getProvider() {
+        return "twilio";
+    }
+
     @Override
     public SmsResponse sendMessage(SmsRequest request) {
+        if (reactiveClient) {
+            return sendMessageReactive(request).block();
+        }
         try {
             Message message = Message.creator(
                     new com.twilio.type.PhoneNumber(request.getTo()),
                     new com.twilio.type.PhoneNumber(fromNumber),
                     request.getMessage()
-            ).create();
+            ).create(client.get());
 
             return SmsResponse.builder()
                     .success(true)
@@ -42,13 +223,66 @@ public class TwilioMessageService implements MessageService {
 
         } catch (Exception e) {
             log.error("Twilio send failed: {}", e.getMessage());
-            throw new RuntimeException("Twilio send failed: " + e.getMessage());
+            throw new RuntimeException("Twilio send failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Builds the client in use; the reactive client also initializes Netty's event loops and resolver.
+     */
+    @Override
+    public void warmUp() {
+        if (reactiveClient) {
+            webClient.get();
+            httpClient.warmup().block(WARM_UP_TIMEOUT);
+        } else {
+            client.get();
         }
     }
 
     @Override
     public CompletableFuture<SmsResponse> sendMessageAsync(SmsRequest request) {
         request.setFrom(fromNumber);
-        return CompletableFuture.supplyAsync(() -> sendMessage(request));
+        if (reactiveClient) {
+            return sendMessageReactive(request).toFuture();
+        }
+        return CompletableFuture.supplyAsync(() -> sendMessage(request), MonitoredExecutors.lane(executor, request.getPriority()));
+    }
+
+    /**
+     * With {@code messaging.twilio.reactive-client} the message is created with a non-blocking POST to the
+     * Messages resource; otherwise this adapts {@link #sendMessageAsync}.
+     */
+    @Override
+    public Mono<SmsResponse> sendMessageReactive(SmsRequest request) {
+        if (!reactiveClient) {
+            return MessageService.super.sendMessageReactive(request);
+        }
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>(4);
+        form.add("To", request.getTo());
+        form.add("From", fromNumber);
+        form.add("Body", request.getMessage());
+        return Mono.defer(() -> webClient.get().post()
+                        .uri(messagesUri)
+                        .header(HttpHeaders.ACCEPT, "application/json")
+                        .body(BodyInserters.fromFormData(form))
+                        .retrieve()
+                        .bodyToMono(TwilioMessage.class))
+                .map(message -> SmsResponse.builder()
+                        .success(true)
+                        .provider("Twilio")
+                        .messageId(message.sid() + " " + message.status())
+                        .build())
+                .onErrorMap(e -> {
+                    String detail = e instanceof WebClientResponseException response
+                            ? "HTTP " + response.getStatusCode().value() + ": " + response.getResponseBodyAsString()
+                            : e.getMessage();
+                    log.error("Twilio send failed: {}", detail);
+                    return new RuntimeException("Twilio send failed: " + detail, e);
+                });
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record TwilioMessage(String sid, String status) {
     }
 }
@@ -0,0 +1,108 @@
+package com.communication.service.support;
+
+import com.communication.configuration.email.MailConfig;
+import jakarta.activation.FileTypeMap;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.javamail.ConfigurableMimeFileTypeMap;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size, content type and last-modified time of classpath and filesystem attachments, so that checking an attachment
+ * against the size limit does not touch its content. An entry for a file re-checks the file's last-modified time at
+ * most once per {@code check-interval} and is refreshed when it changed; an entry for a resource inside a jar never
+ * changes. Other resources are not cached, as their size may only be known by reading them.
+ */
+public class AttachmentMetadataCache {
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final FileTypeMap fileTypeMap = new ConfigurableMimeFileTypeMap();
+    private final long checkIntervalNanos;
+    private final Map<Resource, Entry> cache;
+
+    public AttachmentMetadataCache(MailConfig.AttachmentCache properties) {
+        this.checkIntervalNanos = properties.getCheckInterval().toNanos();
+        int cacheSize = Math.max(1, properties.getCacheSize());
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Resource, Entry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * @return the attachment's metadata, or {@code null} if it is neither a classpath nor a filesystem resource
+     * @throws IOException if the resource does not exist or cannot be inspected
+     */
+    @Nullable
+    public Metadata get(Resource resource) throws IOException {
+        if (!(resource instanceof ClassPathResource) && !(resource instanceof FileSystemResource)) {
+            return null;
+        }
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(resource);
+        }
+        long now = System.nanoTime();
+        if (entry != null) {
+            if (!entry.file || checkIntervalNanos <= 0 || now - entry.checkedAt < checkIntervalNanos) {
+                return entry.metadata;
+            }
+            try {
+                if (resource.lastModified() == entry.metadata.lastModified()) {
+                    entry.checkedAt = now;
+                    return entry.metadata;
+                }
+            } catch (IOException e) {
+                synchronized (cache) {
+                    cache.remove(resource);
+                }
+                throw e;
+            }
+        }
+        Entry loaded = load(resource, now);
+        synchronized (cache) {
+            cache.put(resource, loaded);
+        }
+        return loaded.metadata;
+    }
+
+    public String getContentType(@Nullable String fileName) {
+        return fileName != null ? fileTypeMap.getContentType(fileName) : DEFAULT_CONTENT_TYPE;
+    }
+
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private Entry load(Resource resource, long now) throws IOException {
+        // Read last-modified first, so that a change made while loading is picked up by the next check
+        long lastModified = resource.lastModified();
+        Metadata metadata = new Metadata(resource.contentLength(), getContentType(resource.getFilename()), lastModified);
+        return new Entry(metadata, resource.isFile(), now);
+    }
+
+    public record Metadata(long size, String contentType, long lastModified) {
+    }
+
+    private static final class Entry {
+        private final Metadata metadata;
+        private final boolean file;
+        private volatile long checkedAt;
+
+        private Entry(Metadata metadata, boolean file, long checkedAt) {
+            this.metadata = metadata;
+            this.file = file;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
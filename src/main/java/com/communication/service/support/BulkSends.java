@@ -0,0 +1,113 @@
+package com.communication.service.support;
+
+import com.communication.model.Priority;
+import com.communication.model.SmsRequest;
+import com.communication.model.SmsResponse;
+import com.communication.resilience.RetryClassifier;
+import com.communication.service.MessageService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Building blocks for {@link MessageService#sendMessages}: the pipelined per-message fallback, splitting a bulk
+ * send into native batches, and turning errors into failed responses so one bad message does not end the stream.
+ */
+public final class BulkSends {
+
+    private BulkSends() {
+    }
+
+    /**
+     * Sends each request through {@code service.sendMessageReactive} with at most {@code concurrency} in flight.
+     * Responses are emitted in request order.
+     */
+    public static Flux<SmsResponse> individually(MessageService service, Collection<SmsRequest> requests, int concurrency) {
+        return Flux.fromIterable(requests)
+                .flatMapSequential(request -> service.sendMessageReactive(request)
+                        .map(response -> withRecipient(response, request))
+                        .onErrorResume(e -> Mono.just(failure(service.getProvider(), request, e)))
+                        .switchIfEmpty(Mono.fromSupplier(() -> failure(service.getProvider(), request, "No response"))),
+                        concurrency);
+    }
+
+    /**
+     * Splits {@code requests} into runs of consecutive requests with the same message text, each at most
+     * {@code maxSize} long, for providers that send one text to many recipients in a single call.
+     */
+    public static List<List<SmsRequest>> sameMessageRuns(Collection<SmsRequest> requests, int maxSize) {
+        List<List<SmsRequest>> runs = new ArrayList<>();
+        List<SmsRequest> run = null;
+        for (SmsRequest request : requests) {
+            if (run == null || run.size() >= maxSize || !Objects.equals(run.get(0).getMessage(), request.getMessage())) {
+                run = new ArrayList<>(Math.min(maxSize, 16));
+                runs.add(run);
+            }
+            run.add(request);
+        }
+        return runs;
+    }
+
+    /**
+     * One response per recipient of a batch that went out as a single provider message.
+     */
+    public static List<SmsResponse> perRecipient(SmsResponse response, List<SmsRequest> batch) {
+        List<SmsResponse> responses = new ArrayList<>(batch.size());
+        for (SmsRequest request : batch) {
+            responses.add(response.toBuilder().to(request.getTo()).build());
+        }
+        return responses;
+    }
+
+    /**
+     * The most urgent {@link Priority} in {@code batch}.
+     */
+    public static Priority priority(List<SmsRequest> batch) {
+        Priority priority = Priority.BULK;
+        for (SmsRequest request : batch) {
+            Priority candidate = Priority.orDefault(request.getPriority());
+            if (candidate.compareTo(priority) < 0) {
+                priority = candidate;
+            }
+        }
+        return priority;
+    }
+
+    public static List<SmsResponse> failures(String provider, List<SmsRequest> batch, Throwable error) {
+        List<SmsResponse> responses = new ArrayList<>(batch.size());
+        for (SmsRequest request : batch) {
+            responses.add(failure(provider, request, error));
+        }
+        return responses;
+    }
+
+    public static SmsResponse failure(String provider, SmsRequest request, Throwable error) {
+        return SmsResponse.builder()
+                .success(false)
+                .provider(provider)
+                .to(request.getTo())
+                .error(error.getMessage())
+                .retryable(RetryClassifier.isRetryable(error))
+                .build();
+    }
+
+    private static SmsResponse failure(String provider, SmsRequest request, String error) {
+        return SmsResponse.builder()
+                .success(false)
+                .provider(provider)
+                .to(request.getTo())
+                .error(error)
+                .build();
+    }
+
+    private static SmsResponse withRecipient(SmsResponse response, SmsRequest request) {
+        if (response.getTo() == null) {
+            response.setTo(request.getTo());
+        }
+        return response;
+    }
+}
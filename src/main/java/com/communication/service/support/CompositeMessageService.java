@@ -0,0 +1,9 @@
+package com.communication.service.support;
+
+import com.communication.service.MessageService;
+
+/**
+ * A {@link MessageService} built from other, already decorated, services; it is not decorated itself.
+ */
+public interface CompositeMessageService extends MessageService {
+}
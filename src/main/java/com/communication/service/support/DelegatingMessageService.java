@@ -0,0 +1,61 @@
+package com.communication.service.support;
+
+import com.communication.model.SmsRequest;
+import com.communication.model.SmsResponse;
+import com.communication.service.MessageService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Base class for {@link MessageServiceDecorator}s: forwards every call to the wrapped service.
+ */
+public abstract class DelegatingMessageService implements MessageService {
+
+    protected final MessageService delegate;
+
+    protected DelegatingMessageService(MessageService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getProvider() {
+        return delegate.getProvider();
+    }
+
+    @Override
+    public SmsResponse sendMessage(SmsRequest request) {
+        return delegate.sendMessage(request);
+    }
+
+    @Override
+    public CompletableFuture<SmsResponse> sendMessageAsync(SmsRequest request) {
+        return delegate.sendMessageAsync(request);
+    }
+
+    @Override
+    public Mono<SmsResponse> sendMessageReactive(SmsRequest request) {
+        return delegate.sendMessageReactive(request);
+    }
+
+    /**
+     * Hands the whole bulk send to a natively batching delegate; otherwise sends message by message through
+     * this layer's {@link #sendMessageReactive}, so the layer applies to each message.
+     */
+    @Override
+    public Flux<SmsResponse> sendMessages(Collection<SmsRequest> requests) {
+        return delegate.isNativeBulk() ? delegate.sendMessages(requests) : MessageService.super.sendMessages(requests);
+    }
+
+    @Override
+    public boolean isNativeBulk() {
+        return delegate.isNativeBulk();
+    }
+
+    @Override
+    public void warmUp() {
+        delegate.warmUp();
+    }
+}
@@ -0,0 +1,58 @@
+package com.communication.service.support;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe holder that builds a provider client on first use instead of at context refresh, so a service
+ * that never sends pays nothing for the client at startup. The factory runs at most once unless it throws, in
+ * which case the next call tries again. A {@code null} result is remembered like any other.
+ */
+@Slf4j
+public final class LazyClient<T> {
+
+    private final String name;
+    private final Supplier<T> factory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean initialized;
+    private T client;
+
+    public LazyClient(String name, Supplier<T> factory) {
+        this.name = name;
+        this.factory = factory;
+    }
+
+    public T get() {
+        if (initialized) {
+            return client;
+        }
+        lock.lock();
+        try {
+            if (!initialized) {
+                long start = System.nanoTime();
+                client = factory.get();
+                initialized = true;
+                log.info("Initialized {} client in {} ms", name, (System.nanoTime() - start) / 1_000_000);
+            }
+            return client;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * Runs {@code action} on the client only if it was built, e.g. to close it on shutdown.
+     */
+    public void ifInitialized(Consumer<T> action) {
+        if (initialized && client != null) {
+            action.accept(client);
+        }
+    }
+}
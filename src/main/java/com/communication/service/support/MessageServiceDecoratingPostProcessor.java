@@ -0,0 +1,72 @@
+package com.communication.service.support;
+
+import com.communication.service.MessageService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps each {@link MessageService} bean in the registered {@link MessageServiceDecorator}s.
+ * The bean is exposed as a class proxy, so it can still be injected by its concrete type; only
+ * {@link MessageService} methods are routed through the decorator chain.
+ */
+@Component
+public class MessageServiceDecoratingPostProcessor implements BeanPostProcessor, BeanFactoryAware {
+
+    private BeanFactory beanFactory;
+    private volatile List<MessageServiceDecorator> decorators;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof MessageService target) || bean instanceof DelegatingMessageService
+                || bean instanceof CompositeMessageService) {
+            return bean;
+        }
+        MessageService chain = target;
+        for (MessageServiceDecorator decorator : decorators()) {
+            chain = decorator.decorate(chain, beanName);
+        }
+        if (chain == target) {
+            return bean;
+        }
+
+        MessageService decorated = chain;
+        Map<Method, Optional<Method>> apiMethods = new ConcurrentHashMap<>();
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            Optional<Method> api = apiMethods.computeIfAbsent(invocation.getMethod(), method -> Optional.ofNullable(
+                    ReflectionUtils.findMethod(MessageService.class, method.getName(), method.getParameterTypes())));
+            if (api.isPresent()) {
+                return AopUtils.invokeJoinpointUsingReflection(decorated, api.get(), invocation.getArguments());
+            }
+            return invocation.proceed();
+        });
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    private List<MessageServiceDecorator> decorators() {
+        List<MessageServiceDecorator> result = decorators;
+        if (result == null) {
+            result = beanFactory.getBeanProvider(MessageServiceDecorator.class).orderedStream().toList();
+            decorators = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,16 @@
+package com.communication.service.support;
+
+import com.communication.service.MessageService;
+import org.springframework.core.Ordered;
+
+/**
+ * Cross-cutting layer applied to every {@link MessageService} bean by {@link MessageServiceDecoratingPostProcessor}.
+ * Decorators are applied in ascending {@link #getOrder()}, so a lower order sits closer to the provider.
+ */
+public interface MessageServiceDecorator extends Ordered {
+
+    /**
+     * @return the wrapped service, or {@code delegate} itself to leave this provider undecorated
+     */
+    MessageService decorate(MessageService delegate, String beanName);
+}
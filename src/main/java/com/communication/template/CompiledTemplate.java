@@ -0,0 +1,125 @@
+package com.communication.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template parsed once into literal and variable segments. Rendering walks the segments and appends
+ * straight into the caller's buffer; no intermediate Strings are built.
+ */
+public final class CompiledTemplate {
+
+    private final String name;
+    private final String[] literals;
+    private final String[] variables;
+    private final boolean[] escape;
+    private final int literalLength;
+
+    private CompiledTemplate(String name, String[] literals, String[] variables, boolean[] escape) {
+        this.name = name;
+        this.literals = literals;
+        this.variables = variables;
+        this.escape = escape;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parses {@code {{name}}} (HTML-escaped) and {@code {{{name}}}} (raw) placeholders. Unclosed braces are literal text.
+     */
+    public static CompiledTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        List<Boolean> escape = new ArrayList<>();
+
+        int position = 0;
+        int literalStart = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            boolean raw = source.startsWith("{{{", open);
+            String closeToken = raw ? "}}}" : "}}";
+            int nameStart = open + (raw ? 3 : 2);
+            int close = source.indexOf(closeToken, nameStart);
+            if (close < 0) {
+                break;
+            }
+            String variable = source.substring(nameStart, close).trim();
+            if (variable.isEmpty()) {
+                position = close + closeToken.length();
+                continue;
+            }
+            literals.add(source.substring(literalStart, open));
+            variables.add(variable);
+            escape.add(!raw);
+            position = close + closeToken.length();
+            literalStart = position;
+        }
+        literals.add(source.substring(literalStart));
+
+        boolean[] escapeFlags = new boolean[escape.size()];
+        for (int i = 0; i < escapeFlags.length; i++) {
+            escapeFlags[i] = escape.get(i);
+        }
+        return new CompiledTemplate(name, literals.toArray(new String[0]), variables.toArray(new String[0]), escapeFlags);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Total length of the literal text, a lower bound for the rendered size.
+     */
+    public int getLiteralLength() {
+        return literalLength;
+    }
+
+    /**
+     * Appends the rendering to {@code out}. Missing variables render as empty.
+     */
+    public void render(Map<String, ?> model, StringBuilder out) {
+        out.ensureCapacity(out.length() + literalLength + variables.length * 16);
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            Object value = model != null ? model.get(variables[i]) : null;
+            if (value == null) {
+                continue;
+            }
+            CharSequence text = value instanceof CharSequence chars ? chars : String.valueOf(value);
+            if (escape[i]) {
+                appendEscaped(text, out);
+            } else {
+                out.append(text);
+            }
+        }
+        out.append(literals[variables.length]);
+    }
+
+    public String render(Map<String, ?> model) {
+        StringBuilder out = new StringBuilder(literalLength + variables.length * 16);
+        render(model, out);
+        return out.toString();
+    }
+
+    private static void appendEscaped(CharSequence text, StringBuilder out) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
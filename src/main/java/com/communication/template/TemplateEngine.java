@@ -0,0 +1,159 @@
+package com.communication.template;
+
+import com.communication.configuration.email.MailConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Loads email templates from {@code messaging.mail.template.location}, compiles each once and keeps the
+ * most recently used ones. A cached template re-checks its source's last-modified time at most once per
+ * {@code reload-interval} and is recompiled when it changed.
+ */
+@Slf4j
+public class TemplateEngine {
+
+    private static final int MAX_RETAINED_BUFFER = 1 << 20;
+    private static final ThreadLocal<RenderBuffer> BUFFERS = ThreadLocal.withInitial(RenderBuffer::new);
+
+    private final MailConfig.Template properties;
+    private final ResourceLoader resourceLoader;
+    private final long reloadIntervalNanos;
+    private final Map<String, Entry> cache;
+
+    public TemplateEngine(MailConfig.Template properties, ResourceLoader resourceLoader) {
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+        this.reloadIntervalNanos = properties.getReloadInterval().toNanos();
+        int cacheSize = Math.max(1, properties.getCacheSize());
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public CompiledTemplate getTemplate(String name) {
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(name);
+        }
+        long now = System.nanoTime();
+        if (entry != null) {
+            if (reloadIntervalNanos <= 0 || now - entry.checkedAt < reloadIntervalNanos) {
+                return entry.template;
+            }
+            if (lastModified(entry.resource) == entry.lastModified) {
+                entry.checkedAt = now;
+                return entry.template;
+            }
+            log.info("Email template {} changed, recompiling", name);
+        }
+        Entry loaded = load(name, now);
+        synchronized (cache) {
+            cache.put(name, loaded);
+        }
+        return loaded.template;
+    }
+
+    public String render(String name, Map<String, ?> model) {
+        return getTemplate(name).render(model);
+    }
+
+    /**
+     * Renders into this thread's reusable buffer and hands {@code consumer} the UTF-8 bytes. The buffer is only
+     * valid during the call, and {@code consumer} must not render another template on the same thread.
+     */
+    public <T> T renderUtf8(String name, Map<String, ?> model, Function<ByteBuffer, T> consumer) {
+        CompiledTemplate template = getTemplate(name);
+        RenderBuffer buffer = BUFFERS.get();
+        try {
+            buffer.chars.setLength(0);
+            template.render(model, buffer.chars);
+            return consumer.apply(buffer.encode());
+        } finally {
+            if (buffer.chars.capacity() > MAX_RETAINED_BUFFER || buffer.bytes.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFERS.remove();
+            }
+        }
+    }
+
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private Entry load(String name, long now) {
+        if (name == null || name.isBlank() || name.contains("..")) {
+            throw new IllegalArgumentException("Invalid email template name: " + name);
+        }
+        Resource resource = resourceLoader.getResource(properties.getLocation() + name + properties.getSuffix());
+        if (!resource.exists()) {
+            throw new IllegalArgumentException("Email template not found: " + resource.getDescription());
+        }
+        long lastModified = lastModified(resource);
+        try (InputStream in = resource.getInputStream()) {
+            String source = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+            return new Entry(CompiledTemplate.compile(name, source), resource, lastModified, now);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read email template " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static final class Entry {
+        private final CompiledTemplate template;
+        private final Resource resource;
+        private final long lastModified;
+        private volatile long checkedAt;
+
+        private Entry(CompiledTemplate template, Resource resource, long lastModified, long checkedAt) {
+            this.template = template;
+            this.resource = resource;
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+        }
+    }
+
+    private static final class RenderBuffer {
+        private final StringBuilder chars = new StringBuilder(8192);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private ByteBuffer bytes = ByteBuffer.allocate(16384);
+
+        private ByteBuffer encode() {
+            int maxBytes = (int) (chars.length() * encoder.maxBytesPerChar()) + 16;
+            if (bytes.capacity() < maxBytes) {
+                bytes = ByteBuffer.allocate(maxBytes);
+            }
+            bytes.clear();
+            encoder.reset();
+            encoder.encode(CharBuffer.wrap(chars), bytes, true);
+            encoder.flush(bytes);
+            bytes.flip();
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.communication.configuration.email;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Scripted SMTP relay on a local port for one connection at a time. Recipients starting with {@code bad} are
+ * rejected with 550, and those starting with {@code busy} with 450 the first time they are seen; every other
+ * command is accepted. Records the commands and message contents it received.
+ */
+public final class FakeSmtpServer implements AutoCloseable {
+
+    public final List<String> commands = new CopyOnWriteArrayList<>();
+    public final List<String> messages = new CopyOnWriteArrayList<>();
+
+    private final Set<String> deferred = ConcurrentHashMap.newKeySet();
+    private final ServerSocket serverSocket;
+    private final String extensions;
+    private volatile String mailReply = "250 OK";
+    private volatile long replyDelayMillis;
+
+    public FakeSmtpServer(String... extensions) throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        StringBuilder ehlo = new StringBuilder("250-fake.test greets you");
+        for (String extension : extensions) {
+            ehlo.append("\r\n250-").append(extension);
+        }
+        this.extensions = ehlo.append("\r\n250 HELP").toString();
+        Thread thread = new Thread(this::serve, "fake-smtp");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Replaces the reply to {@code MAIL FROM}, e.g. with a malformed one.
+     */
+    public void replyToMail(String reply) {
+        this.mailReply = reply;
+    }
+
+    /**
+     * Delays the reply to the end of each message's content.
+     */
+    public void delayReplies(long millis) {
+        this.replyDelayMillis = millis;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void serve() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                session(new BufferedInputStream(socket.getInputStream()), socket.getOutputStream());
+            } catch (IOException e) {
+                // Connection closed by the client or the server shut down
+            }
+        }
+    }
+
+    private void session(InputStream in, OutputStream out) throws IOException {
+        reply(out, "220 fake.test ESMTP");
+        boolean anyRecipient = false;
+        String line;
+        while ((line = readLine(in)) != null) {
+            commands.add(line);
+            String command = line.toUpperCase();
+            if (command.startsWith("EHLO")) {
+                reply(out, extensions);
+            } else if (command.startsWith("MAIL FROM")) {
+                anyRecipient = false;
+                reply(out, mailReply);
+            } else if (command.startsWith("RCPT TO")) {
+                if (command.startsWith("RCPT TO:<BAD")) {
+                    reply(out, "550 5.1.1 No such user");
+                } else if (command.startsWith("RCPT TO:<BUSY") && deferred.add(command)) {
+                    reply(out, "450 4.2.1 Mailbox busy");
+                } else {
+                    anyRecipient = true;
+                    reply(out, "250 OK");
+                }
+            } else if (command.startsWith("BDAT")) {
+                byte[] content = in.readNBytes(Integer.parseInt(line.split(" ")[1]));
+                messages.add(new String(content, StandardCharsets.UTF_8));
+                delay();
+                reply(out, anyRecipient ? "250 Queued" : "554 No valid recipients");
+            } else if (command.equals("DATA")) {
+                reply(out, anyRecipient ? "354 Go ahead" : "554 No valid recipients");
+                if (anyRecipient) {
+                    messages.add(readDotTerminated(in));
+                    delay();
+                    reply(out, "250 Queued");
+                }
+            } else if (command.equals("QUIT")) {
+                reply(out, "221 Bye");
+                return;
+            } else {
+                reply(out, "250 OK");
+            }
+        }
+    }
+
+    private void delay() {
+        if (replyDelayMillis > 0) {
+            try {
+                Thread.sleep(replyDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static String readDotTerminated(InputStream in) throws IOException {
+        StringBuilder content = new StringBuilder();
+        String line;
+        while ((line = readLine(in)) != null && !line.equals(".")) {
+            content.append(line.startsWith(".") ? line.substring(1) : line).append("\r\n");
+        }
+        return content.toString();
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                String value = line.toString(StandardCharsets.UTF_8);
+                return value.endsWith("\r") ? value.substring(0, value.length() - 1) : value;
+            }
+            line.write(b);
+        }
+        return null;
+    }
+
+    private static void reply(OutputStream out, String reply) throws IOException {
+        out.write((reply + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+}
@@ -0,0 +1,118 @@
+package com.communication.configuration.email;
+
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SmtpConnectionTest {
+
+    @Test
+    void chunkedWindowCompletesEachTransactionFromItsReplies() throws Exception {
+        try (FakeSmtpServer server = new FakeSmtpServer("PIPELINING", "CHUNKING", "SIZE 1000000")) {
+            List<long[]> roundTrips = new ArrayList<>();
+            SmtpConnection connection = SmtpConnection.open(settings(server),
+                    (nanos, messages, bytes) -> roundTrips.add(new long[]{messages, bytes}));
+            SmtpConnection.Transaction delivered = transaction("Hello", "ok@example.com");
+            SmtpConnection.Transaction rejected = transaction("Bounce", "bad@example.com");
+
+            connection.send(List.of(delivered, rejected));
+            connection.quit();
+
+            delivered.result().get(5, TimeUnit.SECONDS);
+            SMTPSendFailedException failure = sendFailure(rejected);
+            assertEquals(550, failure.getReturnCode());
+            assertEquals(List.of("Hello\r\n", "Bounce\r\n"), server.messages);
+            // The second transaction resets whatever the first left behind, all in one write
+            assertTrue(server.commands.contains("RSET"));
+            assertEquals(1, roundTrips.size());
+            assertArrayEquals(new long[]{2, 15}, roundTrips.get(0));
+        }
+    }
+
+    @Test
+    void partialRejectionIsDeliveredAndReportedWithEachRejectedAddress() throws Exception {
+        try (FakeSmtpServer server = new FakeSmtpServer("PIPELINING", "CHUNKING")) {
+            SmtpConnection connection = SmtpConnection.open(settings(server), (nanos, messages, bytes) -> { });
+            SmtpConnection.Transaction transaction = transaction("Hello", "ok@example.com", "bad@example.com");
+
+            connection.send(List.of(transaction));
+            connection.quit();
+
+            SMTPSendFailedException failure = sendFailure(transaction);
+            assertEquals("ok@example.com", ((InternetAddress) failure.getValidSentAddresses()[0]).getAddress());
+            assertEquals("bad@example.com", ((InternetAddress) failure.getInvalidAddresses()[0]).getAddress());
+            SMTPAddressFailedException rejection = assertInstanceOf(SMTPAddressFailedException.class,
+                    failure.getNextException());
+            assertEquals(550, rejection.getReturnCode());
+            assertEquals(1, server.messages.size());
+        }
+    }
+
+    @Test
+    void dataWithoutChunkingIsDotStuffed() throws Exception {
+        try (FakeSmtpServer server = new FakeSmtpServer("PIPELINING")) {
+            List<Integer> roundTrips = new ArrayList<>();
+            SmtpConnection connection = SmtpConnection.open(settings(server),
+                    (nanos, messages, bytes) -> roundTrips.add(messages));
+            SmtpConnection.Transaction transaction = transaction("Line one\r\n.leading dot", "ok@example.com");
+
+            connection.send(List.of(transaction));
+            connection.quit();
+
+            transaction.result().get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("Line one\r\n.leading dot\r\n"), server.messages);
+            assertEquals(List.of(1), roundTrips);
+        }
+    }
+
+    @Test
+    void malformedReplyBreaksTheConnection() throws Exception {
+        try (FakeSmtpServer server = new FakeSmtpServer()) {
+            server.replyToMail("2");
+            SmtpConnection connection = SmtpConnection.open(settings(server), (nanos, messages, bytes) -> { });
+
+            IOException error = assertThrows(IOException.class,
+                    () -> connection.send(List.of(transaction("Hello", "ok@example.com"))));
+            assertTrue(error.getMessage().startsWith("Malformed SMTP reply"), error.getMessage());
+            connection.close();
+        }
+    }
+
+    static SmtpConnection.Settings settings(FakeSmtpServer server) {
+        Properties properties = new Properties();
+        properties.setProperty("mail.smtp.timeout", "5000");
+        return new SmtpConnection.Settings("127.0.0.1", server.port(), "smtp", properties, null, null, "client.test");
+    }
+
+    private static SmtpConnection.Transaction transaction(String content, String... recipients) throws AddressException {
+        InternetAddress[] to = new InternetAddress[recipients.length];
+        for (int i = 0; i < recipients.length; i++) {
+            to[i] = new InternetAddress(recipients[i]);
+        }
+        return new SmtpConnection.Transaction("sender@example.com", to,
+                (content + "\r\n").getBytes(StandardCharsets.UTF_8), new CompletableFuture<>());
+    }
+
+    private static SMTPSendFailedException sendFailure(SmtpConnection.Transaction transaction) {
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> transaction.result().get(5, TimeUnit.SECONDS));
+        return assertInstanceOf(SMTPSendFailedException.class, error.getCause());
+    }
+}
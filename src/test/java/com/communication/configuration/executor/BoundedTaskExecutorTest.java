@@ -0,0 +1,42 @@
+package com.communication.configuration.executor;
+
+import com.communication.configuration.AsyncProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BoundedTaskExecutorTest {
+
+    private BoundedTaskExecutor executor;
+
+    @BeforeEach
+    void start() {
+        executor = new BoundedTaskExecutor("test-", new AsyncProperties.Pool());
+        executor.initialize();
+    }
+
+    @AfterEach
+    void stop() {
+        executor.shutdown();
+    }
+
+    @Test
+    void timesQueueWaitForEveryEntryPoint() throws Exception {
+        AtomicInteger timed = new AtomicInteger();
+        executor.setQueueWaitListener(nanos -> timed.incrementAndGet());
+
+        executor.execute(() -> { });
+        executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        executor.submit(() -> "done").get(5, TimeUnit.SECONDS);
+        executor.submitCompletable(() -> "done").get(5, TimeUnit.SECONDS);
+        executor.getThreadPoolExecutor().shutdown();
+        executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS);
+
+        assertEquals(4, timed.get());
+    }
+}
@@ -0,0 +1,141 @@
+package com.communication.configuration.executor;
+
+import com.communication.configuration.AsyncProperties;
+import com.communication.model.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriorityLaneExecutorTest {
+
+    private PriorityLaneExecutor executor;
+
+    @AfterEach
+    void stop() {
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    void freeThreadTakesTheEarliestDeadline() throws Exception {
+        executor = executor(1, 0, 0, lanes());
+        CountDownLatch blocker = block(Priority.BULK);
+        List<Priority> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        for (Priority priority : List.of(Priority.BULK, Priority.TRANSACTIONAL, Priority.CRITICAL)) {
+            executor.lane(priority).execute(() -> {
+                order.add(priority);
+                done.countDown();
+            });
+        }
+
+        blocker.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(Priority.CRITICAL, Priority.TRANSACTIONAL, Priority.BULK), order);
+    }
+
+    @Test
+    void overdueBulkTaskIsNotStarved() throws Exception {
+        AsyncProperties.Lanes lanes = lanes();
+        lanes.setBulkSlo(Duration.ofMillis(1));
+        executor = executor(1, 0, 0, lanes);
+        CountDownLatch blocker = block(Priority.TRANSACTIONAL);
+        List<Priority> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        executor.lane(Priority.BULK).execute(() -> {
+            order.add(Priority.BULK);
+            done.countDown();
+        });
+        Thread.sleep(50);
+        executor.lane(Priority.CRITICAL).execute(() -> {
+            order.add(Priority.CRITICAL);
+            done.countDown();
+        });
+
+        blocker.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(Priority.BULK, Priority.CRITICAL), order);
+        assertEquals(1, executor.getSloMisses(Priority.BULK));
+    }
+
+    @Test
+    void reservedThreadRunsCriticalWorkWhileBulkWaits() throws Exception {
+        executor = executor(2, 1, 0, lanes());
+        CountDownLatch blocker = block(Priority.BULK);
+        CountDownLatch bulkRan = new CountDownLatch(1);
+        executor.lane(Priority.BULK).execute(bulkRan::countDown);
+        CountDownLatch criticalRan = new CountDownLatch(1);
+        executor.lane(Priority.CRITICAL).execute(criticalRan::countDown);
+
+        assertTrue(criticalRan.await(5, TimeUnit.SECONDS));
+        // Bulk may only use the one unreserved thread, which the blocker holds
+        assertFalse(bulkRan.await(100, TimeUnit.MILLISECONDS));
+        assertEquals(1, executor.getQueueDepth(Priority.BULK));
+        blocker.countDown();
+        assertTrue(bulkRan.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void fullLaneRejectsInsteadOfDropping() throws Exception {
+        AsyncProperties.Pool pool = new AsyncProperties.Pool(1, 1, 1);
+        pool.setRejectionPolicy(AsyncProperties.RejectionPolicy.ABORT);
+        executor = new PriorityLaneExecutor(new CustomizableThreadFactory("lanes-"), pool, lanes());
+        CountDownLatch blocker = block(Priority.BULK);
+        executor.lane(Priority.BULK).execute(() -> { });
+
+        assertThrows(RejectedExecutionException.class, () -> executor.lane(Priority.BULK).execute(() -> { }));
+        // Other lanes have their own queues
+        executor.lane(Priority.CRITICAL).execute(() -> { });
+        blocker.countDown();
+    }
+
+    @Test
+    void rejectsReservingEveryThread() {
+        assertThrows(IllegalArgumentException.class, () -> executor(2, 1, 1, lanes()));
+    }
+
+    /**
+     * Occupies one thread in {@code priority}'s lane until the returned latch is counted down.
+     */
+    private CountDownLatch block(Priority priority) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.lane(priority).execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private static PriorityLaneExecutor executor(int threads, int reservedCritical, int reservedTransactional,
+                                                 AsyncProperties.Lanes lanes) {
+        lanes.setReservedCritical(reservedCritical);
+        lanes.setReservedTransactional(reservedTransactional);
+        return new PriorityLaneExecutor(new CustomizableThreadFactory("lanes-"), new AsyncProperties.Pool(threads, threads, 100), lanes);
+    }
+
+    private static AsyncProperties.Lanes lanes() {
+        AsyncProperties.Lanes lanes = new AsyncProperties.Lanes();
+        lanes.setReservedCritical(0);
+        lanes.setReservedTransactional(0);
+        return lanes;
+    }
+}
@@ -0,0 +1,134 @@
+package com.communication.idempotency;
+
+import com.communication.model.SmsResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void duplicateSharesTheFirstSend() {
+        IdempotencyCache cache = cache(64, 1000);
+        AtomicInteger sends = new AtomicInteger();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = cache.deduplicate("sms", "order-1", () -> {
+            sends.incrementAndGet();
+            return pending;
+        }, result -> true);
+        CompletableFuture<String> second = cache.deduplicate("sms", "order-1", () -> {
+            sends.incrementAndGet();
+            return CompletableFuture.completedFuture("again");
+        }, result -> true);
+
+        assertSame(first, second);
+        pending.complete("sent");
+        assertEquals("sent", second.join());
+        assertEquals(1, sends.get());
+        // The same key in another scope is a different send
+        assertNull(cache.claim("email", "order-1", new CompletableFuture<>()));
+    }
+
+    @Test
+    void failedSendIsForgotten() {
+        IdempotencyCache cache = cache(64, 1000);
+        cache.deduplicate("sms", "order-1", () -> CompletableFuture.completedFuture("rejected"), result -> false);
+        cache.deduplicate("sms", "order-2", () -> CompletableFuture.failedFuture(new IllegalStateException("down")),
+                result -> true);
+
+        assertEquals(0, cache.size());
+        assertNull(cache.claim("sms", "order-1", new CompletableFuture<>()));
+        assertNull(cache.claim("sms", "order-2", new CompletableFuture<>()));
+    }
+
+    @Test
+    void fullStripeEvictsInInsertionOrder() {
+        IdempotencyCache cache = cache(1, 4);
+        for (int i = 0; i < 5; i++) {
+            assertNull(cache.claim("sms", "key-" + i, CompletableFuture.completedFuture(i)));
+        }
+
+        assertEquals(4, cache.size());
+        for (int i = 1; i < 5; i++) {
+            assertNotNull(cache.claim("sms", "key-" + i, new CompletableFuture<>()), "key-" + i);
+        }
+        assertNull(cache.claim("sms", "key-0", new CompletableFuture<>()));
+    }
+
+    @Test
+    void removalKeepsOtherKeysFindable() {
+        IdempotencyCache cache = cache(1, 2000);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[1000];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = CompletableFuture.completedFuture(i);
+            assertNull(cache.claim("sms", "key-" + i, futures[i]));
+        }
+        for (int i = 0; i < futures.length; i += 2) {
+            cache.release("sms", "key-" + i, futures[i]);
+        }
+
+        assertEquals(500, cache.size());
+        for (int i = 1; i < futures.length; i += 2) {
+            assertSame(futures[i], cache.claim("sms", "key-" + i, new CompletableFuture<>()), "key-" + i);
+        }
+    }
+
+    @Test
+    void releaseIgnoresAnotherSendsFuture() {
+        IdempotencyCache cache = cache(64, 1000);
+        CompletableFuture<String> first = new CompletableFuture<>();
+        cache.claim("sms", "order-1", first);
+
+        cache.release("sms", "order-1", new CompletableFuture<>());
+
+        assertSame(first, cache.claim("sms", "order-1", new CompletableFuture<>()));
+    }
+
+    @Test
+    void restoresCompletedSendsFromSnapshot() {
+        IdempotencyProperties properties = properties(64, 1000);
+        properties.setSnapshotFile(directory.resolve("idempotency.snapshot").toString());
+        properties.setSnapshotInterval(Duration.ZERO);
+        SmsResponse response = SmsResponse.builder().success(true).provider("twilio").messageId("SM1").build();
+
+        IdempotencyCache cache = new IdempotencyCache(properties);
+        cache.start();
+        cache.claim("sms", "sent", CompletableFuture.completedFuture(response));
+        cache.claim("sms", "in-flight", new CompletableFuture<>());
+        cache.stop();
+
+        IdempotencyCache restored = new IdempotencyCache(properties);
+        restored.start();
+        CompletableFuture<SmsResponse> remembered = restored.claim("sms", "sent", new CompletableFuture<>());
+        assertNotNull(remembered);
+        assertTrue(remembered.isDone());
+        assertEquals(response, remembered.join());
+        assertNull(restored.claim("sms", "in-flight", new CompletableFuture<>()));
+        restored.stop();
+    }
+
+    private static IdempotencyCache cache(int stripes, int maxEntries) {
+        return new IdempotencyCache(properties(stripes, maxEntries));
+    }
+
+    private static IdempotencyProperties properties(int stripes, int maxEntries) {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setStripes(stripes);
+        properties.setMaxEntries(maxEntries);
+        return properties;
+    }
+}
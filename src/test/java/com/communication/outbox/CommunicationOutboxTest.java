@@ -0,0 +1,247 @@
+package com.communication.outbox;
+
+import com.communication.exception.CircuitOpenException;
+import com.communication.model.Priority;
+import com.communication.model.SmsRequest;
+import com.communication.model.SmsResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommunicationOutboxTest {
+
+    private static final SmsRequest REQUEST = new SmsRequest("+15550100", "Your code is 123456", "+15550199");
+
+    @TempDir
+    Path directory;
+
+    private CommunicationOutbox outbox;
+
+    @AfterEach
+    void stop() {
+        if (outbox != null) {
+            outbox.stop();
+        }
+    }
+
+    @Test
+    void acknowledgesSuccessfulDelivery() {
+        outbox = outbox(3);
+        outbox.registerHandler("sms", SmsRequest.class, request -> CompletableFuture.completedFuture("sent"));
+
+        assertEquals("sent", outbox.submit("sms", REQUEST).orTimeout(5, TimeUnit.SECONDS).join());
+        assertEquals(0, outbox.getUnacknowledged());
+    }
+
+    @Test
+    void acknowledgesPermanentFailure() {
+        outbox = outbox(3);
+        AtomicInteger attempts = new AtomicInteger();
+        outbox.registerHandler("sms", SmsRequest.class, request -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalArgumentException("invalid number"));
+        });
+
+        CompletableFuture<Object> result = outbox.submit("sms", REQUEST);
+        assertThrows(CompletionException.class, () -> result.orTimeout(5, TimeUnit.SECONDS).join());
+        assertEquals(1, attempts.get());
+        assertEquals(0, outbox.getUnacknowledged());
+    }
+
+    @Test
+    void redeliversTransientFailureUntilItSucceeds() {
+        outbox = outbox(3);
+        AtomicInteger attempts = new AtomicInteger();
+        outbox.registerHandler("sms", SmsRequest.class, request -> attempts.incrementAndGet() < 3
+                ? CompletableFuture.failedFuture(new IOException("connection reset"))
+                : CompletableFuture.completedFuture("sent"));
+
+        assertEquals("sent", outbox.submit("sms", REQUEST).orTimeout(5, TimeUnit.SECONDS).join());
+        assertEquals(3, attempts.get());
+        assertEquals(0, outbox.getUnacknowledged());
+    }
+
+    @Test
+    void leavesEntryForReplayOnceAttemptsAreExhausted() throws Exception {
+        outbox = outbox(2);
+        outbox.registerHandler("sms", SmsRequest.class,
+                request -> CompletableFuture.failedFuture(new CircuitOpenException("twilio")));
+
+        CompletableFuture<Object> result = outbox.submit("sms", REQUEST);
+        assertThrows(CompletionException.class, () -> result.orTimeout(5, TimeUnit.SECONDS).join());
+        assertEquals(1, outbox.getUnacknowledged());
+        outbox.stop();
+
+        outbox = outbox(2);
+        CompletableFuture<SmsRequest> replayed = new CompletableFuture<>();
+        outbox.registerHandler("sms", SmsRequest.class, request -> {
+            replayed.complete(request);
+            return CompletableFuture.completedFuture("sent");
+        });
+        outbox.start();
+        assertEquals(REQUEST.getTo(), replayed.get(5, TimeUnit.SECONDS).getTo());
+    }
+
+    @Test
+    void redeliversRetryableFailureResult() {
+        outbox = outbox(3);
+        AtomicInteger attempts = new AtomicInteger();
+        outbox.registerHandler("sms", SmsRequest.class, request -> CompletableFuture.completedFuture(
+                        SmsResponse.builder().success(attempts.incrementAndGet() > 1).retryable(true).build()),
+                response -> !response.isSuccess() && response.isRetryable());
+
+        SmsResponse response = outbox.<SmsResponse>submit("sms", REQUEST).orTimeout(5, TimeUnit.SECONDS).join();
+        assertTrue(response.isSuccess());
+        assertEquals(2, attempts.get());
+        assertEquals(0, outbox.getUnacknowledged());
+    }
+
+    @Test
+    void deliversMoreUrgentEntriesFirst() throws Exception {
+        outbox = outbox(1);
+        CompletableFuture<Object> gate = new CompletableFuture<>();
+        List<String> order = new CopyOnWriteArrayList<>();
+        outbox.registerHandler("sms", SmsRequest.class, request -> {
+            if (request.getTo().equals("blocker")) {
+                // Holds the only worker until the other entries are queued
+                gate.join();
+            }
+            order.add(request.getTo());
+            return CompletableFuture.completedFuture("sent");
+        });
+
+        CompletableFuture<Object> blocker = outbox.submit("sms", new SmsRequest("blocker", "hold", null));
+        List<CompletableFuture<Object>> sends = new ArrayList<>();
+        for (Priority priority : List.of(Priority.BULK, Priority.TRANSACTIONAL, Priority.CRITICAL)) {
+            SmsRequest request = new SmsRequest(priority.name(), "text", null);
+            request.setPriority(priority);
+            sends.add(outbox.submit("sms", request, priority));
+        }
+        Thread.sleep(100);
+        gate.complete(null);
+
+        blocker.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("blocker", "CRITICAL", "TRANSACTIONAL", "BULK"), order);
+    }
+
+    @Test
+    void releasesPayloadOnlyOnceAcknowledged() throws Exception {
+        outbox = outbox(2);
+        List<String> released = new CopyOnWriteArrayList<>();
+        outbox.registerHandler("sms", SmsRequest.class, request -> request.getTo().equals("retry")
+                        ? CompletableFuture.failedFuture(new IOException("connection reset"))
+                        : CompletableFuture.completedFuture("sent"),
+                result -> false, request -> released.add(request.getTo()));
+
+        outbox.submit("sms", REQUEST).get(5, TimeUnit.SECONDS);
+        CompletableFuture<Object> exhausted = outbox.submit("sms", new SmsRequest("retry", "text", null));
+        assertThrows(ExecutionException.class, () -> exhausted.get(5, TimeUnit.SECONDS));
+
+        // The exhausted entry is replayed on restart, so whatever it refers to must survive
+        assertEquals(List.of(REQUEST.getTo()), released);
+        assertTrue(Files.isDirectory(outbox.getAttachmentDirectory()));
+    }
+
+    @Test
+    void failsSubmitAfterStop() {
+        outbox = outbox(3);
+        outbox.registerHandler("sms", SmsRequest.class, request -> CompletableFuture.completedFuture("sent"));
+        outbox.stop();
+
+        CompletableFuture<Object> result = outbox.submit("sms", REQUEST);
+        assertThrows(CompletionException.class, () -> result.orTimeout(5, TimeUnit.SECONDS).join());
+    }
+
+    @Test
+    void leavesEntrySubmittedWhileStoppingForReplay() throws Exception {
+        outbox = outbox(3);
+        CompletableFuture<Object> gate = new CompletableFuture<>();
+        CompletableFuture<Void> blocking = new CompletableFuture<>();
+        outbox.registerHandler("sms", SmsRequest.class, request -> {
+            blocking.complete(null);
+            gate.join();
+            return CompletableFuture.completedFuture("sent");
+        });
+        CompletableFuture<Object> blocker = outbox.submit("sms", new SmsRequest("blocker", "hold", null));
+        blocking.get(5, TimeUnit.SECONDS);
+
+        // Stopping waits for the busy worker, so the log is still open but the workers are shut down
+        Thread stopping = new Thread(outbox::stop);
+        stopping.start();
+        while (outbox.isRunning()) {
+            Thread.onSpinWait();
+        }
+        Thread.sleep(100);
+        CompletableFuture<Object> result = outbox.submit("sms", REQUEST);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        gate.complete(null);
+        blocker.get(5, TimeUnit.SECONDS);
+        stopping.join(5000);
+
+        outbox = outbox(3);
+        CompletableFuture<SmsRequest> replayed = new CompletableFuture<>();
+        outbox.registerHandler("sms", SmsRequest.class, request -> {
+            replayed.complete(request);
+            return CompletableFuture.completedFuture("sent");
+        });
+        outbox.start();
+        assertEquals(REQUEST.getTo(), replayed.get(5, TimeUnit.SECONDS).getTo());
+    }
+
+    @Test
+    void failsBackingOffDeliveryOnStop() throws Exception {
+        outbox = outbox(3, Duration.ofMinutes(1));
+        CompletableFuture<Void> attempted = new CompletableFuture<>();
+        outbox.registerHandler("sms", SmsRequest.class, request -> {
+            attempted.complete(null);
+            return CompletableFuture.failedFuture(new IOException("connection reset"));
+        });
+
+        CompletableFuture<Object> result = outbox.submit("sms", REQUEST);
+        attempted.get(5, TimeUnit.SECONDS);
+        Thread.sleep(50);
+        outbox.stop();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertEquals(1, outbox.getUnacknowledged());
+    }
+
+    private CommunicationOutbox outbox(int maxAttempts) {
+        return outbox(maxAttempts, Duration.ofMillis(10));
+    }
+
+    private CommunicationOutbox outbox(int maxAttempts, Duration initialBackoff) {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofKilobytes(64));
+        properties.setGroupCommitInterval(Duration.ZERO);
+        properties.setMaxAttempts(maxAttempts);
+        properties.setInitialBackoff(initialBackoff);
+        properties.setMaxBackoff(initialBackoff.multipliedBy(5));
+        properties.setWorkerThreads(1);
+        return new CommunicationOutbox(properties);
+    }
+}
@@ -0,0 +1,120 @@
+package com.communication.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxLogTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysOnlyUnacknowledgedEntriesInAppendOrder() throws Exception {
+        try (OutboxLog log = open()) {
+            long first = log.append("sms", bytes("one")).join();
+            long second = log.append("email", bytes("two")).join();
+            long third = log.append("sms", bytes("three")).join();
+            log.acknowledge(second);
+            assertEquals(2, log.getUnacknowledged());
+            assertTrue(first < second && second < third);
+        }
+
+        try (OutboxLog log = open()) {
+            List<OutboxLog.Entry> recovered = log.getRecovered();
+            assertEquals(2, recovered.size());
+            assertEquals("sms", recovered.get(0).getChannel());
+            assertArrayEquals(bytes("one"), recovered.get(0).getPayload());
+            assertArrayEquals(bytes("three"), recovered.get(1).getPayload());
+            assertEquals(2, log.getUnacknowledged());
+        }
+    }
+
+    @Test
+    void continuesSequencesAfterRecovery() throws Exception {
+        long last;
+        try (OutboxLog log = open()) {
+            log.append("sms", bytes("one")).join();
+            last = log.append("sms", bytes("two")).join();
+        }
+        try (OutboxLog log = open()) {
+            long next = log.append("sms", bytes("three")).join();
+            assertTrue(next > last);
+            log.getRecovered().forEach(entry -> log.acknowledge(entry.getSequence()));
+            log.acknowledge(next);
+            assertEquals(0, log.getUnacknowledged());
+        }
+        try (OutboxLog log = open()) {
+            assertTrue(log.getRecovered().isEmpty());
+        }
+    }
+
+    @Test
+    void ignoresTornRecordAtEndOfSegment() throws Exception {
+        try (OutboxLog log = open()) {
+            log.append("sms", bytes("kept")).join();
+            log.append("sms", bytes("torn")).join();
+        }
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            channel.read(length, 0);
+            int secondRecord = length.flip().getInt();
+            // Corrupt the second record's payload so its checksum no longer matches
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), secondRecord + 17 + 2 + 3);
+        }
+
+        try (OutboxLog log = open()) {
+            assertEquals(1, log.getRecovered().size());
+            assertArrayEquals(bytes("kept"), log.getRecovered().get(0).getPayload());
+        }
+    }
+
+    @Test
+    void deletesSegmentsOnceEveryEntryIsAcknowledged() throws Exception {
+        byte[] payload = new byte[1000];
+        try (OutboxLog log = open()) {
+            long[] sequences = new long[10];
+            for (int i = 0; i < sequences.length; i++) {
+                sequences[i] = log.append("sms", payload).join();
+            }
+            assertTrue(segments().size() > 1);
+            for (long sequence : sequences) {
+                log.acknowledge(sequence);
+            }
+            assertEquals(1, segments().size());
+        }
+        try (OutboxLog log = open()) {
+            assertTrue(log.getRecovered().isEmpty());
+        }
+    }
+
+    private OutboxLog open() throws IOException {
+        return new OutboxLog(directory, SEGMENT_SIZE, 0);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
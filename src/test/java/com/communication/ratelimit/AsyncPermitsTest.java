@@ -0,0 +1,49 @@
+package com.communication.ratelimit;
+
+import com.communication.model.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncPermitsTest {
+
+    @Test
+    void servesMoreUrgentWaitersFirst() {
+        AsyncPermits permits = new AsyncPermits(1);
+        Runnable held = permits.acquire(Priority.BULK).join();
+        CompletableFuture<Runnable> bulk = permits.acquire(Priority.BULK);
+        CompletableFuture<Runnable> transactional = permits.acquire(null);
+        CompletableFuture<Runnable> critical = permits.acquire(Priority.CRITICAL);
+        assertEquals(3, permits.getQueueDepth());
+
+        held.run();
+        assertTrue(critical.isDone());
+        assertFalse(transactional.isDone() || bulk.isDone());
+
+        critical.join().run();
+        assertTrue(transactional.isDone());
+        assertFalse(bulk.isDone());
+
+        transactional.join().run();
+        assertTrue(bulk.isDone());
+    }
+
+    @Test
+    void cancelledWaiterHandsItsPermitOn() {
+        AsyncPermits permits = new AsyncPermits(1);
+        Runnable held = permits.acquire(Priority.CRITICAL).join();
+        CompletableFuture<Runnable> cancelled = permits.acquire(Priority.CRITICAL);
+        CompletableFuture<Runnable> next = permits.acquire(Priority.BULK);
+        cancelled.cancel(false);
+
+        held.run();
+        assertTrue(next.isDone());
+        // Releasing twice must not mint a second permit
+        held.run();
+        assertFalse(permits.acquire(Priority.CRITICAL).isDone());
+    }
+}
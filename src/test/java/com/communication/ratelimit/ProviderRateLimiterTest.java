@@ -0,0 +1,100 @@
+package com.communication.ratelimit;
+
+import com.communication.configuration.message.RateLimitProperties;
+import com.communication.exception.RateLimitExceededException;
+import com.communication.model.Priority;
+import com.communication.model.SmsRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProviderRateLimiterTest {
+
+    @Test
+    void keysSenderLimitOnConfiguredSender() {
+        ProviderRateLimiter limiter = new ProviderRateLimiter("twilio", "+15550199", perSender(1));
+
+        assertEquals(0, limiter.reserve(request(null)));
+        // The provider sends from its configured number whatever the request says
+        assertThrows(RateLimitExceededException.class, () -> limiter.reserve(request("+15550123")));
+    }
+
+    @Test
+    void keysSenderLimitOnRequestWithoutConfiguredSender() {
+        ProviderRateLimiter limiter = new ProviderRateLimiter("sns", null, perSender(1));
+
+        assertEquals(0, limiter.reserve(request("+15550001")));
+        assertEquals(0, limiter.reserve(request("+15550002")));
+        assertThrows(RateLimitExceededException.class, () -> limiter.reserve(request("+15550001")));
+    }
+
+    @Test
+    void accountRejectionDoesNotConsumeSenderToken() throws InterruptedException {
+        RateLimitProperties properties = perSender(1);
+        properties.setPerSenderBurst(2);
+        properties.setMessagesPerSecond(20);
+        ProviderRateLimiter limiter = new ProviderRateLimiter("sns", null, properties);
+
+        assertEquals(0, limiter.reserve(request("+15550001")));
+        assertThrows(RateLimitExceededException.class, () -> limiter.reserve(request("+15550001")));
+        Thread.sleep(60);
+        // The account has a token again, and the sender still has its second one
+        assertEquals(0, limiter.reserve(request("+15550001")));
+    }
+
+    @Test
+    void cancelReturnsAccountAndSenderTokens() {
+        RateLimitProperties properties = perSender(1);
+        properties.setMessagesPerSecond(1);
+        ProviderRateLimiter limiter = new ProviderRateLimiter("twilio", "+15550199", properties);
+
+        assertEquals(0, limiter.reserve(request(null)));
+        limiter.cancel(request(null));
+        assertEquals(0, limiter.reserve(request(null)));
+        assertThrows(RateLimitExceededException.class, () -> limiter.reserve(request(null)));
+    }
+
+    @Test
+    void bulkDoesNotBookTokensAheadOfUrgentSends() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMessagesPerSecond(20);
+        properties.setMaxWait(Duration.ofSeconds(5));
+        ProviderRateLimiter limiter = new ProviderRateLimiter("sns", null, properties);
+        assertEquals(0, limiter.reserve(request(null)));
+
+        // A waiting bulk send holds no token, so the next urgent send is only behind the first one
+        CompletableFuture<Long> bulk = limiter.reservation(request(null), Priority.BULK).toFuture();
+        long urgentWait = limiter.reservation(request(null), Priority.CRITICAL).block();
+        assertTrue(urgentWait <= 50_000_000L, "waited " + urgentWait);
+        assertFalse(bulk.isDone());
+        assertEquals(0L, bulk.join());
+    }
+
+    @Test
+    void bulkGivesUpAfterMaxWait() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMessagesPerSecond(1);
+        properties.setMaxWait(Duration.ofMillis(100));
+        ProviderRateLimiter limiter = new ProviderRateLimiter("sns", null, properties);
+        assertEquals(0, limiter.reserve(request(null)));
+
+        assertThrows(RateLimitExceededException.class, () -> limiter.reservation(request(null), Priority.BULK).block());
+    }
+
+    private static RateLimitProperties perSender(double rate) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setPerSenderMessagesPerSecond(rate);
+        properties.setMaxWait(Duration.ZERO);
+        return properties;
+    }
+
+    private static SmsRequest request(String from) {
+        return new SmsRequest("+15550100", "Your code is 123456", from);
+    }
+}
@@ -0,0 +1,83 @@
+package com.communication.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstIsAvailableImmediately() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.reserve(0));
+        }
+    }
+
+    @Test
+    void delaysReservationsBeyondTheBurstByTheInterval() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        assertEquals(0, bucket.reserve(SECOND));
+        long wait = bucket.reserve(SECOND);
+        assertTrue(wait > 90_000_000L && wait <= 100_000_000L, "waited " + wait);
+        long next = bucket.reserve(SECOND);
+        assertTrue(next > wait && next <= 200_000_000L, "waited " + next);
+    }
+
+    @Test
+    void rejectsWithoutReservingWhenTheWaitExceedsTheMaximum() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(-1, bucket.reserve(0));
+        assertEquals(-1, bucket.reserve(0));
+        long wait = bucket.reserve(2 * SECOND);
+        assertTrue(wait > 0 && wait <= SECOND, "waited " + wait);
+    }
+
+    @Test
+    void cancelledTokenCanBeReservedAgain() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        assertEquals(0, bucket.reserve(0));
+        bucket.cancel();
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(-1, bucket.reserve(0));
+    }
+
+    @Test
+    void concurrentReservationsNeverExceedTheBurst() throws Exception {
+        TokenBucket bucket = new TokenBucket(0.001, 50);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            for (int t = 0; t < 8; t++) {
+                threads.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (int i = 0; i < 100; i++) {
+                        if (bucket.reserve(0) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            threads.shutdown();
+            assertTrue(threads.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(50, granted.get());
+    }
+}
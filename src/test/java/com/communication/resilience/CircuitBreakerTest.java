@@ -0,0 +1,176 @@
+package com.communication.resilience;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker("twilio", 3, OPEN_NANOS);
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        CircuitBreaker breaker = new CircuitBreaker("twilio", 3, OPEN_NANOS);
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void letsOneProbeThroughAfterTheOpenPeriod() throws InterruptedException {
+        CircuitBreaker breaker = open();
+        Thread.sleep(30);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void closesWhenTheProbeSucceeds() throws InterruptedException {
+        CircuitBreaker breaker = open();
+        Thread.sleep(30);
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void reopensWhenTheProbeFails() throws InterruptedException {
+        CircuitBreaker breaker = open();
+        Thread.sleep(30);
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void onlyOneConcurrentCallerProbes() throws Exception {
+        CircuitBreaker breaker = open();
+        Thread.sleep(30);
+        AtomicInteger probes = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 8; i++) {
+                threads.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (breaker.tryAcquire()) {
+                        probes.incrementAndGet();
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            threads.shutdown();
+            assertTrue(threads.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, probes.get());
+    }
+
+    @Test
+    void releasedProbeLetsTheNextCallerProbe() throws InterruptedException {
+        CircuitBreaker breaker = open();
+        Thread.sleep(30);
+        assertTrue(breaker.tryAcquire());
+
+        breaker.release();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void probeThatNeverReportsIsReplacedAfterTheOpenPeriod() throws InterruptedException {
+        CircuitBreaker breaker = open();
+        Thread.sleep(30);
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        Thread.sleep(30);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void cancelledReactiveProbeDoesNotLeaveTheCircuitHalfOpen() throws InterruptedException {
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.setFailureThreshold(1);
+        properties.setOpenDuration(Duration.ofMillis(20));
+        Resilience resilience = new Resilience(properties);
+        CircuitBreaker breaker = resilience.circuitBreaker("twilio");
+        breaker.onFailure();
+        Thread.sleep(30);
+        CircuitBreaker.State[] probing = new CircuitBreaker.State[1];
+
+        Disposable probe = resilience.executeReactive("twilio", () -> {
+            probing[0] = breaker.getState();
+            return Mono.<String>never();
+        }, result -> false).subscribe();
+        probe.dispose();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, probing[0]);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals("sent", resilience.executeReactive("twilio", () -> Mono.just("sent"), result -> false).block());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void probeEndingInAnErrorReleasesItsSlot() throws InterruptedException {
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.setFailureThreshold(1);
+        properties.setOpenDuration(Duration.ofMillis(20));
+        Resilience resilience = new Resilience(properties);
+        resilience.circuitBreaker("twilio").onFailure();
+        Thread.sleep(30);
+
+        assertThrows(AssertionError.class, () -> resilience.run("twilio", () -> {
+            throw new AssertionError("boom");
+        }));
+        assertEquals(CircuitBreaker.State.OPEN, resilience.circuitBreaker("twilio").getState());
+        resilience.run("twilio", () -> { });
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.circuitBreaker("twilio").getState());
+    }
+
+    private static CircuitBreaker open() {
+        CircuitBreaker breaker = new CircuitBreaker("twilio", 1, OPEN_NANOS);
+        breaker.onFailure();
+        return breaker;
+    }
+}
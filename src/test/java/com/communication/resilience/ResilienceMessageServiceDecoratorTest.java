@@ -0,0 +1,96 @@
+package com.communication.resilience;
+
+import com.communication.model.SmsRequest;
+import com.communication.model.SmsResponse;
+import com.communication.service.MessageService;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ResilienceMessageServiceDecoratorTest {
+
+    private static final List<SmsRequest> BATCH = List.of(
+            new SmsRequest("+15550101", "Sale today", null),
+            new SmsRequest("+15550102", "Sale today", null),
+            new SmsRequest("+15550103", "Sale today", null));
+
+    @Test
+    void bulkFailuresOpenTheCircuit() {
+        Resilience resilience = resilience(1);
+        FailingBulkService provider = new FailingBulkService();
+        MessageService service = new ResilienceMessageServiceDecorator(resilience).decorate(provider, "bulk");
+
+        List<SmsResponse> responses = service.sendMessages(BATCH).collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(3, responses.size());
+        responses.forEach(response -> assertFalse(response.isSuccess()));
+        assertEquals(CircuitBreaker.State.OPEN, resilience.circuitBreaker("bulk").getState());
+        // Once the bulk results opened the circuit, the per-message retries were refused without a call
+        assertEquals(0, provider.singleSends.get());
+    }
+
+    @Test
+    void openCircuitIsCheckedPerMessageForNativeBulkProviders() {
+        Resilience resilience = resilience(1);
+        resilience.circuitBreaker("bulk").onFailure();
+        FailingBulkService provider = new FailingBulkService();
+        MessageService service = new ResilienceMessageServiceDecorator(resilience).decorate(provider, "bulk");
+
+        List<SmsResponse> responses = service.sendMessages(BATCH).collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(3, responses.size());
+        assertEquals(0, provider.bulkSends.get());
+        assertEquals(0, provider.singleSends.get());
+    }
+
+    private static Resilience resilience(int failureThreshold) {
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.setFailureThreshold(failureThreshold);
+        properties.setMaxAttempts(1);
+        return new Resilience(properties);
+    }
+
+    private static final class FailingBulkService implements MessageService {
+        private final AtomicInteger bulkSends = new AtomicInteger();
+        private final AtomicInteger singleSends = new AtomicInteger();
+
+        @Override
+        public String getProvider() {
+            return "bulk";
+        }
+
+        @Override
+        public SmsResponse sendMessage(SmsRequest request) {
+            singleSends.incrementAndGet();
+            return failure(request);
+        }
+
+        @Override
+        public CompletableFuture<SmsResponse> sendMessageAsync(SmsRequest request) {
+            return CompletableFuture.completedFuture(sendMessage(request));
+        }
+
+        @Override
+        public Flux<SmsResponse> sendMessages(Collection<SmsRequest> requests) {
+            bulkSends.incrementAndGet();
+            return Flux.fromIterable(requests).map(FailingBulkService::failure);
+        }
+
+        @Override
+        public boolean isNativeBulk() {
+            return true;
+        }
+
+        private static SmsResponse failure(SmsRequest request) {
+            return SmsResponse.builder().success(false).retryable(true).provider("bulk").to(request.getTo()).build();
+        }
+    }
+}
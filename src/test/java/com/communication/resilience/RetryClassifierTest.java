@@ -0,0 +1,60 @@
+package com.communication.resilience;
+
+import com.communication.exception.CircuitOpenException;
+import jakarta.mail.internet.InternetAddress;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryClassifierTest {
+
+    @Test
+    void transientSmtpRepliesAreRetryable() throws Exception {
+        assertTrue(RetryClassifier.isRetryable(sendFailed(451)));
+        assertTrue(RetryClassifier.isRetryable(new SMTPAddressFailedException(
+                new InternetAddress("later@example.com"), "RCPT TO", 450, "450 mailbox busy")));
+    }
+
+    @Test
+    void permanentSmtpRepliesAreNot() throws Exception {
+        assertFalse(RetryClassifier.isRetryable(sendFailed(554)));
+        assertFalse(RetryClassifier.isRetryable(new SMTPAddressFailedException(
+                new InternetAddress("bad@example.com"), "RCPT TO", 550, "550 no such user")));
+    }
+
+    @Test
+    void looksThroughWrappingExceptions() {
+        assertTrue(RetryClassifier.isRetryable(new MailSendException("Failed to send", sendFailed(421))));
+        assertTrue(RetryClassifier.isRetryable(new RuntimeException(new IOException("connection reset"))));
+    }
+
+    @Test
+    void looksIntoFailedMessagesOfAMailSendException() {
+        // What JavaMailSenderImpl and the pooled and pipelining senders throw: no cause, failures in a map
+        Map<Object, Exception> transientFailure = new LinkedHashMap<>();
+        transientFailure.put(new Object(), sendFailed(451));
+        assertTrue(RetryClassifier.isRetryable(new MailSendException(transientFailure)));
+
+        Map<Object, Exception> permanentFailure = new LinkedHashMap<>();
+        permanentFailure.put(new Object(), sendFailed(554));
+        assertFalse(RetryClassifier.isRetryable(new MailSendException(permanentFailure)));
+        assertTrue(RetryClassifier.isRetryable(new RuntimeException(new MailSendException(transientFailure))));
+    }
+
+    @Test
+    void openCircuitIsNotRetried() {
+        assertFalse(RetryClassifier.isRetryable(new CircuitOpenException("twilio")));
+    }
+
+    private static SMTPSendFailedException sendFailed(int code) {
+        return new SMTPSendFailedException("DATA", code, code + " try again later", null, null, null, null);
+    }
+}
@@ -0,0 +1,50 @@
+package com.communication.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProviderHealthTest {
+
+    private static final Duration ERROR_PENALTY = Duration.ofSeconds(10);
+
+    @Test
+    void fastFailingProviderScoresWorseThanSlowHealthyOne() {
+        ProviderHealth failing = new ProviderHealth(0.2, ERROR_PENALTY);
+        ProviderHealth healthy = new ProviderHealth(0.2, ERROR_PENALTY);
+        for (int i = 0; i < 20; i++) {
+            failing.record(TimeUnit.MILLISECONDS.toNanos(5), false);
+            healthy.record(TimeUnit.MILLISECONDS.toNanos(200), true);
+        }
+        assertTrue(failing.score() > healthy.score(), failing.score() + " vs " + healthy.score());
+    }
+
+    @Test
+    void occasionalErrorOutweighsModestLatencyAdvantage() {
+        ProviderHealth flaky = new ProviderHealth(0.2, ERROR_PENALTY);
+        ProviderHealth steady = new ProviderHealth(0.2, ERROR_PENALTY);
+        for (int i = 0; i < 20; i++) {
+            flaky.record(TimeUnit.MILLISECONDS.toNanos(50), i % 10 != 0);
+            steady.record(TimeUnit.MILLISECONDS.toNanos(150), true);
+        }
+        assertTrue(flaky.score() > steady.score(), flaky.score() + " vs " + steady.score());
+    }
+
+    @Test
+    void failuresDoNotFeedLatency() {
+        ProviderHealth health = new ProviderHealth(0.5, ERROR_PENALTY);
+        health.record(TimeUnit.MILLISECONDS.toNanos(100), true);
+        health.record(TimeUnit.MILLISECONDS.toNanos(1), false);
+        assertEquals(100_000, health.getLatencyMicros(), 0.001);
+        assertEquals(0.5, health.getErrorRate(), 0.001);
+    }
+
+    @Test
+    void unusedProviderScoresZero() {
+        assertEquals(0, new ProviderHealth(0.2, ERROR_PENALTY).score());
+    }
+}
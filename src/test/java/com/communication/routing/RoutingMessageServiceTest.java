@@ -0,0 +1,154 @@
+package com.communication.routing;
+
+import com.communication.exception.CircuitOpenException;
+import com.communication.model.SmsRequest;
+import com.communication.model.SmsResponse;
+import com.communication.service.MessageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingMessageServiceTest {
+
+    private static final SmsRequest REQUEST = new SmsRequest("+15550100", "Your code is 123456", null);
+
+    /** The blocking, async and reactive paths, each of which routes on its own. */
+    private static final List<Function<RoutingMessageService, SmsResponse>> SENDS = List.of(
+            routing -> routing.sendMessage(REQUEST),
+            routing -> routing.sendMessageAsync(REQUEST).orTimeout(5, TimeUnit.SECONDS).join(),
+            routing -> routing.sendMessageReactive(REQUEST).block(Duration.ofSeconds(5)));
+
+    @Test
+    void failsOverOnTransientFailure() {
+        for (Function<RoutingMessageService, SmsResponse> send : SENDS) {
+            ScriptedProvider first = new ScriptedProvider("twilio", request -> {
+                throw new UncheckedIOException(new IOException("connection reset"));
+            });
+            ScriptedProvider second = new ScriptedProvider("sns", request -> sent("sns"));
+
+            assertEquals("sns", send.apply(routing(first, second)).getProvider());
+            assertEquals(1, first.calls.get());
+            assertEquals(1, second.calls.get());
+        }
+    }
+
+    @Test
+    void failsOverOnRetryableResponseAndOpenCircuit() {
+        ScriptedProvider throttled = new ScriptedProvider("bird", request -> SmsResponse.builder()
+                .success(false).provider("bird").error("429 Too Many Requests").retryable(true).build());
+        ScriptedProvider open = new ScriptedProvider("twilio", request -> {
+            throw new CircuitOpenException("Circuit for twilio is open");
+        });
+        ScriptedProvider healthy = new ScriptedProvider("sns", request -> sent("sns"));
+
+        assertEquals("sns", routing(throttled, open, healthy).sendMessage(REQUEST).getProvider());
+        assertEquals(1, healthy.calls.get());
+    }
+
+    @Test
+    void returnsPermanentRejectionWithoutFailover() {
+        SmsResponse rejected = SmsResponse.builder()
+                .success(false).provider("twilio").error("21211 invalid 'To' number").retryable(false).build();
+        for (Function<RoutingMessageService, SmsResponse> send : SENDS) {
+            ScriptedProvider second = new ScriptedProvider("sns", request -> sent("sns"));
+            RoutingMessageService routing = routing(new ScriptedProvider("twilio", request -> rejected), second);
+
+            assertSame(rejected, send.apply(routing));
+            assertEquals(0, second.calls.get());
+            // The provider answered, so the rejection does not count against its health
+            assertEquals(0, routing.getStats().get(0).getErrorRate());
+        }
+    }
+
+    @Test
+    void rethrowsNonRetryableErrorWithoutFailover() {
+        for (Function<RoutingMessageService, SmsResponse> send : SENDS) {
+            ScriptedProvider second = new ScriptedProvider("sns", request -> sent("sns"));
+            RoutingMessageService routing = routing(new ScriptedProvider("twilio", request -> {
+                throw new IllegalArgumentException("message body too long");
+            }), second);
+
+            RuntimeException error = assertThrows(RuntimeException.class, () -> send.apply(routing));
+            assertInstanceOf(IllegalArgumentException.class,
+                    error instanceof CompletionException ? error.getCause() : error);
+            assertEquals(0, second.calls.get());
+            assertEquals(0, routing.getStats().get(0).getErrorRate());
+        }
+    }
+
+    @Test
+    void transientFailureCountsAgainstTheProvider() {
+        ScriptedProvider first = new ScriptedProvider("twilio", request -> {
+            throw new UncheckedIOException(new IOException("connection reset"));
+        });
+        RoutingMessageService routing = routing(first, new ScriptedProvider("sns", request -> sent("sns")));
+
+        routing.sendMessage(REQUEST);
+        RoutingMessageService.RouteStats twilio = routing.getStats().stream()
+                .filter(stats -> stats.getProvider().equals("twilio")).findFirst().orElseThrow();
+        assertTrue(twilio.getErrorRate() > 0);
+        assertFalse(routing.getStats().stream()
+                .filter(stats -> stats.getProvider().equals("sns")).findFirst().orElseThrow().getErrorRate() > 0);
+    }
+
+    private static RoutingMessageService routing(MessageService... providers) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        for (MessageService provider : providers) {
+            beans.addBean(provider.getProvider(), provider);
+        }
+        RoutingProperties properties = new RoutingProperties();
+        properties.setExplorationRate(0);
+        return new RoutingMessageService(beans.getBeanProvider(MessageService.class), properties);
+    }
+
+    private static SmsResponse sent(String provider) {
+        return SmsResponse.builder().success(true).provider(provider).messageId("SM1").build();
+    }
+
+    private static final class ScriptedProvider implements MessageService {
+        private final String name;
+        private final Function<SmsRequest, SmsResponse> script;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private ScriptedProvider(String name, Function<SmsRequest, SmsResponse> script) {
+            this.name = name;
+            this.script = script;
+        }
+
+        @Override
+        public String getProvider() {
+            return name;
+        }
+
+        @Override
+        public SmsResponse sendMessage(SmsRequest request) {
+            calls.incrementAndGet();
+            return script.apply(request);
+        }
+
+        @Override
+        public CompletableFuture<SmsResponse> sendMessageAsync(SmsRequest request) {
+            try {
+                return CompletableFuture.completedFuture(sendMessage(request));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.communication.service.impl;
+
+import com.communication.model.SmsRequest;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BirdPayloadCodecTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void rootIdWinsOverEveryOtherCandidate() throws IOException {
+        assertEquals("root", extract("{\"messageId\":\"m\",\"data\":[{\"id\":\"d\"}],\"result\":{\"id\":\"n\"},\"id\":\"root\"}"));
+        assertEquals("123", extract("{\"id\":123}"));
+    }
+
+    @Test
+    void rootMessageIdWinsOverData() throws IOException {
+        assertEquals("m", extract("{\"data\":[{\"id\":\"d\"}],\"messageId\":\"m\"}"));
+    }
+
+    @Test
+    void firstDataElementIdWinsOverItsMessageId() throws IOException {
+        assertEquals("d", extract("{\"data\":[{\"messageId\":\"dm\",\"id\":\"d\"}]}"));
+        assertEquals("dm", extract("{\"data\":[{\"messageId\":\"dm\"},{\"id\":\"second\"}]}"));
+    }
+
+    @Test
+    void dataWinsOverAnEarlierNestedId() throws IOException {
+        assertEquals("dm", extract("{\"result\":{\"id\":\"nested\"},\"data\":[{\"messageId\":\"dm\"}]}"));
+    }
+
+    @Test
+    void fallsBackToTheFirstNestedIdInDocumentOrder() throws IOException {
+        assertEquals("n1", extract("{\"result\":{\"items\":[{\"id\":\"n1\"}]},\"other\":{\"id\":\"n2\"}}"));
+        assertEquals("inner", extract("{\"data\":[{\"message\":{\"id\":\"inner\"}}]}"));
+        assertEquals("x", extract("{\"data\":[[{\"id\":\"x\"}]]}"));
+    }
+
+    @Test
+    void skipsSubtreesThatCannotBeatTheCandidate() throws IOException {
+        assertEquals("n", extract("{\"result\":{\"id\":\"n\"},\"big\":{\"deep\":[1,2,{\"id\":\"other\"}]}}"));
+        assertEquals("root", extract("{\"result\":{\"id\":\"n\"},\"big\":{\"deep\":[{\"id\":\"other\"}]},\"id\":\"root\"}"));
+        assertEquals("d", extract("{\"data\":[{\"id\":\"d\"},{\"id\":\"e\",\"nested\":{\"id\":\"f\"}}],\"tail\":{\"id\":\"t\"}}"));
+    }
+
+    @Test
+    void returnsNullWithoutAnId() throws IOException {
+        assertNull(extract("{\"status\":\"accepted\",\"data\":[]}"));
+        assertNull(extract("{}"));
+        assertNull(BirdPayloadCodec.extractMessageId(DefaultDataBufferFactory.sharedInstance.allocateBuffer(0)));
+    }
+
+    @Test
+    void rejectsMalformedJson() {
+        assertThrows(JsonParseException.class, () -> extract("{\"messageId\":\"m\",}"));
+        assertThrows(JsonParseException.class, () -> extract("{\"data\":[{\"id\":}]}"));
+    }
+
+    @Test
+    void encodesTheBirdRequestBody() throws IOException {
+        DataBuffer body = BirdPayloadCodec.encode(List.of(
+                new SmsRequest("+15550101", "Caf\u00e9 \"special\" offer\n", null),
+                new SmsRequest("+15550102", "ignored", null)), DefaultDataBufferFactory.sharedInstance);
+
+        JsonNode root;
+        try (InputStream in = body.asInputStream(true)) {
+            root = MAPPER.readTree(in);
+        }
+        assertEquals("text", root.at("/body/type").asText());
+        assertEquals("Caf\u00e9 \"special\" offer\n", root.at("/body/text/text").asText());
+        JsonNode contacts = root.at("/receiver/contacts");
+        assertEquals(2, contacts.size());
+        assertEquals("+15550101", contacts.get(0).get("identifierValue").asText());
+        assertEquals("phonenumber", contacts.get(0).get("identifierKey").asText());
+        assertEquals("+15550102", contacts.get(1).get("identifierValue").asText());
+    }
+
+    @Test
+    void extractsFromADataBuffer() throws IOException {
+        DataBuffer body = DefaultDataBufferFactory.sharedInstance.wrap(
+                "{\"id\":\"msg-1\"}".getBytes(StandardCharsets.UTF_8));
+        assertEquals("msg-1", BirdPayloadCodec.extractMessageId(body));
+    }
+
+    private static String extract(String json) throws IOException {
+        return BirdPayloadCodec.extractMessageId(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,209 @@
+package com.communication.service.impl;
+
+import com.communication.configuration.email.FakeSmtpServer;
+import com.communication.configuration.email.MailConfig;
+import com.communication.idempotency.IdempotencyCache;
+import com.communication.metrics.CommunicationMetrics;
+import com.communication.model.EmailRequest;
+import com.communication.model.EmailResponse;
+import com.communication.model.PreparedEmail;
+import com.communication.outbox.CommunicationOutbox;
+import com.communication.resilience.Resilience;
+import com.communication.resilience.ResilienceProperties;
+import com.communication.service.support.AttachmentMetadataCache;
+import com.communication.template.TemplateEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailServiceImplTest {
+
+    private FakeSmtpServer server;
+    private MailConfig config;
+
+    @BeforeEach
+    void start() throws Exception {
+        server = new FakeSmtpServer();
+        config = new MailConfig();
+        config.setDefaultFrom("sender@example.com");
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        server.close();
+    }
+
+    @Test
+    void namesAttachmentsWithoutAFileName() throws Exception {
+        PreparedEmail email = service().prepareEmail("Subject", "<p>Hi</p>", "sender@example.com", null, List.of(
+                new ByteArrayResource(bytes("report")),
+                new InputStreamResource(new ByteArrayInputStream(bytes("stream")))));
+
+        assertEquals(3, email.getParts().size());
+        assertEquals("attachment", email.getParts().get(1).getFileName());
+        assertEquals("attachment", email.getParts().get(2).getFileName());
+    }
+
+    @Test
+    void mapsBatchFailuresToTheirRequests() throws Exception {
+        config.setBatchSize(2);
+
+        List<EmailResponse> responses = service().sendEmailBatch(List.of(
+                new EmailRequest("first@example.com", "Subject", "<p>Hi</p>"),
+                new EmailRequest("bad@example.com", "Subject", "<p>Hi</p>"),
+                new EmailRequest("two@example.com, three@example.com", "Subject", "<p>Hi</p>"),
+                new EmailRequest("second@example.com", "Subject", "<p>Hi</p>"),
+                new EmailRequest("third@example.com", "Subject", "<p>Hi</p>")));
+
+        assertEquals(List.of("first@example.com", "bad@example.com", "two@example.com, three@example.com",
+                "second@example.com", "third@example.com"), responses.stream().map(EmailResponse::getTo).toList());
+        assertEquals(List.of(true, false, false, true, true),
+                responses.stream().map(EmailResponse::isSuccess).toList());
+        assertNotNull(responses.get(0).getMessageId());
+        assertNotNull(responses.get(1).getError());
+        assertEquals(3, server.messages.size());
+        assertEquals(3, count("QUIT"));
+    }
+
+    @Test
+    void sendsOnePreparedMessagePerRecipient() throws Exception {
+        EmailServiceImpl service = service();
+        PreparedEmail email = service.prepareEmail("Subject", "<p>Shared body</p>", null, "Sender",
+                List.of(new ByteArrayResource(bytes("report"))));
+
+        List<EmailResponse> responses = service.sendPreparedEmail(email, List.of("first@example.com", "bad@example.com"));
+
+        assertEquals(List.of(true, false), responses.stream().map(EmailResponse::isSuccess).toList());
+        assertEquals(1, server.messages.size());
+        String message = server.messages.get(0);
+        assertTrue(message.contains("To: first@example.com"));
+        assertTrue(message.contains("From: Sender <sender@example.com>"));
+        assertTrue(message.contains("Shared body"));
+    }
+
+    @Test
+    void rendersTheTemplateForEachRecipient(@TempDir Path templates) throws Exception {
+        Files.writeString(templates.resolve("welcome.html"), "<p>Hi {{name}}</p>{{{signature}}}");
+        MailConfig.Template properties = new MailConfig.Template();
+        properties.setLocation(templates.toUri().toString());
+        EmailServiceImpl service = service(new TemplateEngine(properties, new DefaultResourceLoader()));
+
+        Map<String, Map<String, ?>> variables = new LinkedHashMap<>();
+        variables.put("ann@example.com", Map.of("name", "<Ann>", "signature", "<i>Team</i>"));
+        variables.put("bob@example.com", Map.of("name", "Bob"));
+        List<EmailResponse> responses = service.sendTemplatedEmailBatch("Welcome", "welcome", variables, null, null, null);
+
+        assertEquals(List.of(true, true), responses.stream().map(EmailResponse::isSuccess).toList());
+        assertEquals(2, server.messages.size());
+        assertTrue(server.messages.get(0).contains("<p>Hi &lt;Ann&gt;</p><i>Team</i>"));
+        assertTrue(server.messages.get(1).contains("<p>Hi Bob</p>"));
+        assertFalse(server.messages.get(1).contains("Team"));
+    }
+
+    @Test
+    void splitsBulkEnvelopesByDomainAndRecipientLimit() throws Exception {
+        config.setMaxRecipientsPerEnvelope(2);
+        PreparedEmail email = service().prepareEmail("Subject", "<p>Hi</p>", null, null, null);
+
+        List<EmailResponse> responses = service().sendPreparedEmailBulk(email, List.of("a1@example.com",
+                "x1@other.test", "a2@example.com", "a@b@c", "a3@example.com", "a4@example.com", "a5@example.com"),
+                "Subscribers:;");
+
+        assertEquals(List.of(true, true, true, false, true, true, true),
+                responses.stream().map(EmailResponse::isSuccess).toList());
+        assertEquals(Set.of(List.of("a1@example.com", "a2@example.com"), List.of("a3@example.com", "a4@example.com"),
+                List.of("a5@example.com"), List.of("x1@other.test")), Set.copyOf(envelopes()));
+        assertEquals(4, server.messages.size());
+        assertEquals(1, count("QUIT"));
+    }
+
+    @Test
+    void resendsOnlyTheDeferredRecipients() throws Exception {
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.setMaxAttempts(2);
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        EmailServiceImpl service = service(new Resilience(properties));
+        PreparedEmail email = service.prepareEmail("Subject", "<p>Hi</p>", null, null, null);
+
+        List<EmailResponse> responses = service.sendPreparedEmailBulk(email,
+                List.of("first@example.com", "busy@example.com", "bad@example.com"), null);
+
+        assertEquals(List.of(true, true, false), responses.stream().map(EmailResponse::isSuccess).toList());
+        assertEquals(List.of(List.of("first@example.com", "busy@example.com", "bad@example.com"),
+                List.of("busy@example.com")), envelopes());
+        assertEquals(2, server.messages.size());
+    }
+
+    private EmailServiceImpl service(Object... beans) throws Exception {
+        StaticListableBeanFactory factory = new StaticListableBeanFactory();
+        factory.addBean("mailConfig", config);
+        for (Object bean : beans) {
+            factory.addBean(bean.getClass().getSimpleName(), bean);
+        }
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(server.port());
+        Properties properties = new Properties();
+        properties.put("mail.smtp.sendpartial", "true");
+        properties.put("mail.smtp.timeout", "5000");
+        sender.setJavaMailProperties(properties);
+
+        EmailServiceImpl service = new EmailServiceImpl(sender, Runnable::run,
+                factory.getBeanProvider(CommunicationOutbox.class), factory.getBeanProvider(Resilience.class),
+                factory.getBeanProvider(CommunicationMetrics.class), factory.getBeanProvider(TemplateEngine.class),
+                factory.getBeanProvider(IdempotencyCache.class), factory.getBeanProvider(AttachmentMetadataCache.class),
+                factory.getBeanProvider(MailConfig.class));
+        Field maxSize = EmailServiceImpl.class.getDeclaredField("maxSize");
+        maxSize.setAccessible(true);
+        maxSize.set(service, "1MB");
+        service.init();
+        return service;
+    }
+
+    /**
+     * The {@code RCPT TO} addresses of each mail transaction the server saw.
+     */
+    private List<List<String>> envelopes() {
+        List<List<String>> envelopes = new ArrayList<>();
+        for (String command : server.commands) {
+            if (command.toUpperCase().startsWith("MAIL FROM")) {
+                envelopes.add(new ArrayList<>());
+            } else if (command.toUpperCase().startsWith("RCPT TO")) {
+                envelopes.get(envelopes.size() - 1).add(command.substring(command.indexOf('<') + 1, command.indexOf('>')));
+            }
+        }
+        return envelopes;
+    }
+
+    private long count(String prefix) {
+        return server.commands.stream().filter(command -> command.toUpperCase().startsWith(prefix)).count();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,76 @@
+package com.communication.template;
+
+import com.communication.configuration.email.MailConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TemplateEngineTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void escapesPlaceholdersAndInsertsTripleBracesRaw() {
+        CompiledTemplate template = CompiledTemplate.compile("welcome", "<p>{{name}}</p>{{{footer}}}{{missing}}{{open");
+
+        assertEquals("<p>&lt;b&gt;Tom &amp; &quot;Jerry&quot; &#39;s&lt;/b&gt;</p><hr>{{open",
+                template.render(Map.of("name", "<b>Tom & \"Jerry\" 's</b>", "footer", "<hr>")));
+    }
+
+    @Test
+    void recompilesAChangedTemplateAfterTheReloadInterval() throws Exception {
+        write("welcome", "Hello {{name}}", 1_000);
+        TemplateEngine engine = engine(Duration.ofNanos(1));
+
+        CompiledTemplate first = engine.getTemplate("welcome");
+        assertSame(first, engine.getTemplate("welcome"));
+
+        write("welcome", "Goodbye {{name}}", 2_000);
+        assertEquals("Goodbye Ann", engine.render("welcome", Map.of("name", "Ann")));
+    }
+
+    @Test
+    void keepsTheCompiledTemplateWhenReloadIsDisabled() throws Exception {
+        write("welcome", "Hello {{name}}", 1_000);
+        TemplateEngine engine = engine(Duration.ZERO);
+        CompiledTemplate first = engine.getTemplate("welcome");
+
+        write("welcome", "Goodbye {{name}}", 2_000);
+
+        assertSame(first, engine.getTemplate("welcome"));
+        engine.clearCache();
+        assertEquals("Goodbye Ann", engine.render("welcome", Map.of("name", "Ann")));
+    }
+
+    @Test
+    void rejectsNamesOutsideTheLocation() {
+        TemplateEngine engine = engine(Duration.ZERO);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.getTemplate("../secret"));
+        assertThrows(IllegalArgumentException.class, () -> engine.getTemplate("missing"));
+    }
+
+    private TemplateEngine engine(Duration reloadInterval) {
+        MailConfig.Template properties = new MailConfig.Template();
+        properties.setLocation(directory.toUri().toString());
+        properties.setReloadInterval(reloadInterval);
+        return new TemplateEngine(properties, new DefaultResourceLoader());
+    }
+
+    private void write(String name, String source, long lastModifiedMillis) throws Exception {
+        Path file = Files.writeString(directory.resolve(name + ".html"), source, StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModifiedMillis));
+    }
+}